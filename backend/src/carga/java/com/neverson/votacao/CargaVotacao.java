@@ -0,0 +1,341 @@
+package com.neverson.votacao;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.neverson.votacao.utils.CPFUtils;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simula a abertura de uma assembleia: sobe a aplicação completa numa porta livre,
+ * com um SQLite em arquivo temporário, cria a pauta, abre a sessão e dispara os votos
+ * por HTTP no ritmo configurado. Parte dos votos repete um CPF já enviado (espera 409)
+ * e parte vai para uma sessão já encerrada (espera 400).
+ *
+ * <p>A carga é de malha aberta: cada voto tem seu horário de envio, e a latência é
+ * medida a partir desse horário, então a fila formada quando o servidor atrasa entra
+ * na conta em vez de ser escondida pelo próprio gerador.
+ *
+ * <p>Com um ritmo acima do que o banco grava, o controle de admissão recusa o excedente
+ * com 429; esses votos não são reenviados e aparecem no relatório como recusados, com a
+ * latência dos aceitos separada. Com a admissão ligada a rodada falha se o p99 dos aceitos
+ * passar de carga.p99MaximoMs. Com carga.admissao=false a mesma carga mostra a fila
+ * crescendo sem limite, e a latência não é cobrada.
+ *
+ * <p>Configuração por propriedades de sistema, repassadas pela task {@code carga} do Gradle:
+ * carga.votos, carga.duracao (segundos), carga.concorrencia, carga.duplicados,
+ * carga.atrasados, carga.escrita, carga.admissao, carga.p99MaximoMs e carga.saida.
+ */
+public class CargaVotacao {
+
+    private static final int RECUSADO = 429;
+
+    private final int votos = Integer.getInteger("carga.votos", 50_000);
+    private final Duration duracao = Duration.ofSeconds(Integer.getInteger("carga.duracao", 60));
+    private final int concorrencia = Integer.getInteger("carga.concorrencia", 256);
+    private final double duplicados = Double.parseDouble(System.getProperty("carga.duplicados", "0.05"));
+    private final double atrasados = Double.parseDouble(System.getProperty("carga.atrasados", "0.02"));
+    private final String modoEscrita = System.getProperty("carga.escrita", "direta");
+    private final boolean admissao = Boolean.parseBoolean(System.getProperty("carga.admissao", "true"));
+    private final long p99MaximoMs = Long.getLong("carga.p99MaximoMs", 500);
+    private final Path saida = Path.of(System.getProperty("carga.saida", "build/reports/carga/resultado.json"));
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient cliente = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Map<ETipoVoto, Map<Integer, LongAdder>> respostas = new ConcurrentHashMap<>();
+    // CPFs com voto já aceito, de onde saem os duplicados
+    private final List<String> confirmados = new ArrayList<>();
+    private String base;
+
+    public static void main(String[] args) throws Exception {
+        System.exit(new CargaVotacao().executar() ? 0 : 1);
+    }
+
+    private boolean executar() throws Exception {
+        Path diretorio = Files.createTempDirectory("votacao-carga");
+        try (ConfigurableApplicationContext contexto = iniciarAplicacao(diretorio)) {
+            base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+
+            UUID pautaId = criarPauta("Assembleia sob carga");
+            UUID sessaoId = abrirSessao(pautaId, (int) duracao.toSeconds() + 60);
+            // sessão de um segundo que já terá fechado quando os votos atrasados chegarem
+            UUID sessaoEncerrada = abrirSessao(criarPauta("Sessão encerrada"), 1);
+            Thread.sleep(1_500);
+
+            long[] latencias = new long[votos];
+            int[] statusPorVoto = new int[votos];
+            long inicio = System.nanoTime();
+            disparar(sessaoId, sessaoEncerrada, latencias, statusPorVoto, inicio);
+            long decorrido = System.nanoTime() - inicio;
+            long[] latenciasAceitos = aceitos(latencias, statusPorVoto);
+            Arrays.sort(latencias);
+
+            long totalApurado = get("/v1/votos/pautas/" + pautaId + "/resultado").get("totalVotos").asLong();
+            long aceitos = confirmados.size();
+            var relatorio = relatorio(latencias, latenciasAceitos, decorrido, aceitos, totalApurado);
+
+            Files.createDirectories(saida.toAbsolutePath().getParent());
+            objectMapper.writeValue(saida.toFile(), relatorio);
+            System.out.printf("%d votos em %.1fs (%.0f/s), p99 %.1f ms, %d recusados com 429, "
+                            + "apurados %d de %d aceitos -> %s%n",
+                    votos, decorrido / 1e9, votos * 1e9 / decorrido, percentil(latencias, 0.99) / 1e6,
+                    recusados(), totalApurado, aceitos, saida.toAbsolutePath());
+            return totalApurado == aceitos && inesperadas() == 0 && latenciaAceitaDentroDoLimite(latenciasAceitos);
+        } finally {
+            FileSystemUtils.deleteRecursively(diretorio);
+        }
+    }
+
+    private ConfigurableApplicationContext iniciarAplicacao(Path diretorio) {
+        return new SpringApplicationBuilder(VotacaoApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:sqlite:" + diretorio.resolve("votacao.db"),
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--votacao.escrita.modo=" + modoEscrita,
+                        "--votacao.admissao.habilitado=" + admissao,
+                        "--votacao.escrita.diario.arquivo=" + diretorio.resolve("votos.diario"));
+    }
+
+    private void disparar(UUID sessaoId, UUID sessaoEncerrada, long[] latencias, int[] statusPorVoto, long inicio)
+            throws InterruptedException {
+        var aleatorio = new SplittableRandom(42);
+        var vagas = new Semaphore(concorrencia);
+        long intervalo = duracao.toNanos() / votos;
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < votos; i++) {
+                double sorteio = aleatorio.nextDouble();
+                String duplicado = sorteio >= atrasados && sorteio < atrasados + duplicados ? confirmado(aleatorio) : null;
+                ETipoVoto tipo = sorteio < atrasados ? ETipoVoto.ATRASADO
+                        : duplicado != null ? ETipoVoto.DUPLICADO
+                        : ETipoVoto.VALIDO;
+                String cpf = duplicado != null ? duplicado : Long.toString(CPFUtils.completar(100_000_000L + i));
+                UUID sessao = tipo == ETipoVoto.ATRASADO ? sessaoEncerrada : sessaoId;
+
+                long agendado = inicio + i * intervalo;
+                long espera = agendado - System.nanoTime();
+                if (espera > 0) {
+                    LockSupport.parkNanos(espera);
+                }
+                vagas.acquire();
+                int indice = i;
+                executor.execute(() -> {
+                    try {
+                        int status = votar(sessao, cpf);
+                        latencias[indice] = System.nanoTime() - agendado;
+                        statusPorVoto[indice] = status;
+                        contar(tipo, status);
+                        if (tipo == ETipoVoto.VALIDO && status == 200) {
+                            synchronized (confirmados) {
+                                confirmados.add(cpf);
+                            }
+                        }
+                    } finally {
+                        vagas.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private int votar(UUID sessaoId, String cpf) {
+        String corpo = "{\"sessaoId\":\"" + sessaoId + "\",\"cpf\":\"" + cpf + "\",\"voto\":\""
+                + (cpf.charAt(10) % 2 == 0 ? "SIM" : "NAO") + "\"}";
+        try {
+            return cliente.send(post("/v1/votos", corpo), HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    private String confirmado(SplittableRandom aleatorio) {
+        synchronized (confirmados) {
+            return confirmados.isEmpty() ? null : confirmados.get(aleatorio.nextInt(confirmados.size()));
+        }
+    }
+
+    private void contar(ETipoVoto tipo, int status) {
+        respostas.computeIfAbsent(tipo, t -> new ConcurrentHashMap<>())
+                .computeIfAbsent(status, s -> new LongAdder())
+                .increment();
+    }
+
+    /**
+     * Respostas diferentes da esperada para o tipo do voto, incluindo falhas de conexão.
+     * O 429 do controle de admissão vale para qualquer tipo.
+     */
+    private long inesperadas() {
+        long total = 0;
+        for (var tipo : respostas.entrySet()) {
+            for (var status : tipo.getValue().entrySet()) {
+                if (status.getKey() != tipo.getKey().esperado && status.getKey() != RECUSADO) {
+                    total += status.getValue().sum();
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Com a admissão ligada o excedente é recusado justamente para que os aceitos não
+     * esperem na fila; sem ela não há limite a cobrar.
+     */
+    private boolean latenciaAceitaDentroDoLimite(long[] latenciasAceitos) {
+        if (!admissao) {
+            return true;
+        }
+        double p99Ms = percentil(latenciasAceitos, 0.99) / 1e6;
+        if (p99Ms > p99MaximoMs) {
+            System.out.printf("p99 dos aceitos %.1f ms acima do limite de %d ms%n", p99Ms, p99MaximoMs);
+            return false;
+        }
+        return true;
+    }
+
+    private long recusados() {
+        return respostas.values().stream()
+                .mapToLong(porStatus -> porStatus.containsKey(RECUSADO) ? porStatus.get(RECUSADO).sum() : 0)
+                .sum();
+    }
+
+    /**
+     * Latências, já ordenadas, só dos votos que receberam 200.
+     */
+    private static long[] aceitos(long[] latencias, int[] statusPorVoto) {
+        long[] aceitos = new long[latencias.length];
+        int quantidade = 0;
+        for (int i = 0; i < latencias.length; i++) {
+            if (statusPorVoto[i] == 200) {
+                aceitos[quantidade++] = latencias[i];
+            }
+        }
+        aceitos = Arrays.copyOf(aceitos, quantidade);
+        Arrays.sort(aceitos);
+        return aceitos;
+    }
+
+    private Map<String, Object> relatorio(long[] latencias, long[] latenciasAceitos, long decorrido, long aceitos,
+                                          long totalApurado) {
+        var configuracao = new LinkedHashMap<String, Object>();
+        configuracao.put("votos", votos);
+        configuracao.put("duracaoSegundos", duracao.toSeconds());
+        configuracao.put("concorrencia", concorrencia);
+        configuracao.put("duplicados", duplicados);
+        configuracao.put("atrasados", atrasados);
+        configuracao.put("escrita", modoEscrita);
+        configuracao.put("admissao", admissao);
+        configuracao.put("p99MaximoMs", p99MaximoMs);
+
+        var porTipo = new TreeMap<String, Object>();
+        respostas.forEach((tipo, porStatus) -> {
+            var contagem = new TreeMap<String, Long>();
+            porStatus.forEach((status, contador) -> contagem.put(status == 0 ? "falha" : status.toString(), contador.sum()));
+            porTipo.put(tipo.name().toLowerCase(), contagem);
+        });
+
+        var relatorio = new LinkedHashMap<String, Object>();
+        relatorio.put("configuracao", configuracao);
+        relatorio.put("segundos", decorrido / 1e9);
+        relatorio.put("votosPorSegundo", votos * 1e9 / decorrido);
+        relatorio.put("latenciaMs", latencia(latencias));
+        relatorio.put("latenciaAceitosMs", latencia(latenciasAceitos));
+        relatorio.put("respostas", porTipo);
+        relatorio.put("recusados", recusados());
+        relatorio.put("inesperadas", inesperadas());
+        relatorio.put("aceitos", aceitos);
+        relatorio.put("apurados", totalApurado);
+        return relatorio;
+    }
+
+    private static Map<String, Object> latencia(long[] latencias) {
+        var latencia = new LinkedHashMap<String, Object>();
+        latencia.put("p50", percentil(latencias, 0.50) / 1e6);
+        latencia.put("p95", percentil(latencias, 0.95) / 1e6);
+        latencia.put("p99", percentil(latencias, 0.99) / 1e6);
+        latencia.put("max", percentil(latencias, 1.0) / 1e6);
+        return latencia;
+    }
+
+    // latências já ordenadas; com algumas dezenas de milhares de amostras não compensa um histograma
+    private static long percentil(long[] latencias, double quantil) {
+        if (latencias.length == 0) {
+            return 0;
+        }
+        int posicao = (int) Math.ceil(quantil * latencias.length) - 1;
+        return latencias[Math.clamp(posicao, 0, latencias.length - 1)];
+    }
+
+    private UUID criarPauta(String titulo) throws IOException, InterruptedException {
+        var resposta = enviar(post("/v1/pautas", "{\"titulo\":\"" + titulo + "\",\"descricao\":\"Teste de carga\"}"));
+        return UUID.fromString(resposta.get("id").asText());
+    }
+
+    private UUID abrirSessao(UUID pautaId, int segundos) throws IOException, InterruptedException {
+        var resposta = enviar(post("/v1/pautas/" + pautaId + "/sessoes", "{\"duracao\":" + segundos + "}"));
+        return UUID.fromString(resposta.get("id").asText());
+    }
+
+    private JsonNode get(String caminho) throws IOException, InterruptedException {
+        return enviar(HttpRequest.newBuilder(URI.create(base + caminho)).GET().build());
+    }
+
+    private HttpRequest post(String caminho, String json) {
+        return HttpRequest.newBuilder(URI.create(base + caminho))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private JsonNode enviar(HttpRequest requisicao) throws IOException, InterruptedException {
+        var resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.ofString());
+        if (resposta.statusCode() >= 300) {
+            throw new IllegalStateException(requisicao.uri() + " respondeu " + resposta.statusCode() + ": " + resposta.body());
+        }
+        return objectMapper.readTree(resposta.body());
+    }
+
+    private enum ETipoVoto {
+        VALIDO(200),
+        DUPLICADO(409),
+        ATRASADO(400);
+
+        private final int esperado;
+
+        ETipoVoto(int esperado) {
+            this.esperado = esperado;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.neverson.votacao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o tempo de subida da aplicação como num deploy: um processo novo sobre um banco
+ * que já existe, cronometrado do início do processo até a primeira resposta de
+ * {@code GET /v1/pautas}. Compara o jar extraído rodando como antes (perfil padrão, com
+ * {@code ddl-auto: update} e springdoc) com a versão otimizada (AOT, arquivo de CDS e
+ * perfil prod), alternando as duas a cada rodada.
+ *
+ * <p>Configuração por propriedades de sistema, repassadas pela task {@code inicializacao}
+ * do Gradle: inicializacao.diretorio (onde estão o jar extraído e o votacao.jsa),
+ * inicializacao.jar, inicializacao.rodadas e inicializacao.saida.
+ */
+public class InicializacaoVotacao {
+
+    private static final Duration LIMITE = Duration.ofMinutes(2);
+
+    private final Path diretorio = Path.of(System.getProperty("inicializacao.diretorio", "build/otimizado"));
+    private final String jar = System.getProperty("inicializacao.jar", "votacao-0.0.1-SNAPSHOT.jar");
+    private final int rodadas = Integer.getInteger("inicializacao.rodadas", 5);
+    private final Path saida = Path.of(System.getProperty("inicializacao.saida",
+            "build/reports/inicializacao/resultado.json"));
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient cliente = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+    private final String java = ProcessHandle.current().info().command().orElse("java");
+
+    public static void main(String[] args) throws Exception {
+        new InicializacaoVotacao().executar();
+    }
+
+    private void executar() throws Exception {
+        Map<String, List<String>> variantes = new LinkedHashMap<>();
+        variantes.put("antes", List.of());
+        variantes.put("depois", List.of("-XX:SharedArchiveFile=votacao.jsa", "-Dspring.aot.enabled=true",
+                "-Dspring.profiles.active=prod"));
+
+        Map<String, List<Long>> tempos = new LinkedHashMap<>();
+        variantes.keySet().forEach(nome -> tempos.put(nome, new ArrayList<>()));
+
+        // a primeira subida de cada variante cria o banco e não entra na conta
+        for (var variante : variantes.entrySet()) {
+            subir(variante.getKey(), variante.getValue());
+        }
+        for (int rodada = 1; rodada <= rodadas; rodada++) {
+            for (var variante : variantes.entrySet()) {
+                long milissegundos = subir(variante.getKey(), variante.getValue());
+                tempos.get(variante.getKey()).add(milissegundos);
+                System.out.printf("rodada %d, %s: %d ms%n", rodada, variante.getKey(), milissegundos);
+            }
+        }
+
+        Map<String, Object> relatorio = new LinkedHashMap<>();
+        tempos.forEach((nome, medidas) -> {
+            List<Long> ordenadas = medidas.stream().sorted().toList();
+            Map<String, Object> resumo = new LinkedHashMap<>();
+            resumo.put("mediana", ordenadas.get(ordenadas.size() / 2));
+            resumo.put("minimo", ordenadas.getFirst());
+            resumo.put("maximo", ordenadas.getLast());
+            resumo.put("rodadas", medidas);
+            relatorio.put(nome, resumo);
+        });
+        Files.createDirectories(saida.toAbsolutePath().getParent());
+        objectMapper.writeValue(saida.toFile(), relatorio);
+        System.out.printf("primeira requisição: antes %d ms, depois %d ms -> %s%n",
+                mediana(tempos.get("antes")), mediana(tempos.get("depois")), saida.toAbsolutePath());
+    }
+
+    /**
+     * Sobe um processo da aplicação e devolve os milissegundos até a primeira resposta 200.
+     */
+    private long subir(String variante, List<String> opcoesJvm) throws Exception {
+        int porta = portaLivre();
+        List<String> comando = new ArrayList<>();
+        comando.add(java);
+        comando.addAll(opcoesJvm);
+        comando.addAll(List.of("-jar", jar,
+                "--server.port=" + porta,
+                "--spring.datasource.url=jdbc:sqlite:inicializacao-" + variante + ".db",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"));
+
+        var processo = new ProcessBuilder(comando)
+                .directory(diretorio.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(diretorio.resolve("inicializacao-" + variante + ".log").toFile());
+        long inicio = System.nanoTime();
+        Process aplicacao = processo.start();
+        try {
+            aguardarPrimeiraResposta(aplicacao, porta, variante);
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        } finally {
+            aplicacao.destroy();
+            if (!aplicacao.waitFor(30, TimeUnit.SECONDS)) {
+                aplicacao.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private void aguardarPrimeiraResposta(Process aplicacao, int porta, String variante) throws Exception {
+        var requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/v1/pautas"))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        long prazo = System.nanoTime() + LIMITE.toNanos();
+        while (System.nanoTime() < prazo) {
+            if (!aplicacao.isAlive()) {
+                throw new IllegalStateException("A aplicação (" + variante + ") terminou ao subir, veja inicializacao-"
+                        + variante + ".log em " + diretorio);
+            }
+            try {
+                if (cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // ainda subindo
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("A aplicação (" + variante + ") não respondeu em " + LIMITE);
+    }
+
+    private static int portaLivre() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long mediana(List<Long> medidas) {
+        return medidas.stream().sorted().toList().get(medidas.size() / 2);
+    }
+}
@@ -0,0 +1,160 @@
+package com.neverson.votacao;
+
+import com.neverson.votacao.utils.CPFUtils;
+import com.neverson.votacao.utils.UUIDUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+import org.sqlite.SQLiteConfig;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tabela voto antes e depois do V2__voto_compacto, direto no JDBC e sem o resto da
+ * aplicação: {@code v1} é o esquema do Hibernate (UUID por voto como chave e CPF em
+ * texto, sem índice), {@code v2} é a chave (pauta_id, associado_id) sem rowid. A tabela
+ * começa com {@link #PAUTAS} pautas de {@link #VOTOS_POR_PAUTA} votos; o tamanho do
+ * arquivo depois dessa carga sai no log do fork, em bytes por voto.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EsquemaVotoBenchmark {
+
+    private static final int PAUTAS = 4;
+    private static final int VOTOS_POR_PAUTA = 50_000;
+    private static final int LOTE = 1000;
+
+    private static final String CRIAR_V1 = """
+        CREATE TABLE voto (
+            id BLOB NOT NULL,
+            associado_id VARCHAR(11) NOT NULL,
+            voto TINYINT NOT NULL CHECK (voto BETWEEN 0 AND 1),
+            pauta_id BLOB,
+            PRIMARY KEY (id)
+        )
+    """;
+
+    private static final String CRIAR_V2 = """
+        CREATE TABLE voto (
+            pauta_id BLOB NOT NULL,
+            associado_id BIGINT NOT NULL,
+            voto TINYINT NOT NULL CHECK (voto BETWEEN 0 AND 1),
+            PRIMARY KEY (pauta_id, associado_id)
+        ) WITHOUT ROWID
+    """;
+
+    private static final String CONTAR_VOTOS_DA_PAUTA = """
+        SELECT voto, COUNT(*) AS quantidade
+        FROM voto
+        WHERE pauta_id = ?
+        GROUP BY voto
+    """;
+
+    @Param({"v1", "v2"})
+    public String esquema;
+
+    private Path diretorio;
+    private Connection conexao;
+    private byte[] pautaContada;
+    private long sequencia;
+
+    @Setup(Level.Trial)
+    public void iniciar() throws IOException, SQLException {
+        diretorio = Files.createTempDirectory("votacao-jmh");
+        Path arquivo = diretorio.resolve("votacao.db");
+        // mesmo modo de journal e sincronização do escritor da aplicação
+        SQLiteConfig config = new SQLiteConfig();
+        config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        conexao = DriverManager.getConnection("jdbc:sqlite:" + arquivo, config.toProperties());
+        conexao.setAutoCommit(false);
+        try (Statement statement = conexao.createStatement()) {
+            statement.execute("v1".equals(esquema) ? CRIAR_V1 : CRIAR_V2);
+        }
+        conexao.commit();
+
+        for (int i = 0; i < PAUTAS; i++) {
+            byte[] pauta = UUIDUtils.toBytes(UUID.randomUUID());
+            for (int j = 0; j < VOTOS_POR_PAUTA; j += LOTE) {
+                inserir(pauta);
+            }
+            pautaContada = pauta;
+        }
+        try (Statement statement = conexao.createStatement()) {
+            statement.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+        }
+        long votos = (long) PAUTAS * VOTOS_POR_PAUTA;
+        long bytes = Files.size(arquivo);
+        System.out.printf("%n%s: %d votos em %d bytes (%.1f bytes por voto)%n", esquema, votos, bytes,
+                (double) bytes / votos);
+    }
+
+    @TearDown(Level.Trial)
+    public void parar() throws IOException, SQLException {
+        conexao.close();
+        FileSystemUtils.deleteRecursively(diretorio);
+    }
+
+    // cada operação é um lote de LOTE votos de uma pauta nova numa transação
+    @Benchmark
+    public int inserirLote() throws SQLException {
+        return inserir(UUIDUtils.toBytes(UUID.randomUUID()));
+    }
+
+    @Benchmark
+    public long contarVotosDaPauta() throws SQLException {
+        long total = 0;
+        try (PreparedStatement ps = conexao.prepareStatement(CONTAR_VOTOS_DA_PAUTA)) {
+            ps.setBytes(1, pautaContada);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    total += rs.getLong("quantidade");
+                }
+            }
+        }
+        conexao.commit();
+        return total;
+    }
+
+    private int inserir(byte[] pauta) throws SQLException {
+        boolean v1 = "v1".equals(esquema);
+        String sql = v1
+                ? "INSERT INTO voto (id, associado_id, voto, pauta_id) VALUES (?, ?, ?, ?)"
+                : "INSERT INTO voto (pauta_id, associado_id, voto) VALUES (?, ?, ?)";
+        try (PreparedStatement ps = conexao.prepareStatement(sql)) {
+            for (int i = 0; i < LOTE; i++) {
+                long cpf = CPFUtils.completar(proximaBase());
+                if (v1) {
+                    ps.setBytes(1, UUIDUtils.toBytes(UUID.randomUUID()));
+                    ps.setString(2, Long.toString(cpf));
+                    ps.setInt(3, i & 1);
+                    ps.setBytes(4, pauta);
+                } else {
+                    ps.setBytes(1, pauta);
+                    ps.setLong(2, cpf);
+                    ps.setInt(3, i & 1);
+                }
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        conexao.commit();
+        return LOTE;
+    }
+
+    // CPFs fora de ordem, como chegam numa votação; o multiplicador é primo com o intervalo,
+    // então a sequência não repete base
+    private long proximaBase() {
+        return 100_000_000L + Math.floorMod(sequencia++ * 1_000_003L, 900_000_000L);
+    }
+}
@@ -0,0 +1,94 @@
+package com.neverson.votacao;
+
+import com.neverson.votacao.domain.entities.Voto;
+import com.neverson.votacao.domain.enums.EVotoOpcao;
+import com.neverson.votacao.services.PautaService;
+import com.neverson.votacao.services.SessaoService;
+import com.neverson.votacao.services.VotacaoService;
+import com.neverson.votacao.utils.CPFUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Vazão agregada de votos com várias sessões abertas ao mesmo tempo, com e sem um
+ * arquivo SQLite por pauta. Cada thread vota sempre na mesma sessão e as threads são
+ * distribuídas entre as sessões; sem fragmentos todas disputam o lock de escrita do
+ * banco principal, com fragmentos a vazão deve crescer com o número de sessões.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FragmentosBenchmark {
+
+    @Param({"false", "true"})
+    public boolean fragmentos;
+
+    @Param({"1", "4", "8"})
+    public int sessoes;
+
+    private Path diretorio;
+    private ConfigurableApplicationContext contexto;
+    private VotacaoService votacaoService;
+    private UUID[] sessaoIds;
+    private final AtomicInteger proximaSessao = new AtomicInteger();
+    private final AtomicLong proximoCpf = new AtomicLong(100_000_000L);
+
+    @Setup(Level.Trial)
+    public void iniciar() throws IOException {
+        diretorio = Files.createTempDirectory("votacao-jmh");
+        contexto = new SpringApplicationBuilder(VotacaoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:sqlite:" + diretorio.resolve("votacao.db"),
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        // FULL faz cada commit esperar o fsync, que é o que o lock serializa
+                        "--votacao.banco.sincronizacao=full",
+                        "--votacao.banco.fragmentos.habilitado=" + fragmentos,
+                        "--votacao.banco.fragmentos.diretorio=" + diretorio.resolve("fragmentos"),
+                        // com a latência do fsync o controle de admissão baixa o limite e recusa votos
+                        "--votacao.admissao.habilitado=false");
+
+        votacaoService = contexto.getBean(VotacaoService.class);
+        var pautaService = contexto.getBean(PautaService.class);
+        var sessaoService = contexto.getBean(SessaoService.class);
+        sessaoIds = new UUID[sessoes];
+        for (int i = 0; i < sessoes; i++) {
+            UUID pautaId = pautaService.criarPauta("Pauta " + i, "Votação simultânea").getId();
+            sessaoIds[i] = sessaoService.abrirSessao(pautaId, 86_400).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void parar() throws IOException {
+        contexto.close();
+        FileSystemUtils.deleteRecursively(diretorio);
+    }
+
+    @State(Scope.Thread)
+    public static class Votante {
+        UUID sessaoId;
+
+        @Setup(Level.Trial)
+        public void escolherSessao(FragmentosBenchmark benchmark) {
+            sessaoId = benchmark.sessaoIds[benchmark.proximaSessao.getAndIncrement() % benchmark.sessoes];
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Voto votar(Votante votante) {
+        return votacaoService.votar(votante.sessaoId, Long.toString(CPFUtils.completar(proximoCpf.getAndIncrement())), EVotoOpcao.SIM);
+    }
+}
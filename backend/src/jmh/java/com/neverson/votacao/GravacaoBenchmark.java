@@ -0,0 +1,83 @@
+package com.neverson.votacao;
+
+import com.neverson.votacao.domain.entities.Pauta;
+import com.neverson.votacao.domain.entities.Voto;
+import com.neverson.votacao.domain.enums.EVotoOpcao;
+import com.neverson.votacao.repositories.VotoJdbcRepository;
+import com.neverson.votacao.repositories.VotoRepository;
+import com.neverson.votacao.services.PautaService;
+import com.neverson.votacao.services.impl.DiarioVotos;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Vazão do passo que torna o voto durável, isolado do resto do caminho: o save do JPA,
+ * o INSERT JDBC do modo DIRETA e o append no diário do modo DIARIO, todos com
+ * sincronização FULL para que cada confirmação espere o disco.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GravacaoBenchmark {
+
+    @Param({"jpa", "direta", "diario"})
+    public String gravacao;
+
+    private Path diretorio;
+    private ConfigurableApplicationContext contexto;
+    private VotoRepository votoRepository;
+    private VotoJdbcRepository votoJdbcRepository;
+    private DiarioVotos diarioVotos;
+    private UUID pautaId;
+    private final AtomicLong proximoAssociado = new AtomicLong(10_000_000_000L);
+
+    @Setup(Level.Trial)
+    public void iniciar() throws IOException {
+        diretorio = Files.createTempDirectory("votacao-jmh");
+        contexto = new SpringApplicationBuilder(VotacaoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:sqlite:" + diretorio.resolve("votacao.db"),
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--votacao.banco.sincronizacao=full",
+                        "--votacao.escrita.modo=" + ("diario".equals(gravacao) ? "diario" : "direta"),
+                        "--votacao.escrita.diario.arquivo=" + diretorio.resolve("votos.diario"));
+
+        votoRepository = contexto.getBean(VotoRepository.class);
+        votoJdbcRepository = contexto.getBean(VotoJdbcRepository.class);
+        diarioVotos = contexto.getBean(DiarioVotos.class);
+        Pauta pauta = contexto.getBean(PautaService.class).criarPauta("Pauta do benchmark", "Gravação de votos");
+        pautaId = pauta.getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void parar() throws IOException {
+        contexto.close();
+        FileSystemUtils.deleteRecursively(diretorio);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object gravar() {
+        var voto = new Voto(pautaId, proximoAssociado.getAndIncrement(), EVotoOpcao.SIM);
+        return switch (gravacao) {
+            case "jpa" -> votoRepository.save(voto);
+            case "direta" -> votoJdbcRepository.inserir(voto);
+            default -> {
+                diarioVotos.anexar(voto);
+                yield voto;
+            }
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package com.neverson.votacao;
+
+import com.neverson.votacao.domain.entities.Pauta;
+import com.neverson.votacao.domain.entities.Voto;
+import com.neverson.votacao.domain.enums.EVotoOpcao;
+import com.neverson.votacao.services.PautaService;
+import com.neverson.votacao.services.SessaoService;
+import com.neverson.votacao.services.VotacaoService;
+import com.neverson.votacao.utils.CPFUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Vazão do voto no modo lote para cada tamanho de lote. Quem vota espera o commit do
+ * lote, então são 64 votantes ao mesmo tempo para que um lote tenha o que juntar;
+ * lotes maiores que isso fecham pelo {@code intervalo}, não pelo tamanho.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LoteBenchmark {
+
+    @Param({"1", "64", "1024"})
+    public int tamanhoLote;
+
+    private Path diretorio;
+    private ConfigurableApplicationContext contexto;
+    private VotacaoService votacaoService;
+    private UUID sessaoId;
+    private final AtomicLong proximoCpf = new AtomicLong(100_000_000L);
+
+    @Setup(Level.Trial)
+    public void iniciar() throws IOException {
+        diretorio = Files.createTempDirectory("votacao-jmh");
+        contexto = new SpringApplicationBuilder(VotacaoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:sqlite:" + diretorio.resolve("votacao.db"),
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--votacao.escrita.modo=lote",
+                        "--votacao.escrita.tamanho-lote=" + tamanhoLote,
+                        // 64 votantes passam do limite por sessão; aqui interessa só a gravação
+                        "--votacao.admissao.habilitado=false");
+
+        votacaoService = contexto.getBean(VotacaoService.class);
+        Pauta pauta = contexto.getBean(PautaService.class).criarPauta("Pauta do benchmark", "Votos em lote");
+        sessaoId = contexto.getBean(SessaoService.class).abrirSessao(pauta.getId(), 86_400).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void parar() throws IOException {
+        contexto.close();
+        FileSystemUtils.deleteRecursively(diretorio);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Voto votar() {
+        return votacaoService.votar(sessaoId, Long.toString(CPFUtils.completar(proximoCpf.getAndIncrement())),
+                EVotoOpcao.SIM);
+    }
+}
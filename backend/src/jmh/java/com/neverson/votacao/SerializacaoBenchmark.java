@@ -0,0 +1,66 @@
+package com.neverson.votacao;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.neverson.votacao.domain.dtos.PautaDTO;
+import com.neverson.votacao.domain.dtos.ResultadoVotacaoDTO;
+import com.neverson.votacao.domain.dtos.SessaoDTO;
+import com.neverson.votacao.utils.UUIDUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização das respostas mais frequentes da API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SerializacaoBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ResultadoVotacaoDTO resultado;
+    private PautaDTO pauta;
+    private List<PautaDTO> pautas;
+
+    @Setup
+    public void preparar() {
+        // mesmas opções que o Spring Boot aplica por padrão
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        resultado = new ResultadoVotacaoDTO(1_234_567, 1_000_000, 234_567);
+        pauta = pauta(0);
+        pautas = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            pautas.add(pauta(i));
+        }
+    }
+
+    @Benchmark
+    public byte[] resultado() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(resultado);
+    }
+
+    @Benchmark
+    public byte[] pauta() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pauta);
+    }
+
+    @Benchmark
+    public byte[] listaDePautas() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pautas);
+    }
+
+    private static PautaDTO pauta(int indice) {
+        var id = UUIDUtils.generate();
+        var agora = LocalDateTime.now();
+        var sessao = new SessaoDTO(UUIDUtils.generate(), id, agora, agora.plusMinutes(1), false);
+        return new PautaDTO(id, "Pauta " + indice, "Descrição da pauta " + indice, sessao);
+    }
+}
@@ -0,0 +1,54 @@
+package com.neverson.votacao;
+
+import com.neverson.votacao.config.database.EVotoOpcaoConverter;
+import com.neverson.votacao.domain.enums.EVotoOpcao;
+import com.neverson.votacao.utils.CPFUtils;
+import com.neverson.votacao.utils.UUIDUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Funções chamadas em toda requisição de voto.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UtilsBenchmark {
+
+    private final EVotoOpcaoConverter converter = new EVotoOpcaoConverter();
+    private Integer coluna = 1;
+
+    @Benchmark
+    public boolean cpfValido(Cpf estado) {
+        return CPFUtils.isValid(estado.cpf);
+    }
+
+    @Benchmark
+    public long cpfParse(Cpf estado) {
+        return CPFUtils.parse(estado.cpf);
+    }
+
+    @Benchmark
+    public UUID gerarUuid() {
+        return UUIDUtils.generate();
+    }
+
+    @Benchmark
+    public Integer converterParaColuna() {
+        return converter.convertToDatabaseColumn(EVotoOpcao.SIM);
+    }
+
+    @Benchmark
+    public EVotoOpcao converterParaAtributo() {
+        return converter.convertToEntityAttribute(coluna);
+    }
+
+    // válido, válido formatado, dígito verificador errado e todos os dígitos iguais
+    @State(Scope.Thread)
+    public static class Cpf {
+        @Param({"52998224725", "529.982.247-25", "52998224726", "11111111111"})
+        public String cpf;
+    }
+}
@@ -0,0 +1,105 @@
+package com.neverson.votacao;
+
+import com.neverson.votacao.domain.dtos.PautaDTO;
+import com.neverson.votacao.domain.dtos.ResultadoVotacaoDTO;
+import com.neverson.votacao.domain.entities.Pauta;
+import com.neverson.votacao.domain.entities.Voto;
+import com.neverson.votacao.domain.enums.EVotoOpcao;
+import com.neverson.votacao.services.PautaService;
+import com.neverson.votacao.services.SessaoService;
+import com.neverson.votacao.services.VotacaoService;
+import com.neverson.votacao.utils.CPFUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caminho completo do voto e do resultado, com o contexto Spring real sobre um
+ * SQLite em arquivo temporário. Cada voto usa um CPF novo, então a tabela cresce
+ * ao longo das iterações como em uma votação de verdade.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VotacaoBenchmark {
+
+    @Param({"direta", "lote", "diario"})
+    public String modoEscrita;
+
+    @Param({"true", "false"})
+    public boolean cacheSessoes;
+
+    private Path diretorio;
+    private ConfigurableApplicationContext contexto;
+    private VotacaoService votacaoService;
+    private PautaService pautaService;
+    private UUID sessaoId;
+    private UUID pautaId;
+    private final AtomicLong proximoCpf = new AtomicLong(100_000_000L);
+
+    @Setup(Level.Trial)
+    public void iniciar() throws IOException {
+        diretorio = Files.createTempDirectory("votacao-jmh");
+        contexto = new SpringApplicationBuilder(VotacaoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:sqlite:" + diretorio.resolve("votacao.db"),
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--votacao.escrita.modo=" + modoEscrita,
+                        "--votacao.escrita.diario.arquivo=" + diretorio.resolve("votos.diario"),
+                        "--votacao.sessoes.cache.habilitado=" + cacheSessoes);
+
+        votacaoService = contexto.getBean(VotacaoService.class);
+        pautaService = contexto.getBean(PautaService.class);
+        Pauta pauta = pautaService.criarPauta("Pauta do benchmark", "Votação contínua");
+        pautaId = pauta.getId();
+        sessaoId = contexto.getBean(SessaoService.class).abrirSessao(pautaId, 86_400).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void parar() throws IOException {
+        contexto.close();
+        FileSystemUtils.deleteRecursively(diretorio);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Voto votar() {
+        return votacaoService.votar(sessaoId, proximoCpf(), EVotoOpcao.SIM);
+    }
+
+    @Benchmark
+    public ResultadoVotacaoDTO resultado() {
+        return votacaoService.resultado(pautaId);
+    }
+
+    // leitura no banco enquanto os votos chegam, para ver se ela fica presa atrás das escritas
+    @Benchmark
+    @Group("misto")
+    @GroupThreads(4)
+    public Voto mistoVotar() {
+        return votar();
+    }
+
+    @Benchmark
+    @Group("misto")
+    @GroupThreads(2)
+    public List<PautaDTO> mistoListarPautas() {
+        return pautaService.buscarPautas(null, null).getItens();
+    }
+
+    private String proximoCpf() {
+        return Long.toString(CPFUtils.completar(proximoCpf.getAndIncrement()));
+    }
+}
@@ -0,0 +1,46 @@
+package com.neverson.votacao;
+
+import com.neverson.votacao.utils.LongHashSet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memória por votante do índice de duplicidade: cada operação monta o conjunto de uma
+ * pauta com {@code votantes} CPFs, com a capacidade final já reservada para que não
+ * sobre lixo de redimensionamento. Assim o gc.alloc.rate.norm do profiler gc é a memória
+ * que o conjunto mantém; dividido por {@code votantes} dá os bytes por votante. A base de
+ * comparação é um {@code HashSet<String>} com os CPFs como texto, como eram guardados antes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class VotantesBenchmark {
+
+    private static final long PRIMEIRO_CPF = 10_000_000_000L;
+
+    @Param({"100000", "1000000"})
+    public int votantes;
+
+    @Benchmark
+    public LongHashSet longHashSet() {
+        var conjunto = new LongHashSet(votantes);
+        for (long cpf = PRIMEIRO_CPF; cpf < PRIMEIRO_CPF + votantes; cpf++) {
+            conjunto.add(cpf);
+        }
+        return conjunto;
+    }
+
+    @Benchmark
+    public Set<String> hashSetDeString() {
+        Set<String> conjunto = new HashSet<>((int) (votantes / 0.75f) + 1);
+        for (long cpf = PRIMEIRO_CPF; cpf < PRIMEIRO_CPF + votantes; cpf++) {
+            conjunto.add(Long.toString(cpf));
+        }
+        return conjunto;
+    }
+}
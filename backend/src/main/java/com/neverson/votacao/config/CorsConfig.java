@@ -1,7 +1,10 @@
 package com.neverson.votacao.config;
 
+import com.neverson.votacao.controllers.PautaController;
+import com.neverson.votacao.controllers.VotoController;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -17,6 +20,7 @@ public class CorsConfig {
                         .allowedOrigins("http://localhost:3000")
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                         .allowedHeaders("*")
+                        .exposedHeaders(PautaController.PROXIMO_CURSOR, VotoController.REPETIDA, HttpHeaders.RETRY_AFTER)
                         .allowCredentials(true);
             }
         };
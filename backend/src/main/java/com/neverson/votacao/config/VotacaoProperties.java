@@ -0,0 +1,253 @@
+package com.neverson.votacao.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "votacao")
+public class VotacaoProperties {
+
+    private Escrita escrita = new Escrita();
+    private Sessoes sessoes = new Sessoes();
+    private Acompanhamento acompanhamento = new Acompanhamento();
+    private Banco banco = new Banco();
+    private Importacao importacao = new Importacao();
+    private Exportacao exportacao = new Exportacao();
+    private Paginacao paginacao = new Paginacao();
+    private Elegibilidade elegibilidade = new Elegibilidade();
+    private Resultados resultados = new Resultados();
+    private Idempotencia idempotencia = new Idempotencia();
+    private Admissao admissao = new Admissao();
+
+    @Data
+    public static class Escrita {
+        /**
+         * DIRETA grava cada voto em sua própria transação; LOTE enfileira os votos
+         * e um único escritor os grava em lotes JDBC, uma transação por lote; DIARIO
+         * aceita o voto ao anexá-lo no diário em disco e grava na tabela depois.
+         */
+        private ModoEscrita modo = ModoEscrita.DIRETA;
+        private int tamanhoLote = 64;
+        private Duration intervalo = Duration.ofMillis(5);
+        private int capacidadeFila = 10_000;
+        private Duration timeout = Duration.ofSeconds(10);
+        private Diario diario = new Diario();
+    }
+
+    @Data
+    public static class Diario {
+        private String arquivo = "votos.diario";
+        /**
+         * Tamanho do arquivo mapeado em memória. Cheio, o diário recomeça do início
+         * assim que todos os votos dele estiverem na tabela voto.
+         */
+        private DataSize tamanho = DataSize.ofMegabytes(64);
+    }
+
+    @Data
+    public static class Sessoes {
+        private Cache cache = new Cache();
+        private Encerramento encerramento = new Encerramento();
+    }
+
+    @Data
+    public static class Encerramento {
+        /**
+         * Espera depois do fechamento antes de apurar. Os votos aceitos no último instante
+         * são aguardados de qualquer forma; a margem só evita que o encerramento fique
+         * parado esperando por eles.
+         */
+        private Duration margem = Duration.ofSeconds(2);
+        /**
+         * Quanto o encerramento espera pelos votos da pauta que ainda estão gravando;
+         * passado o prazo, a apuração fica para a nova tentativa.
+         */
+        private Duration espera = Duration.ofSeconds(15);
+        private Duration novaTentativa = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Cache {
+        private boolean habilitado = true;
+        private long tamanhoMaximo = 10_000;
+    }
+
+    @Data
+    public static class Acompanhamento {
+        /**
+         * Máximo de eventos enviados por segundo para cada pauta; atualizações
+         * dentro do mesmo intervalo são agrupadas e só o estado mais recente vai.
+         */
+        private int eventosPorSegundo = 2;
+        private int maximoAssinantes = 10_000;
+        private int maximoPautasPorAssinatura = 50;
+        private Duration timeout = Duration.ofMinutes(30);
+        private Duration heartbeat = Duration.ofSeconds(25);
+    }
+
+    @Data
+    public static class Banco {
+        /**
+         * Conexões do pool usado pelas transações somente leitura. As escritas
+         * sempre usam uma única conexão dedicada.
+         */
+        private int leitores = 8;
+        private Sincronizacao sincronizacao = Sincronizacao.NORMAL;
+        private DataSize cache = DataSize.ofMegabytes(64);
+        private DataSize mmap = DataSize.ofMegabytes(256);
+        private Duration busyTimeout = Duration.ofSeconds(5);
+        private Duration esperaConexao = Duration.ofSeconds(10);
+        private Fragmentos fragmentos = new Fragmentos();
+    }
+
+    @Data
+    public static class Fragmentos {
+        /**
+         * Grava os votos de cada pauta em um arquivo SQLite próprio, criado na abertura
+         * da sessão, para que sessões simultâneas não disputem o lock de escrita do banco
+         * principal. Pautas abertas antes de habilitar continuam no banco principal.
+         */
+        private boolean habilitado = false;
+        private String diretorio = "fragmentos";
+    }
+
+    @Data
+    public static class Importacao {
+        private int tamanhoLote = 500;
+        /**
+         * Prazo máximo de um lote em montagem; um upload lento não deixa votos já lidos
+         * esperando o lote encher.
+         */
+        private Duration intervalo = Duration.ofSeconds(1);
+        private int maximoRejeicoes = 1_000;
+    }
+
+    @Data
+    public static class Exportacao {
+        /**
+         * Linhas trazidas do banco por vez; a memória da exportação depende deste
+         * valor e não da quantidade de votos da pauta.
+         */
+        private int tamanhoBusca = 1_000;
+    }
+
+    @Data
+    public static class Paginacao {
+        private int tamanhoPagina = 10;
+        /**
+         * Maior página aceita quando o cliente informa o tamanho; valores acima são reduzidos a este.
+         */
+        private int tamanhoMaximo = 100;
+
+        public int tamanho(Integer solicitado) {
+            return solicitado == null ? tamanhoPagina : Math.clamp(solicitado, 1, tamanhoMaximo);
+        }
+    }
+
+    @Data
+    public static class Elegibilidade {
+        /**
+         * SIMULADA sorteia o resultado sem sair da aplicação; HTTP consulta o serviço
+         * externo em {@code url}/{cpf}.
+         */
+        private ModoElegibilidade modo = ModoElegibilidade.SIMULADA;
+        private String url = "http://localhost:8081/users";
+        private Duration timeoutConexao = Duration.ofMillis(500);
+        private Duration timeoutLeitura = Duration.ofSeconds(1);
+        private CacheElegibilidade cache = new CacheElegibilidade();
+        private Circuito circuito = new Circuito();
+        private LoteElegibilidade lote = new LoteElegibilidade();
+    }
+
+    @Data
+    public static class LoteElegibilidade {
+        private int maximoCpfs = 10_000;
+        /**
+         * Consultas em andamento ao mesmo tempo por lote.
+         */
+        private int concorrencia = 32;
+    }
+
+    @Data
+    public static class CacheElegibilidade {
+        private Duration validade = Duration.ofMinutes(5);
+        private long tamanhoMaximo = 100_000;
+    }
+
+    @Data
+    public static class Circuito {
+        /**
+         * Falhas seguidas que abrem o circuito. Aberto, as consultas falham na hora
+         * durante {@code espera}, sem chamar o serviço externo.
+         */
+        private int falhasParaAbrir = 5;
+        private Duration espera = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Resultados {
+        /**
+         * Por quanto tempo o cliente pode reusar o resultado de uma pauta ainda em votação
+         * antes de revalidar com If-None-Match. Pautas encerradas são imutáveis.
+         */
+        private Duration validadeAberta = Duration.ofSeconds(1);
+        /**
+         * Pautas encerradas com o resultado final, e o JSON dele, mantidos em memória;
+         * as demais são relidas de resultado_votacao quando consultadas.
+         */
+        private long tamanhoMaximo = 10_000;
+    }
+
+    @Data
+    public static class Idempotencia {
+        /**
+         * Por quanto tempo uma Idempotency-Key repete o desfecho da primeira requisição.
+         */
+        private Duration validade = Duration.ofHours(1);
+        private long tamanhoMaximo = 100_000;
+    }
+
+    @Data
+    public static class Admissao {
+        /**
+         * Limita os votos em andamento ao mesmo tempo; acima do limite o voto é recusado
+         * na hora com 429 em vez de esperar na fila do banco. O limite global se ajusta à
+         * latência da gravação: cresce aos poucos enquanto ela fica abaixo de
+         * {@code latenciaAlvo} e cai pela metade a cada janela em que passa disso.
+         */
+        private boolean habilitado = true;
+        private int limiteInicial = 64;
+        private int limiteMinimo = 4;
+        private int limiteMaximo = 256;
+        /**
+         * Máximo de votos em andamento numa mesma sessão, para que uma sessão lotada não
+         * ocupe todas as vagas das outras.
+         */
+        private int limitePorSessao = 128;
+        private Duration latenciaAlvo = Duration.ofMillis(100);
+        /**
+         * Valor do Retry-After enviado com o 429.
+         */
+        private Duration novaTentativa = Duration.ofSeconds(1);
+    }
+
+    public enum Sincronizacao {
+        OFF,
+        NORMAL,
+        FULL
+    }
+
+    public enum ModoEscrita {
+        DIRETA,
+        LOTE,
+        DIARIO
+    }
+
+    public enum ModoElegibilidade {
+        SIMULADA,
+        HTTP
+    }
+}
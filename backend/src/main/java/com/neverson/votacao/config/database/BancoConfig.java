@@ -0,0 +1,79 @@
+package com.neverson.votacao.config.database;
+
+import com.neverson.votacao.config.VotacaoProperties;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * SQLite em modo WAL com uma única conexão de escrita e um pool de leitura.
+ * O SQLite só admite um escritor por vez; com uma conexão dedicada as escritas
+ * esperam na fila do pool em vez de disputar o lock e receber SQLITE_BUSY, e no
+ * WAL as leituras seguem sem bloquear enquanto o escritor grava. Transações
+ * {@code readOnly} vão para o pool de leitura, todo o resto para o escritor.
+ */
+@Configuration
+public class BancoConfig {
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource escritorDataSource(DataSourceProperties dataSourceProperties, VotacaoProperties properties) {
+        var banco = properties.getBanco();
+        SQLiteConfig config = sqliteConfig(banco);
+        config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        config.setSynchronous(SQLiteConfig.SynchronousMode.valueOf(banco.getSincronizacao().name()));
+
+        HikariConfig hikari = hikariConfig("sqlite-escritor", dataSourceProperties.getUrl(), config, banco);
+        hikari.setMaximumPoolSize(1);
+        return new HikariDataSource(hikari);
+    }
+
+    /**
+     * Recebe o escritor só para garantir que ele abra o banco, e ative o WAL, antes dos leitores.
+     */
+    @Bean(destroyMethod = "close")
+    public HikariDataSource leitorDataSource(DataSourceProperties dataSourceProperties, VotacaoProperties properties,
+                                             HikariDataSource escritorDataSource) {
+        var banco = properties.getBanco();
+        HikariConfig hikari = hikariConfig("sqlite-leitores", dataSourceProperties.getUrl(), sqliteConfig(banco), banco);
+        hikari.setMaximumPoolSize(banco.getLeitores());
+        // garante que nada gravado por engano passe pelo pool de leitura
+        hikari.setConnectionInitSql("PRAGMA query_only = 1");
+        return new HikariDataSource(hikari);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource escritorDataSource, HikariDataSource leitorDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(escritorDataSource);
+        dataSource.setReadOnlyDataSource(leitorDataSource);
+        return dataSource;
+    }
+
+    static SQLiteConfig sqliteConfig(VotacaoProperties.Banco banco) {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setBusyTimeout((int) banco.getBusyTimeout().toMillis());
+        // valor negativo: tamanho em KiB em vez de número de páginas
+        config.setCacheSize((int) -banco.getCache().toKilobytes());
+        config.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, String.valueOf(banco.getMmap().toBytes()));
+        return config;
+    }
+
+    static HikariConfig hikariConfig(String nome, String url, SQLiteConfig config, VotacaoProperties.Banco banco) {
+        SQLiteDataSource sqlite = new SQLiteDataSource(config);
+        sqlite.setUrl(url);
+
+        HikariConfig hikari = new HikariConfig();
+        hikari.setPoolName(nome);
+        hikari.setDataSource(sqlite);
+        hikari.setConnectionTimeout(banco.getEsperaConexao().toMillis());
+        return hikari;
+    }
+}
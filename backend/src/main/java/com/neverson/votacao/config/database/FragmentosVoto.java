@@ -0,0 +1,228 @@
+package com.neverson.votacao.config.database;
+
+import com.neverson.votacao.config.VotacaoProperties;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Um arquivo SQLite por pauta com os votos dela, em {@code votacao.banco.fragmentos.diretorio}.
+ * Cada fragmento tem o próprio lock de escrita, então sessões abertas ao mesmo tempo gravam
+ * em paralelo; o banco principal fica só com pautas, sessões e resultados. O fragmento é
+ * criado na abertura da sessão e fica anexado, com um escritor dedicado em WAL como o banco
+ * principal, até ser desanexado no encerramento. Depois disso o arquivo continua no disco:
+ * as leituras usam conexões avulsas, e só uma escrita atrasada volta a anexá-lo.
+ */
+@Component
+public class FragmentosVoto {
+
+    private static final String EXTENSAO = ".db";
+
+    // mesma tabela do banco principal; a coluna pauta_id é constante no arquivo, mas
+    // mantém as consultas iguais nos dois lugares
+    private static final String CRIAR_TABELA_VOTO = """
+        CREATE TABLE IF NOT EXISTS voto (
+            pauta_id BLOB NOT NULL,
+            associado_id BIGINT NOT NULL,
+            voto TINYINT NOT NULL CHECK (voto BETWEEN 0 AND 1),
+            PRIMARY KEY (pauta_id, associado_id)
+        ) WITHOUT ROWID
+    """;
+
+    private final VotacaoProperties.Banco banco;
+    private final boolean habilitado;
+    private final Path diretorio;
+    private final Map<UUID, Fragmento> anexados = new ConcurrentHashMap<>();
+
+    public FragmentosVoto(VotacaoProperties properties) {
+        this.banco = properties.getBanco();
+        this.habilitado = banco.getFragmentos().isHabilitado();
+        this.diretorio = Paths.get(banco.getFragmentos().getDiretorio());
+    }
+
+    public boolean habilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Cria o arquivo da pauta, se ainda não existir, e o deixa anexado. Sem fragmentos não faz nada.
+     */
+    public void criar(UUID pautaId) {
+        if (habilitado) {
+            anexados.computeIfAbsent(pautaId, this::abrir);
+        }
+    }
+
+    /**
+     * Executa a escrita com o fragmento da pauta, anexado de novo se preciso, ou com
+     * {@code null} quando os votos dela ficam no banco principal. Enquanto a escrita roda
+     * o fragmento não é desanexado; se ele foi desanexado entre a busca e o início da
+     * escrita, ela é repetida em um fragmento anexado de novo.
+     */
+    public <T> T escrever(UUID pautaId, Function<Fragmento, T> escrita) {
+        while (true) {
+            Fragmento fragmento = anexar(pautaId);
+            if (fragmento == null) {
+                return escrita.apply(null);
+            }
+            Lock emUso = fragmento.uso().readLock();
+            emUso.lock();
+            try {
+                if (!fragmento.escritor().isClosed()) {
+                    return escrita.apply(fragmento);
+                }
+            } finally {
+                emUso.unlock();
+            }
+        }
+    }
+
+    /**
+     * Leitura dos votos da pauta, ou {@code null} quando eles ficam no banco principal.
+     * Um fragmento desanexado é lido por conexões avulsas, sem anexá-lo de novo: só a
+     * escrita volta a abrir o escritor.
+     */
+    public JdbcTemplate leitura(UUID pautaId) {
+        if (!habilitado) {
+            return null;
+        }
+        Fragmento fragmento = anexados.get(pautaId);
+        if (fragmento != null) {
+            return fragmento.leitura();
+        }
+        Path arquivo = arquivo(pautaId);
+        return Files.exists(arquivo) ? new JdbcTemplate(leitor(arquivo)) : null;
+    }
+
+    /**
+     * Se os votos da pauta ficam em um fragmento, anexado ou não.
+     */
+    public boolean fragmentada(UUID pautaId) {
+        return habilitado && (anexados.containsKey(pautaId) || Files.exists(arquivo(pautaId)));
+    }
+
+    /**
+     * Fecha as conexões do fragmento; o WAL é incorporado ao arquivo quando a última fecha.
+     * Espera as escritas que já estão no fragmento terminarem antes de fechar o escritor.
+     * O fragmento só sai do mapa com o escritor já fechado: antes disso uma escrita
+     * concorrente ainda o encontra e espera, em vez de abrir um segundo escritor no arquivo.
+     */
+    public void desanexar(UUID pautaId) {
+        Fragmento fragmento = anexados.get(pautaId);
+        if (fragmento == null) {
+            return;
+        }
+        Lock exclusivo = fragmento.uso().writeLock();
+        exclusivo.lock();
+        try {
+            fragmento.escritor().close();
+        } finally {
+            anexados.remove(pautaId, fragmento);
+            exclusivo.unlock();
+        }
+    }
+
+    /**
+     * Leitura de cada fragmento do diretório, anexado ou não, sem anexar os que estão fechados.
+     */
+    public List<JdbcTemplate> leituras() {
+        if (!habilitado || !Files.isDirectory(diretorio)) {
+            return List.of();
+        }
+        List<JdbcTemplate> leituras = new ArrayList<>();
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            arquivos.filter(arquivo -> arquivo.getFileName().toString().endsWith(EXTENSAO))
+                    .forEach(arquivo -> leituras.add(new JdbcTemplate(leitor(arquivo))));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return leituras;
+    }
+
+    boolean anexado(UUID pautaId) {
+        return anexados.containsKey(pautaId);
+    }
+
+    @PreDestroy
+    public void fechar() {
+        anexados.keySet().forEach(this::desanexar);
+    }
+
+    private Fragmento anexar(UUID pautaId) {
+        if (!habilitado) {
+            return null;
+        }
+        Fragmento fragmento = anexados.get(pautaId);
+        if (fragmento != null || !Files.exists(arquivo(pautaId))) {
+            return fragmento;
+        }
+        return anexados.computeIfAbsent(pautaId, this::abrir);
+    }
+
+    private Fragmento abrir(UUID pautaId) {
+        Path arquivo = arquivo(pautaId);
+        try {
+            Files.createDirectories(diretorio);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        SQLiteConfig config = BancoConfig.sqliteConfig(banco);
+        config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        config.setSynchronous(SQLiteConfig.SynchronousMode.valueOf(banco.getSincronizacao().name()));
+        HikariConfig hikari = BancoConfig.hikariConfig("sqlite-fragmento-" + pautaId, url(arquivo), config, banco);
+        hikari.setMaximumPoolSize(1);
+        hikari.setMinimumIdle(0);
+        HikariDataSource escritor = new HikariDataSource(hikari);
+
+        var escrita = new JdbcTemplate(escritor);
+        escrita.execute(CRIAR_TABELA_VOTO);
+        return new Fragmento(escritor, escrita, new JdbcTemplate(leitor(arquivo)),
+                new TransactionTemplate(new DataSourceTransactionManager(escritor)), new ReentrantReadWriteLock());
+    }
+
+    // leituras são raras (apuração, exportação, carga do índice) e não ocupam o escritor
+    private SQLiteDataSource leitor(Path arquivo) {
+        SQLiteDataSource leitor = new SQLiteDataSource(BancoConfig.sqliteConfig(banco));
+        leitor.setUrl(url(arquivo));
+        return leitor;
+    }
+
+    private Path arquivo(UUID pautaId) {
+        return diretorio.resolve(pautaId + EXTENSAO);
+    }
+
+    private static String url(Path arquivo) {
+        return "jdbc:sqlite:" + arquivo;
+    }
+
+    /**
+     * Conexões de um fragmento anexado: a escrita, com a transação sobre o mesmo escritor, e a
+     * leitura. {@code uso} é compartilhado pelas escritas em andamento e exclusivo no fechamento.
+     */
+    public record Fragmento(HikariDataSource escritor, JdbcTemplate escrita, JdbcTemplate leitura,
+                            TransactionTemplate transacao, ReadWriteLock uso) {
+    }
+}
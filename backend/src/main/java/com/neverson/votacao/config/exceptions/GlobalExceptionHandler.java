@@ -1,6 +1,7 @@
 package com.neverson.votacao.config.exceptions;
 
 import lombok.Getter;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -17,7 +18,13 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(HttpException.class)
     public ResponseEntity<Object> handleHttpException(HttpException ex, WebRequest request) {
         ErrorResponse error = new ErrorResponse(ex.getHttpStatus(), ex.getMessage());
-        return new ResponseEntity<Object>(error, ex.getHttpStatus());
+        var resposta = ResponseEntity.status(ex.getHttpStatus());
+        if (ex.getRetryAfter() != null) {
+            // Retry-After só aceita segundos inteiros; arredonda para cima para não chamar antes da hora
+            long segundos = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+            resposta.header(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+        }
+        return resposta.body(error);
     }
 
     static class ErrorResponse {
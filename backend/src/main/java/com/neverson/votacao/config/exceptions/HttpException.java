@@ -3,15 +3,28 @@ package com.neverson.votacao.config.exceptions;
 import lombok.Getter;
 import org.springframework.http.HttpStatus;
 
+import java.time.Duration;
+
 public class HttpException extends RuntimeException {
     @Getter
     private HttpStatus httpStatus;
 
+    /**
+     * Quando preenchido, vai para o cabeçalho Retry-After da resposta.
+     */
+    @Getter
+    private Duration retryAfter;
+
     public HttpException(HttpStatus httpStatus, String message) {
         super(message);
         this.httpStatus = httpStatus;
     }
 
+    public HttpException(HttpStatus httpStatus, String message, Duration retryAfter) {
+        this(httpStatus, message);
+        this.retryAfter = retryAfter;
+    }
+
     public static HttpException badRequest(String message) {
         return new HttpException(HttpStatus.BAD_REQUEST, message);
     }
@@ -26,4 +39,16 @@ public class HttpException extends RuntimeException {
     public static HttpException conflict(String message) {
         return new HttpException(HttpStatus.CONFLICT, message);
     }
+
+    public static HttpException unprocessableEntity(String message) {
+        return new HttpException(HttpStatus.UNPROCESSABLE_ENTITY, message);
+    }
+
+    public static HttpException serviceUnavailable(String message) {
+        return new HttpException(HttpStatus.SERVICE_UNAVAILABLE, message);
+    }
+
+    public static HttpException tooManyRequests(String message, Duration retryAfter) {
+        return new HttpException(HttpStatus.TOO_MANY_REQUESTS, message, retryAfter);
+    }
 }
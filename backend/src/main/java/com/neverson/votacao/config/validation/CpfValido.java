@@ -0,0 +1,28 @@
+package com.neverson.votacao.config.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.*;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * CPF com dígitos verificadores corretos, validado por {@link com.neverson.votacao.utils.CPFUtils#parse}.
+ * Aceita só dígitos ou o formato 000.000.000-00; {@code null} é considerado válido.
+ */
+@Documented
+@Constraint(validatedBy = CpfValidoValidator.class)
+@Target({FIELD, METHOD, PARAMETER, ANNOTATION_TYPE, TYPE_USE})
+@Retention(RUNTIME)
+public @interface CpfValido {
+
+    String message() default "CPF inválido";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,13 @@
+package com.neverson.votacao.config.validation;
+
+import com.neverson.votacao.utils.CPFUtils;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class CpfValidoValidator implements ConstraintValidator<CpfValido, CharSequence> {
+
+    @Override
+    public boolean isValid(CharSequence cpf, ConstraintValidatorContext context) {
+        return cpf == null || CPFUtils.parse(cpf) != CPFUtils.INVALIDO;
+    }
+}
@@ -9,11 +9,12 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("api/v1")
@@ -29,7 +30,8 @@ public class ElegibilidadeController {
     @Operation(
             summary = "Verifica elegibilidade de CPF",
             description = "Este endpoint verifica se um determinado CPF está apto a participar de votações no sistema. " +
-                    "A verificação é feita através de um serviço que simula uma integração com sistemas externos."
+                    "A verificação consulta o serviço externo de elegibilidade, ou uma simulação dele, " +
+                    "e o resultado fica em cache por CPF."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -45,6 +47,11 @@ public class ElegibilidadeController {
                     description = "CPF inválido",
                     content = @Content
             ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Serviço de elegibilidade indisponível",
+                    content = @Content
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "Erro interno do servidor durante a verificação",
@@ -55,4 +62,20 @@ public class ElegibilidadeController {
     public ResponseEntity<ElegibilidadeVotacaoDTO> isEligibleToVote(@PathVariable("cpf") String cpf) throws HttpException {
         return ResponseEntity.ok(votacaoEligibilidadeService.isEligibleToVote(cpf));
     }
+
+    @Operation(
+            summary = "Verifica elegibilidade de uma lista de CPFs",
+            description = "Recebe um array JSON de CPFs e consulta a elegibilidade em paralelo. A resposta é NDJSON, " +
+                    "uma linha por CPF na ordem enviada, com o status ou o erro daquele CPF."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Linhas com o resultado de cada CPF"),
+            @ApiResponse(responseCode = "400", description = "Lote acima do tamanho máximo", content = @Content)
+    })
+    @PostMapping(value = "elegibilidade/lote", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> verificarLote(@RequestBody List<String> cpfs) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(votacaoEligibilidadeService.verificarLote(cpfs));
+    }
 }
@@ -1,9 +1,11 @@
 package com.neverson.votacao.controllers;
 
 
+import com.neverson.votacao.config.exceptions.HttpException;
 import com.neverson.votacao.controllers.dtos.AbrirSessaoRequestDTO;
+import com.neverson.votacao.domain.dtos.PautaDTO;
+import com.neverson.votacao.domain.dtos.SessaoDTO;
 import com.neverson.votacao.domain.entities.Pauta;
-import com.neverson.votacao.domain.entities.Sessao;
 import com.neverson.votacao.services.PautaService;
 import com.neverson.votacao.services.SessaoService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -26,6 +28,8 @@ import java.util.UUID;
 @Tag(name = "Pautas", description = "API para gerenciamento de pautas de votação")
 public class PautaController {
 
+    public static final String PROXIMO_CURSOR = "X-Proximo-Cursor";
+
     private PautaService pautaService;
     private SessaoService sessaoService;
 
@@ -38,44 +42,75 @@ public class PautaController {
     @Operation(summary = "Criar uma nova pauta", description = "Cria uma nova pauta para votação com título e descrição")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Pauta criada com sucesso",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Pauta.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = PautaDTO.class))),
             @ApiResponse(responseCode = "400", description = "Dados inválidos fornecidos"),
             @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     @PostMapping("")
-    public ResponseEntity<Pauta> criarPauta(
+    public ResponseEntity<PautaDTO> criarPauta(
             @Parameter(description = "Dados da pauta a ser criada", required = true)
             @RequestBody Pauta pauta,
             UriComponentsBuilder uriBuilder) {
-        var response = pautaService.criarPauta(pauta.getTitulo(), pauta.getDescricao());
+        var criada = pautaService.criarPauta(pauta.getTitulo(), pauta.getDescricao());
+
+        URI location = uriBuilder.path("/v1/pautas/{id}").buildAndExpand(criada.getId()).toUri();
 
-        URI location = uriBuilder.path("/votos/{id}").buildAndExpand(response.getId()).toUri();
+        return ResponseEntity.created(location)
+                .body(new PautaDTO(criada.getId(), criada.getTitulo(), criada.getDescricao(), null));
+    }
 
-        return ResponseEntity.created(location).body(response);
+    @Operation(summary = "Buscar pauta", description = "Retorna a pauta com a sua sessão de votação, se houver")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Pauta encontrada",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = PautaDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Pauta não encontrada")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<PautaDTO> buscarPauta(
+            @Parameter(description = "ID da pauta", required = true)
+            @PathVariable UUID id) {
+        return ResponseEntity.ok(pautaService.buscarPauta(id)
+                .orElseThrow(() -> HttpException.notFound("Pauta não encontrada")));
     }
 
     @Operation(summary = "Abrir sessão de votação", description = "Abre uma sessão de votação para uma pauta específica com duração opcional em minutos")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Sessão aberta com sucesso",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Sessao.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = SessaoDTO.class))),
             @ApiResponse(responseCode = "404", description = "Pauta não encontrada"),
             @ApiResponse(responseCode = "400", description = "Dados inválidos fornecidos"),
             @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
 
     @PostMapping("/{id}/sessoes")
-    public ResponseEntity<Sessao> abrirSessao(
+    public ResponseEntity<SessaoDTO> abrirSessao(
             @Parameter(description = "ID da pauta", required = true)
             @PathVariable UUID id,
             @Parameter(description = "Duração da sessão em minutos (opcional, padrão definido pelo sistema)")
             @RequestBody AbrirSessaoRequestDTO requestDTO) {
-        return ResponseEntity.ok(sessaoService.abrirSessao(id, requestDTO.getDuracao()));
+        var sessao = sessaoService.abrirSessao(id, requestDTO.getDuracao());
+        return ResponseEntity.ok(new SessaoDTO(sessao.getId(), id, sessao.getAbertura(), sessao.getFechamento(),
+                sessao.isEncerrada()));
     }
 
+    @Operation(summary = "Listar pautas", description = "Lista as pautas da atividade mais recente para a mais antiga. " +
+            "Quando houver mais pautas, o cursor da próxima página vem no cabeçalho " + PROXIMO_CURSOR)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de pautas"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    })
     @GetMapping("")
-    public ResponseEntity<List<Pauta>> buscarPautas() {
-        var sessoes = pautaService.buscarPautas();
-        return ResponseEntity.ok(sessoes);
+    public ResponseEntity<List<PautaDTO>> buscarPautas(
+            @Parameter(description = "Cursor recebido na página anterior (opcional, sem ele vem a primeira página)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Quantidade de pautas por página (opcional)")
+            @RequestParam(required = false) Integer tamanho) {
+        var pagina = pautaService.buscarPautas(cursor, tamanho);
+        var resposta = ResponseEntity.ok();
+        if (pagina.getProximoCursor() != null) {
+            resposta.header(PROXIMO_CURSOR, pagina.getProximoCursor());
+        }
+        return resposta.body(pagina.getItens());
     }
 
 }
@@ -0,0 +1,50 @@
+package com.neverson.votacao.controllers;
+
+import com.neverson.votacao.domain.dtos.SessaoDTO;
+import com.neverson.votacao.services.SessaoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static com.neverson.votacao.controllers.PautaController.PROXIMO_CURSOR;
+
+@RestController
+@RequestMapping("/v1/sessoes")
+@Tag(name = "Sessões", description = "API para consulta das sessões de votação")
+public class SessaoController {
+
+    private SessaoService sessaoService;
+
+    public SessaoController(SessaoService sessaoService) {
+        this.sessaoService = sessaoService;
+    }
+
+    @Operation(summary = "Listar sessões", description = "Lista as sessões do fechamento mais distante para o mais antigo. " +
+            "Quando houver mais sessões, o cursor da próxima página vem no cabeçalho " + PROXIMO_CURSOR)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de sessões"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    })
+    @GetMapping("")
+    public ResponseEntity<List<SessaoDTO>> buscarSessoes(
+            @Parameter(description = "Cursor recebido na página anterior (opcional, sem ele vem a primeira página)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Quantidade de sessões por página (opcional)")
+            @RequestParam(required = false) Integer tamanho) {
+        var pagina = sessaoService.buscarSessoes(cursor, tamanho);
+        var resposta = ResponseEntity.ok();
+        if (pagina.getProximoCursor() != null) {
+            resposta.header(PROXIMO_CURSOR, pagina.getProximoCursor());
+        }
+        return resposta.body(pagina.getItens());
+    }
+}
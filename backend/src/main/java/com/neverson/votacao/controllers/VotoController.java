@@ -1,8 +1,17 @@
 package com.neverson.votacao.controllers;
 
+import com.neverson.votacao.config.VotacaoProperties;
 import com.neverson.votacao.controllers.dtos.VotarRequestDTO;
+import com.neverson.votacao.domain.dtos.AcompanhamentoVotacaoDTO;
+import com.neverson.votacao.domain.dtos.ResultadoImportacaoDTO;
 import com.neverson.votacao.domain.dtos.ResultadoVotacaoDTO;
+import com.neverson.votacao.domain.enums.EFormatoArquivo;
+import com.neverson.votacao.services.AcompanhamentoVotacaoService;
+import com.neverson.votacao.services.ExportacaoVotosService;
+import com.neverson.votacao.services.IdempotenciaService;
+import com.neverson.votacao.services.ImportacaoVotosService;
 import com.neverson.votacao.services.VotacaoService;
+import com.neverson.votacao.utils.CompressaoUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,10 +19,20 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -21,39 +40,156 @@ import java.util.UUID;
 @Tag(name = "Votação para pauta", description = "API para gerenciamento de votos em pautas")
 public class VotoController {
 
+    public static final String CHAVE_IDEMPOTENCIA = "Idempotency-Key";
+    public static final String REPETIDA = "Idempotent-Replayed";
+
+    private static final CacheControl RESULTADO_DEFINITIVO =
+            CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
     private VotacaoService votacaoService;
+    private AcompanhamentoVotacaoService acompanhamentoVotacaoService;
+    private ImportacaoVotosService importacaoVotosService;
+    private ExportacaoVotosService exportacaoVotosService;
+    private IdempotenciaService idempotenciaService;
+    private CacheControl resultadoAberto;
 
-    public VotoController(VotacaoService votacaoService) {
+    public VotoController(VotacaoService votacaoService, AcompanhamentoVotacaoService acompanhamentoVotacaoService,
+                          ImportacaoVotosService importacaoVotosService, ExportacaoVotosService exportacaoVotosService,
+                          IdempotenciaService idempotenciaService, VotacaoProperties properties) {
         this.votacaoService = votacaoService;
+        this.acompanhamentoVotacaoService = acompanhamentoVotacaoService;
+        this.importacaoVotosService = importacaoVotosService;
+        this.exportacaoVotosService = exportacaoVotosService;
+        this.idempotenciaService = idempotenciaService;
+        this.resultadoAberto = CacheControl.maxAge(properties.getResultados().getValidadeAberta())
+                .cachePublic().mustRevalidate();
     }
 
     @PostMapping("")
-    @Operation(summary = "Registrar voto", description = "Registra um voto de um associado em uma sessão de votação")
+    @Operation(summary = "Registrar voto", description = "Registra um voto de um associado em uma sessão de votação. " +
+            "Com o cabeçalho " + CHAVE_IDEMPOTENCIA + ", novas tentativas com a mesma chave recebem a resposta da " +
+            "primeira, marcada com " + REPETIDA + ": true, sem registrar o voto de novo")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Voto registrado com sucesso"),
             @ApiResponse(responseCode = "400", description = "Dados inválidos ou associado já votou nesta sessão", content = @Content),
             @ApiResponse(responseCode = "404", description = "Sessão de votação não encontrada", content = @Content),
-            @ApiResponse(responseCode = "409", description = "Cooperado já votou", content = @Content)
+            @ApiResponse(responseCode = "409", description = "Cooperado já votou", content = @Content),
+            @ApiResponse(responseCode = "422", description = CHAVE_IDEMPOTENCIA + " já usada com outro voto", content = @Content),
+            @ApiResponse(responseCode = "429", description = "Votos demais ao mesmo tempo; tentar de novo depois do " +
+                    "tempo em Retry-After (segundos)", content = @Content)
     })
     public ResponseEntity<Void> votar(
             @RequestBody @Validated
             @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Dados do voto", required = true,
                     content = @Content(schema = @Schema(implementation = VotarRequestDTO.class)))
-            VotarRequestDTO body) {
-        votacaoService.votar(body.getSessaoId(), body.getCpf(), body.getVoto());
-        return ResponseEntity.ok().build();
+            VotarRequestDTO body,
+            @Parameter(description = "Chave única da tentativa de voto, repetida pelo cliente ao reenviar (opcional)")
+            @RequestHeader(value = CHAVE_IDEMPOTENCIA, required = false) String chaveIdempotencia) {
+        Runnable votar = () -> votacaoService.votar(body.getSessaoId(), body.getCpf(), body.getVoto());
+        if (chaveIdempotencia == null) {
+            votar.run();
+            return ResponseEntity.ok().build();
+        }
+        boolean repetida = idempotenciaService.executar(chaveIdempotencia, body, votar);
+        return ResponseEntity.ok().header(REPETIDA, String.valueOf(repetida)).build();
+    }
+
+    @PostMapping(value = "/importacao", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    @Operation(summary = "Importar votos em lote",
+            description = "Importa votos coletados fora do sistema, um por linha: NDJSON com os campos de POST /v1/votos " +
+                    "ou CSV sessaoId,cpf,voto (cabeçalho opcional). Linhas inválidas ou duplicadas são rejeitadas " +
+                    "individualmente e listadas na resposta.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Importação concluída",
+                    content = @Content(schema = @Schema(implementation = ResultadoImportacaoDTO.class)))
+    })
+    public ResponseEntity<ResultadoImportacaoDTO> importar(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream corpo) throws IOException {
+        var formato = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                ? EFormatoArquivo.NDJSON
+                : EFormatoArquivo.CSV;
+        return ResponseEntity.ok(importacaoVotosService.importar(corpo, formato));
     }
 
-    @GetMapping("/pautas/{id}/resultado")
-    @Operation(summary = "Obter resultado da votação", description = "Retorna o resultado da votação para uma pauta específica")
+    @GetMapping(value = "/pautas/{id}/resultado", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Obter resultado da votação",
+            description = "Retorna o resultado da votação para uma pauta específica, com ETag. Depois do encerramento " +
+                    "da sessão o resultado é imutável e pode ficar em cache; antes disso deve ser revalidado com " +
+                    "If-None-Match a cada votacao.resultados.validade-aberta.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Resultado da votação obtido com sucesso",
                     content = @Content(schema = @Schema(implementation = ResultadoVotacaoDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Resultado igual ao do ETag enviado em If-None-Match", content = @Content),
             @ApiResponse(responseCode = "404", description = "Pauta não encontrada ou sem votação finalizada", content = @Content)
     })
-    public ResponseEntity<ResultadoVotacaoDTO> resultado(
+    public ResponseEntity<byte[]> resultado(
+            @Parameter(description = "ID da pauta", required = true)
+            @PathVariable UUID id) {
+        var publicado = votacaoService.resultadoPublicado(id);
+        // com o ETag na resposta o Spring compara o If-None-Match e devolve 304 sem corpo
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(publicado.getEtag())
+                .cacheControl(publicado.isDefinitivo() ? RESULTADO_DEFINITIVO : resultadoAberto)
+                .body(publicado.getJson());
+    }
+
+    @GetMapping("/pautas/{id}/exportacao")
+    @Operation(summary = "Exportar votos da pauta",
+            description = "Envia em streaming os votos da pauta, um por linha, em CSV (cpf,voto) ou NDJSON. " +
+                    "Com Accept-Encoding: gzip a resposta vai comprimida.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Votos exportados"),
+            @ApiResponse(responseCode = "404", description = "Pauta não encontrada", content = @Content)
+    })
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @Parameter(description = "ID da pauta", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "CSV ou NDJSON")
+            @RequestParam(defaultValue = "CSV") EFormatoArquivo formato,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = CompressaoUtils.aceitaGzip(acceptEncoding);
+        var corpo = exportacaoVotosService.exportar(id, formato, gzip);
+
+        var resposta = ResponseEntity.ok()
+                .contentType(formato == EFormatoArquivo.CSV ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("votos-" + id + (formato == EFormatoArquivo.CSV ? ".csv" : ".ndjson"))
+                        .build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            resposta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return resposta.body(corpo);
+    }
+
+    @GetMapping(value = "/pautas/{id}/acompanhamento", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Acompanhar votação", description = "Envia por Server-Sent Events (evento \"resultado\") o placar e o estado da sessão da pauta sempre que mudarem")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Fluxo de eventos iniciado",
+                    content = @Content(schema = @Schema(implementation = AcompanhamentoVotacaoDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Pauta não encontrada", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Limite de acompanhamentos simultâneos atingido", content = @Content)
+    })
+    public SseEmitter acompanhar(
             @Parameter(description = "ID da pauta", required = true)
             @PathVariable UUID id) {
-        return ResponseEntity.ok(votacaoService.resultado(id));
+        return acompanhamentoVotacaoService.assinar(List.of(id));
+    }
+
+    @GetMapping(value = "/pautas/acompanhamento", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Acompanhar várias votações", description = "Mesmo fluxo de eventos do acompanhamento de uma pauta, para várias pautas em uma única conexão")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Fluxo de eventos iniciado",
+                    content = @Content(schema = @Schema(implementation = AcompanhamentoVotacaoDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Quantidade de pautas inválida", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Alguma das pautas não foi encontrada", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Limite de acompanhamentos simultâneos atingido", content = @Content)
+    })
+    public SseEmitter acompanharVarias(
+            @Parameter(description = "IDs das pautas", required = true)
+            @RequestParam("ids") List<UUID> ids) {
+        return acompanhamentoVotacaoService.assinar(ids);
     }
 }
@@ -1,12 +1,12 @@
 package com.neverson.votacao.controllers.dtos;
 
+import com.neverson.votacao.config.validation.CpfValido;
 import com.neverson.votacao.domain.enums.EVotoOpcao;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.validator.constraints.br.CPF;
 
 import java.io.Serializable;
 
@@ -17,7 +17,7 @@ public class VotarRequestDTO implements Serializable {
 
     private java.util.UUID sessaoId;
 
-    @CPF
+    @CpfValido
     private String cpf;
 
     @Enumerated(EnumType.STRING)
@@ -0,0 +1,21 @@
+package com.neverson.votacao.domain.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AcompanhamentoVotacaoDTO implements Serializable {
+    private UUID pautaId;
+    private Integer totalVotos;
+    private Integer votosSim;
+    private Integer votosNao;
+    private boolean sessaoAberta;
+    private LocalDateTime fechamento;
+}
@@ -0,0 +1,17 @@
+package com.neverson.votacao.domain.dtos;
+
+import com.neverson.votacao.domain.enums.EVotoOpcao;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContagemVotosDTO {
+    private UUID pautaId;
+    private EVotoOpcao voto;
+    private long quantidade;
+}
@@ -0,0 +1,22 @@
+package com.neverson.votacao.domain.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.neverson.votacao.domain.enums.EStatusEligibilidade;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Uma linha da verificação em lote: o CPF como foi enviado e o status, ou o erro.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ElegibilidadeCpfDTO implements Serializable {
+    private String cpf;
+    private EStatusEligibilidade status;
+    private String erro;
+}
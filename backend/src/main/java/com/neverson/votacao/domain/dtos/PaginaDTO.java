@@ -0,0 +1,18 @@
+package com.neverson.votacao.domain.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaDTO<T> {
+    private List<T> itens;
+    /**
+     * Cursor opaco da página seguinte, ou null quando esta é a última.
+     */
+    private String proximoCursor;
+}
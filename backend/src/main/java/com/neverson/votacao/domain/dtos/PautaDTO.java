@@ -0,0 +1,39 @@
+package com.neverson.votacao.domain.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+public class PautaDTO implements Serializable {
+    private UUID id;
+    private String titulo;
+    private String descricao;
+    private SessaoDTO sessao;
+
+    @JsonIgnore
+    private UUID ordenacao;
+
+    public PautaDTO(UUID id, String titulo, String descricao, SessaoDTO sessao) {
+        this.id = id;
+        this.titulo = titulo;
+        this.descricao = descricao;
+        this.sessao = sessao;
+    }
+
+    /**
+     * Usado pelas consultas JPQL: a sessão vem achatada do left join, toda nula quando a
+     * pauta ainda não tem sessão.
+     */
+    public PautaDTO(UUID id, String titulo, String descricao, UUID ordenacao,
+                    UUID sessaoId, LocalDateTime abertura, LocalDateTime fechamento, Boolean encerrada) {
+        this(id, titulo, descricao, sessaoId == null ? null
+                : new SessaoDTO(sessaoId, id, abertura, fechamento, Boolean.TRUE.equals(encerrada)));
+        this.ordenacao = ordenacao;
+    }
+}
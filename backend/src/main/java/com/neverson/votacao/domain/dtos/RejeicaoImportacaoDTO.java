@@ -0,0 +1,15 @@
+package com.neverson.votacao.domain.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RejeicaoImportacaoDTO implements Serializable {
+    private long linha;
+    private String motivo;
+}
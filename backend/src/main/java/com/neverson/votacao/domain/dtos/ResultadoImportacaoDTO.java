@@ -0,0 +1,23 @@
+package com.neverson.votacao.domain.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoImportacaoDTO implements Serializable {
+    private long linhasLidas;
+    private long votosImportados;
+    private long votosRejeitados;
+    /**
+     * Primeiras rejeições, até o limite configurado; votosRejeitados traz o total.
+     */
+    private List<RejeicaoImportacaoDTO> rejeicoes;
+    private long duracaoMs;
+    private double votosPorSegundo;
+}
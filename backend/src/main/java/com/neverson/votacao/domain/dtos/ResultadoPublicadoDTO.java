@@ -0,0 +1,16 @@
+package com.neverson.votacao.domain.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Resultado pronto para a resposta HTTP: o JSON já serializado e o ETag que o identifica.
+ * Definitivo quando a sessão da pauta já foi encerrada e o resultado não muda mais.
+ */
+@Data
+@AllArgsConstructor
+public class ResultadoPublicadoDTO {
+    private byte[] json;
+    private String etag;
+    private boolean definitivo;
+}
@@ -0,0 +1,20 @@
+package com.neverson.votacao.domain.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessaoDTO implements Serializable {
+    private UUID id;
+    private UUID pautaId;
+    private LocalDateTime abertura;
+    private LocalDateTime fechamento;
+    private boolean encerrada;
+}
@@ -0,0 +1,22 @@
+package com.neverson.votacao.domain.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessaoResumoDTO implements Serializable {
+    private UUID id;
+    private UUID pautaId;
+    private LocalDateTime fechamento;
+
+    public boolean isAberta() {
+        return !LocalDateTime.now().isAfter(fechamento);
+    }
+}
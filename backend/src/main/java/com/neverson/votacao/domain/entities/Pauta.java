@@ -1,26 +1,44 @@
 package com.neverson.votacao.domain.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.neverson.votacao.utils.UUIDUtils;
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.util.UUID;
 
 @Entity
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class Pauta {
     @Id
     private UUID id;
     private String titulo;
     private String descricao;
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToOne(mappedBy = "pauta", cascade = CascadeType.ALL, fetch = FetchType.LAZY, optional = true)
     private Sessao sessao;
 
+    /**
+     * Chave da listagem: o id da sessão, se houver, senão o da pauta. Mantida pelo
+     * gatilho {@code sessao_ordena_pauta}, por isso nunca é atualizada por aqui.
+     */
+    @JsonIgnore
+    @Column(updatable = false)
+    private UUID ordenacao;
+
+    public Pauta(UUID id, String titulo, String descricao, Sessao sessao) {
+        this.id = id;
+        this.titulo = titulo;
+        this.descricao = descricao;
+        this.sessao = sessao;
+    }
+
     public Pauta(String titulo, String descricao) {
         this.titulo = titulo;
         this.descricao = descricao;
@@ -31,5 +49,8 @@ public class Pauta {
         if (id == null) {
             id = UUIDUtils.generate();
         }
+        if (ordenacao == null) {
+            ordenacao = id;
+        }
     }
 }
@@ -3,7 +3,6 @@ package com.neverson.votacao.domain.entities;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.neverson.votacao.utils.UUIDUtils;
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -13,7 +12,6 @@ import java.util.UUID;
 @Entity
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class Sessao {
     @Id
     private UUID id;
@@ -26,6 +24,18 @@ public class Sessao {
 
     private LocalDateTime fechamento;
 
+    /**
+     * Marcada pelo encerramento agendado depois que o resultado final é gravado.
+     */
+    private boolean encerrada;
+
+    public Sessao(UUID id, Pauta pauta, LocalDateTime abertura, LocalDateTime fechamento) {
+        this.id = id;
+        this.pauta = pauta;
+        this.abertura = abertura;
+        this.fechamento = fechamento;
+    }
+
     public Sessao(Pauta pauta, LocalDateTime abertura, LocalDateTime fechamento) {
         this.pauta = pauta;
         this.abertura = abertura;
@@ -2,11 +2,12 @@ package com.neverson.votacao.domain.entities;
 
 import com.neverson.votacao.domain.enums.EVotoOpcao;
 import com.neverson.votacao.config.database.EVotoOpcaoConverter;
-import com.neverson.votacao.utils.UUIDUtils;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.util.UUID;
 
@@ -14,32 +15,38 @@ import java.util.UUID;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@IdClass(VotoId.class)
 public class Voto {
     @Id
-    private UUID id;
+    @Column(name = "pauta_id", nullable = false)
+    private UUID pautaId;
 
-    // por simplicidade do desafio sera o cpf
-    @Column(nullable = false, length = 11)
-    private String associadoId;
+    // por simplicidade do desafio sera o cpf, guardado como inteiro
+    @Id
+    @Column(name = "associado_id", nullable = false)
+    private Long associadoId;
 
     @Enumerated(EnumType.ORDINAL)
     @Column(nullable = false, columnDefinition = "TINYINT")
     @Convert(converter = EVotoOpcaoConverter.class)
     private EVotoOpcao voto;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "pauta_id", insertable = false, updatable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Pauta pauta;
 
-    public Voto(String associadoId, EVotoOpcao voto, Pauta pauta) {
+    public Voto(UUID pautaId, Long associadoId, EVotoOpcao voto) {
+        this.pautaId = pautaId;
         this.associadoId = associadoId;
         this.voto = voto;
-        this.pauta = pauta;
     }
 
-    @PrePersist
-    public void prePersist() {
-        if (id == null) {
-            id = UUIDUtils.generate();
-        }
+    public Voto(Long associadoId, EVotoOpcao voto, Pauta pauta) {
+        this.pautaId = pauta.getId();
+        this.associadoId = associadoId;
+        this.voto = voto;
+        this.pauta = pauta;
     }
 }
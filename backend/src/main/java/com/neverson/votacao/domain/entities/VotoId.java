@@ -0,0 +1,16 @@
+package com.neverson.votacao.domain.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VotoId implements Serializable {
+    private UUID pautaId;
+    private Long associadoId;
+}
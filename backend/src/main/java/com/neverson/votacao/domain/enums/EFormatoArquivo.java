@@ -0,0 +1,6 @@
+package com.neverson.votacao.domain.enums;
+
+public enum EFormatoArquivo {
+    NDJSON,
+    CSV
+}
@@ -1,20 +1,46 @@
 package com.neverson.votacao.repositories;
 
+import com.neverson.votacao.domain.dtos.PautaDTO;
 import com.neverson.votacao.domain.entities.Pauta;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 
 public interface PautaRepository extends JpaRepository<Pauta, UUID> {
 
+    // Projeções em DTO: um único select com a sessão no left join, sem carregar entidades.
+    // Como entidade, Pauta.sessao é o lado inverso do @OneToOne e não fica preguiçoso.
     @Query("""
+    select new com.neverson.votacao.domain.dtos.PautaDTO(pauta.id, pauta.titulo, pauta.descricao, pauta.ordenacao,
+        sessao.id, sessao.abertura, sessao.fechamento, sessao.encerrada)
     from Pauta pauta
-    left join fetch pauta.sessao sessao
-    order by coalesce(sessao.id, pauta.id) desc
-    limit 10
+    left join pauta.sessao sessao
+    where pauta.id = :id
     """)
-    List<Pauta> buscarPautas();
+    Optional<PautaDTO> buscarPauta(@Param("id") UUID id);
+
+    @Query("""
+    select new com.neverson.votacao.domain.dtos.PautaDTO(pauta.id, pauta.titulo, pauta.descricao, pauta.ordenacao,
+        sessao.id, sessao.abertura, sessao.fechamento, sessao.encerrada)
+    from Pauta pauta
+    left join pauta.sessao sessao
+    order by pauta.ordenacao desc
+    """)
+    List<PautaDTO> buscarPautas(Limit limite);
+
+    @Query("""
+    select new com.neverson.votacao.domain.dtos.PautaDTO(pauta.id, pauta.titulo, pauta.descricao, pauta.ordenacao,
+        sessao.id, sessao.abertura, sessao.fechamento, sessao.encerrada)
+    from Pauta pauta
+    left join pauta.sessao sessao
+    where pauta.ordenacao < :cursor
+    order by pauta.ordenacao desc
+    """)
+    List<PautaDTO> buscarPautasApos(@Param("cursor") UUID cursor, Limit limite);
 }
@@ -0,0 +1,66 @@
+package com.neverson.votacao.repositories;
+
+import com.neverson.votacao.domain.dtos.ResultadoVotacaoDTO;
+import com.neverson.votacao.utils.UUIDUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Resultados finais das pautas, gravados uma vez no encerramento da sessão e nunca alterados.
+ */
+@Repository
+public class ResultadoVotacaoJdbcRepository {
+
+    // reapuração da mesma pauta (ex.: reinício no meio do encerramento) mantém o primeiro resultado
+    private static final String INSERIR = """
+        INSERT INTO resultado_votacao (pauta_id, total_votos, votos_sim, votos_nao, apurado_em)
+        VALUES (?, ?, ?, ?, ?)
+        ON CONFLICT DO NOTHING
+    """;
+
+    private static final String BUSCAR = """
+        SELECT total_votos, votos_sim, votos_nao
+        FROM resultado_votacao
+        WHERE pauta_id = ?
+    """;
+
+    private static final String BUSCAR_TODOS = """
+        SELECT pauta_id, total_votos, votos_sim, votos_nao
+        FROM resultado_votacao
+    """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ResultadoVotacaoJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Retorna {@code false} se a pauta já tinha resultado gravado.
+     */
+    public boolean inserir(UUID pautaId, ResultadoVotacaoDTO resultado, Instant apuradoEm) {
+        return jdbcTemplate.update(INSERIR, UUIDUtils.toBytes(pautaId), resultado.getTotalVotos(),
+                resultado.getVotosSim(), resultado.getVotosNao(), apuradoEm.toEpochMilli()) == 1;
+    }
+
+    public ResultadoVotacaoDTO buscar(UUID pautaId) {
+        return jdbcTemplate.query(BUSCAR, (ResultSet rs) -> rs.next() ? resultado(rs) : null,
+                (Object) UUIDUtils.toBytes(pautaId));
+    }
+
+    public void percorrerTodos(BiConsumer<UUID, ResultadoVotacaoDTO> leitor) {
+        jdbcTemplate.query(BUSCAR_TODOS, (ResultSet rs) -> {
+            leitor.accept(UUIDUtils.fromBytes(rs.getBytes("pauta_id")), resultado(rs));
+        });
+    }
+
+    private static ResultadoVotacaoDTO resultado(ResultSet rs) throws SQLException {
+        return new ResultadoVotacaoDTO(rs.getInt("total_votos"), rs.getInt("votos_sim"), rs.getInt("votos_nao"));
+    }
+}
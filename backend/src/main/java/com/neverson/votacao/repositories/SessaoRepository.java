@@ -1,9 +1,57 @@
 package com.neverson.votacao.repositories;
 
+import com.neverson.votacao.domain.dtos.SessaoDTO;
+import com.neverson.votacao.domain.dtos.SessaoResumoDTO;
 import com.neverson.votacao.domain.entities.Sessao;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface SessaoRepository extends JpaRepository<Sessao, UUID> {
+
+    @Query("""
+    select new com.neverson.votacao.domain.dtos.SessaoResumoDTO(sessao.id, sessao.pauta.id, sessao.fechamento)
+    from Sessao sessao
+    where sessao.id = :id
+    """)
+    Optional<SessaoResumoDTO> buscarResumo(@Param("id") UUID id);
+
+    @Query("""
+    select new com.neverson.votacao.domain.dtos.SessaoDTO(sessao.id, sessao.pauta.id, sessao.abertura,
+        sessao.fechamento, sessao.encerrada)
+    from Sessao sessao
+    order by sessao.fechamento desc, sessao.id desc
+    """)
+    List<SessaoDTO> buscarSessoes(Limit limite);
+
+    // O "fechamento <= :fechamento" vira busca por faixa em sessao_fechamento; só com o
+    // "or" o SQLite percorre o índice desde o início e a página deixaria de ter custo fixo.
+    @Query("""
+    select new com.neverson.votacao.domain.dtos.SessaoDTO(sessao.id, sessao.pauta.id, sessao.abertura,
+        sessao.fechamento, sessao.encerrada)
+    from Sessao sessao
+    where sessao.fechamento <= :fechamento
+      and (sessao.fechamento < :fechamento or sessao.id < :id)
+    order by sessao.fechamento desc, sessao.id desc
+    """)
+    List<SessaoDTO> buscarSessoesApos(@Param("fechamento") LocalDateTime fechamento, @Param("id") UUID id,
+                                      Limit limite);
+
+    @Query("""
+    select new com.neverson.votacao.domain.dtos.SessaoResumoDTO(sessao.id, sessao.pauta.id, sessao.fechamento)
+    from Sessao sessao
+    where sessao.encerrada = false
+    """)
+    List<SessaoResumoDTO> buscarNaoEncerradas();
+
+    @Modifying
+    @Query("update Sessao sessao set sessao.encerrada = true where sessao.id = :id")
+    int marcarEncerrada(@Param("id") UUID id);
 }
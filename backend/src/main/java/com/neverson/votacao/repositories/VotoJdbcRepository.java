@@ -0,0 +1,219 @@
+package com.neverson.votacao.repositories;
+
+import com.neverson.votacao.config.database.FragmentosVoto;
+import com.neverson.votacao.domain.dtos.ContagemVotosDTO;
+import com.neverson.votacao.domain.dtos.ResultadoVotacaoDTO;
+import com.neverson.votacao.domain.entities.Voto;
+import com.neverson.votacao.domain.enums.EVotoOpcao;
+import com.neverson.votacao.utils.UUIDUtils;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Acesso JDBC direto à tabela voto para os caminhos em que o overhead do JPA pesa.
+ * Com {@link FragmentosVoto} habilitado, cada operação vai para o arquivo da pauta;
+ * pautas sem fragmento continuam no banco principal.
+ */
+@Repository
+public class VotoJdbcRepository {
+
+    // a chave primária (pauta_id, associado_id) garante um voto por associado;
+    // em conflito nada é inserido e a contagem de linhas afetadas volta 0
+    private static final String INSERIR_VOTO = """
+        INSERT INTO voto (pauta_id, associado_id, voto)
+        VALUES (?, ?, ?)
+        ON CONFLICT DO NOTHING
+    """;
+
+    private static final String CONTAR_VOTOS_POR_PAUTA = """
+        SELECT pauta_id, voto, COUNT(*) AS quantidade
+        FROM voto
+        GROUP BY pauta_id, voto
+    """;
+
+    private static final String CONTAR_VOTOS_DA_PAUTA = """
+        SELECT voto, COUNT(*) AS quantidade
+        FROM voto
+        WHERE pauta_id = ?
+        GROUP BY voto
+    """;
+
+    // a chave primária já mantém os votos da pauta ordenados por associado
+    private static final String VOTOS_DA_PAUTA = """
+        SELECT associado_id, voto
+        FROM voto
+        WHERE pauta_id = ?
+        ORDER BY associado_id
+    """;
+
+    private static final String ASSOCIADOS_DA_PAUTA = """
+        SELECT associado_id
+        FROM voto
+        WHERE pauta_id = ?
+    """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FragmentosVoto fragmentosVoto;
+
+    public VotoJdbcRepository(JdbcTemplate jdbcTemplate, FragmentosVoto fragmentosVoto) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fragmentosVoto = fragmentosVoto;
+    }
+
+    /**
+     * Tenta inserir o voto em uma única ida ao banco. Retorna {@code false} se o
+     * associado já tinha votado na pauta.
+     */
+    public boolean inserir(Voto voto) {
+        int inseridos = fragmentosVoto.escrever(voto.getPautaId(), fragmento -> escrita(fragmento).update(
+                INSERIR_VOTO, UUIDUtils.toBytes(voto.getPautaId()), voto.getAssociadoId(), voto.getVoto().ordinal()));
+        return inseridos == 1;
+    }
+
+    /**
+     * Insere os votos em lote. A posição i do retorno é 0 quando o voto i já existia.
+     * Os votos do banco principal usam a transação de quem chama; os de cada fragmento
+     * são gravados em uma transação do próprio fragmento, então um lote com pautas de
+     * bancos diferentes só é atômico por banco (veja {@link #agruparPorBanco}).
+     */
+    public int[] inserirEmLote(List<Voto> votos) {
+        if (!fragmentosVoto.habilitado()) {
+            return inserirEmLote(jdbcTemplate, votos);
+        }
+        int[] inseridos = new int[votos.size()];
+        Map<UUID, List<Integer>> posicoesPorPauta = new LinkedHashMap<>();
+        for (int i = 0; i < votos.size(); i++) {
+            posicoesPorPauta.computeIfAbsent(votos.get(i).getPautaId(), id -> new ArrayList<>()).add(i);
+        }
+        posicoesPorPauta.forEach((pautaId, posicoes) -> {
+            List<Voto> daPauta = posicoes.stream().map(votos::get).toList();
+            int[] resultado = fragmentosVoto.escrever(pautaId, fragmento -> fragmento == null
+                    ? inserirEmLote(jdbcTemplate, daPauta)
+                    : fragmento.transacao().execute(status -> inserirEmLote(fragmento.escrita(), daPauta)));
+            for (int i = 0; i < posicoes.size(); i++) {
+                inseridos[posicoes.get(i)] = resultado[i];
+            }
+        });
+        return inseridos;
+    }
+
+    /**
+     * Separa os itens pelo banco em que os votos deles são gravados, mantendo a ordem
+     * dentro de cada grupo. Sem fragmentos é um único grupo com tudo.
+     */
+    public <T> Collection<List<T>> agruparPorBanco(List<T> itens, Function<T, UUID> pauta) {
+        if (!fragmentosVoto.habilitado()) {
+            return List.of(itens);
+        }
+        Map<Object, List<T>> grupos = new LinkedHashMap<>();
+        for (T item : itens) {
+            UUID pautaId = pauta.apply(item);
+            Object banco = fragmentosVoto.fragmentada(pautaId) ? pautaId : jdbcTemplate;
+            grupos.computeIfAbsent(banco, b -> new ArrayList<>()).add(item);
+        }
+        return grupos.values();
+    }
+
+    private static int[] inserirEmLote(JdbcTemplate banco, List<Voto> votos) {
+        return banco.batchUpdate(INSERIR_VOTO, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Voto voto = votos.get(i);
+                ps.setBytes(1, UUIDUtils.toBytes(voto.getPautaId()));
+                ps.setLong(2, voto.getAssociadoId());
+                ps.setInt(3, voto.getVoto().ordinal());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return votos.size();
+            }
+        });
+    }
+
+    /**
+     * Contagem de todas as pautas: as do banco principal e as de cada fragmento do diretório.
+     */
+    public List<ContagemVotosDTO> contarVotosPorPauta() {
+        List<ContagemVotosDTO> contagens = new ArrayList<>(contarVotosPorPauta(jdbcTemplate));
+        for (JdbcTemplate fragmento : fragmentosVoto.leituras()) {
+            contagens.addAll(contarVotosPorPauta(fragmento));
+        }
+        return contagens;
+    }
+
+    private static List<ContagemVotosDTO> contarVotosPorPauta(JdbcTemplate banco) {
+        return banco.query(CONTAR_VOTOS_POR_PAUTA, (rs, i) -> new ContagemVotosDTO(
+                UUIDUtils.fromBytes(rs.getBytes("pauta_id")),
+                EVotoOpcao.values()[rs.getInt("voto")],
+                rs.getLong("quantidade")
+        ));
+    }
+
+    public ResultadoVotacaoDTO contarVotos(UUID pautaId) {
+        int[] quantidades = new int[EVotoOpcao.values().length];
+        leitura(pautaId).query(CONTAR_VOTOS_DA_PAUTA, (ResultSet rs) -> {
+            quantidades[rs.getInt("voto")] = rs.getInt("quantidade");
+        }, (Object) UUIDUtils.toBytes(pautaId));
+        int sim = quantidades[EVotoOpcao.SIM.ordinal()];
+        int nao = quantidades[EVotoOpcao.NAO.ordinal()];
+        return new ResultadoVotacaoDTO(sim + nao, sim, nao);
+    }
+
+    /**
+     * Entrega os votos da pauta um a um direto do cursor JDBC, sem montar lista nem entidades.
+     */
+    public void percorrerPorPauta(UUID pautaId, int tamanhoBusca, LeitorVoto leitor) {
+        EVotoOpcao[] opcoes = EVotoOpcao.values();
+        leitura(pautaId).query(conexao -> {
+            PreparedStatement ps = conexao.prepareStatement(VOTOS_DA_PAUTA, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(tamanhoBusca);
+            ps.setBytes(1, UUIDUtils.toBytes(pautaId));
+            return ps;
+        }, (ResultSet rs) -> leitor.ler(rs.getLong(1), opcoes[rs.getInt(2)]));
+    }
+
+    public List<Long> buscarAssociadosPorPauta(UUID pautaId) {
+        return leitura(pautaId).queryForList(ASSOCIADOS_DA_PAUTA, Long.class, (Object) UUIDUtils.toBytes(pautaId));
+    }
+
+    /**
+     * Cria o arquivo de votos da pauta antes da abertura da sessão. Sem fragmentos não faz nada.
+     */
+    public void criarFragmento(UUID pautaId) {
+        fragmentosVoto.criar(pautaId);
+    }
+
+    /**
+     * Desanexa o fragmento da pauta encerrada, se houver.
+     */
+    public void desanexarFragmento(UUID pautaId) {
+        fragmentosVoto.desanexar(pautaId);
+    }
+
+    private JdbcTemplate escrita(FragmentosVoto.Fragmento fragmento) {
+        return fragmento == null ? jdbcTemplate : fragmento.escrita();
+    }
+
+    private JdbcTemplate leitura(UUID pautaId) {
+        JdbcTemplate fragmento = fragmentosVoto.leitura(pautaId);
+        return fragmento == null ? jdbcTemplate : fragmento;
+    }
+
+    @FunctionalInterface
+    public interface LeitorVoto {
+        void ler(long associadoId, EVotoOpcao voto);
+    }
+}
@@ -0,0 +1,16 @@
+package com.neverson.votacao.services;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+public interface AcompanhamentoVotacaoService {
+
+    SseEmitter assinar(Collection<UUID> pautaIds);
+
+    void notificarVoto(UUID pautaId);
+
+    void notificarSessaoAberta(UUID pautaId, LocalDateTime fechamento);
+}
@@ -0,0 +1,12 @@
+package com.neverson.votacao.services;
+
+import com.neverson.votacao.domain.enums.EStatusEligibilidade;
+
+public interface ConsultaElegibilidadeService {
+
+    /**
+     * Consulta na fonte de elegibilidade um CPF já validado. Bloqueia até a resposta;
+     * cache e proteção contra falhas ficam em {@link VotacaoEligibilidadeService}.
+     */
+    EStatusEligibilidade consultar(long cpf);
+}
@@ -0,0 +1,15 @@
+package com.neverson.votacao.services;
+
+import com.neverson.votacao.domain.enums.EFormatoArquivo;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.UUID;
+
+public interface ExportacaoVotosService {
+
+    /**
+     * Confirma que a pauta existe e devolve o corpo que escreve seus votos, um por linha,
+     * enquanto são lidos do banco.
+     */
+    StreamingResponseBody exportar(UUID pautaId, EFormatoArquivo formato, boolean gzip);
+}
@@ -0,0 +1,12 @@
+package com.neverson.votacao.services;
+
+import com.neverson.votacao.domain.entities.Voto;
+
+public interface GravacaoVotoService {
+
+    /**
+     * Grava o voto e só retorna depois que ele estiver confirmado no banco, ou no
+     * diário de votos no modo DIARIO.
+     */
+    Voto gravar(Voto voto);
+}
@@ -0,0 +1,14 @@
+package com.neverson.votacao.services;
+
+public interface IdempotenciaService {
+
+    /**
+     * Executa a operação uma única vez por chave. Repetições com a mesma chave, inclusive
+     * concorrentes, esperam a primeira terminar e recebem o mesmo desfecho: retorno normal
+     * ou a mesma {@link com.neverson.votacao.config.exceptions.HttpException}.
+     *
+     * @param requisicao conteúdo da requisição; a mesma chave com outro conteúdo é recusada
+     * @return {@code true} quando o desfecho foi repetido de uma execução anterior
+     */
+    boolean executar(String chave, Object requisicao, Runnable operacao);
+}
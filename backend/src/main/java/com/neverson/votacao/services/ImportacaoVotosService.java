@@ -0,0 +1,16 @@
+package com.neverson.votacao.services;
+
+import com.neverson.votacao.domain.dtos.ResultadoImportacaoDTO;
+import com.neverson.votacao.domain.enums.EFormatoArquivo;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ImportacaoVotosService {
+
+    /**
+     * Importa um voto por linha, lendo o conteúdo aos poucos. Linhas inválidas são
+     * rejeitadas individualmente sem interromper a importação.
+     */
+    ResultadoImportacaoDTO importar(InputStream conteudo, EFormatoArquivo formato) throws IOException;
+}
@@ -1,8 +1,9 @@
 package com.neverson.votacao.services;
 
+import com.neverson.votacao.domain.dtos.PaginaDTO;
+import com.neverson.votacao.domain.dtos.PautaDTO;
 import com.neverson.votacao.domain.entities.Pauta;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,5 +12,11 @@ public interface PautaService {
     Pauta criarPauta(String titulo, String descricao);
     Optional<Pauta> findById(UUID id);
 
-    List<Pauta> buscarPautas();
+    Optional<PautaDTO> buscarPauta(UUID id);
+
+    /**
+     * Pautas da atividade mais recente para a mais antiga, uma página por vez. Sem cursor
+     * devolve a primeira página; os seguintes vêm de {@link PaginaDTO#getProximoCursor()}.
+     */
+    PaginaDTO<PautaDTO> buscarPautas(String cursor, Integer tamanho);
 }
@@ -1,8 +1,10 @@
 package com.neverson.votacao.services;
 
+import com.neverson.votacao.domain.dtos.PaginaDTO;
+import com.neverson.votacao.domain.dtos.SessaoDTO;
+import com.neverson.votacao.domain.dtos.SessaoResumoDTO;
 import com.neverson.votacao.domain.entities.Sessao;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -10,5 +12,13 @@ public interface SessaoService {
     Sessao abrirSessao(UUID pautaId, Integer seconds);
     Optional<Sessao> findById(UUID id);
 
-    List<Sessao> buscarSessoes();
+    /**
+     * Dados mínimos para validar um voto; sessões abertas vêm do cache, sem acesso ao banco.
+     */
+    Optional<SessaoResumoDTO> buscarResumo(UUID id);
+
+    /**
+     * Sessões do fechamento mais distante para o mais antigo, uma página por vez.
+     */
+    PaginaDTO<SessaoDTO> buscarSessoes(String cursor, Integer tamanho);
 }
@@ -2,8 +2,16 @@ package com.neverson.votacao.services;
 
 import com.neverson.votacao.config.exceptions.HttpException;
 import com.neverson.votacao.domain.dtos.ElegibilidadeVotacaoDTO;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 public interface VotacaoEligibilidadeService {
 
     ElegibilidadeVotacaoDTO isEligibleToVote(String cpf) throws HttpException;
+
+    /**
+     * Verifica a lista em paralelo e envia uma linha NDJSON por CPF, na ordem recebida.
+     */
+    StreamingResponseBody verificarLote(List<String> cpfs);
 }
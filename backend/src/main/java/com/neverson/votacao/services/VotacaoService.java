@@ -1,6 +1,7 @@
 package com.neverson.votacao.services;
 
 
+import com.neverson.votacao.domain.dtos.ResultadoPublicadoDTO;
 import com.neverson.votacao.domain.dtos.ResultadoVotacaoDTO;
 import com.neverson.votacao.domain.entities.Voto;
 import com.neverson.votacao.domain.enums.EVotoOpcao;
@@ -12,4 +13,6 @@ public interface VotacaoService {
     Voto votar(UUID pautaId, String cpf, EVotoOpcao voto);
 
     ResultadoVotacaoDTO resultado(UUID pautaId);
+
+    ResultadoPublicadoDTO resultadoPublicado(UUID pautaId);
 }
\ No newline at end of file
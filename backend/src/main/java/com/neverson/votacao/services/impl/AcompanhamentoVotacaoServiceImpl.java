@@ -0,0 +1,266 @@
+package com.neverson.votacao.services.impl;
+
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.config.exceptions.HttpException;
+import com.neverson.votacao.domain.dtos.AcompanhamentoVotacaoDTO;
+import com.neverson.votacao.domain.dtos.SessaoDTO;
+import com.neverson.votacao.repositories.PautaRepository;
+import com.neverson.votacao.services.AcompanhamentoVotacaoService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envia por Server-Sent Events o placar e o estado da sessão das pautas acompanhadas.
+ * Votos só marcam a pauta como alterada; um agendador publica as pautas alteradas no
+ * máximo {@code eventosPorSegundo} vezes por segundo. Cada assinante guarda apenas o
+ * último evento pendente de cada pauta, então um cliente lento recebe o estado mais
+ * recente em vez de acumular uma fila. Conexões ociosas não prendem threads: os envios
+ * rodam em threads virtuais, uma por assinante enquanto houver algo a enviar.
+ */
+@Service
+public class AcompanhamentoVotacaoServiceImpl implements AcompanhamentoVotacaoService {
+
+    private static final Logger log = LoggerFactory.getLogger(AcompanhamentoVotacaoServiceImpl.class);
+
+    private final ApuracaoVotos apuracaoVotos;
+    private final PautaRepository pautaRepository;
+    private final VotacaoProperties.Acompanhamento configuracao;
+
+    private final Map<UUID, Topico> topicos = new ConcurrentHashMap<>();
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger quantidadeAssinantes = new AtomicInteger();
+    private final ExecutorService envios = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "acompanhamento-votacao");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public AcompanhamentoVotacaoServiceImpl(ApuracaoVotos apuracaoVotos, PautaRepository pautaRepository,
+                                            VotacaoProperties properties) {
+        this.apuracaoVotos = apuracaoVotos;
+        this.pautaRepository = pautaRepository;
+        this.configuracao = properties.getAcompanhamento();
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        long periodo = Math.max(1, 1000 / configuracao.getEventosPorSegundo());
+        long heartbeat = configuracao.getHeartbeat().toMillis();
+        agendador.scheduleAtFixedRate(this::publicar, periodo, periodo, TimeUnit.MILLISECONDS);
+        agendador.scheduleAtFixedRate(this::pingar, heartbeat, heartbeat, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void parar() {
+        agendador.shutdownNow();
+        assinantes.forEach(assinante -> assinante.emitter.complete());
+        envios.shutdown();
+    }
+
+    @Override
+    public SseEmitter assinar(Collection<UUID> pautaIds) {
+        if (pautaIds.isEmpty() || pautaIds.size() > configuracao.getMaximoPautasPorAssinatura()) {
+            throw HttpException.badRequest("Informe entre 1 e " + configuracao.getMaximoPautasPorAssinatura() + " pautas");
+        }
+        Set<UUID> pautas = Set.copyOf(pautaIds);
+
+        // consulta o banco antes de mexer no mapa; pauta desconhecida recusa a assinatura inteira
+        Map<UUID, Topico> novos = new HashMap<>();
+        for (UUID pautaId : pautas) {
+            if (!topicos.containsKey(pautaId)) {
+                novos.put(pautaId, criarTopico(pautaId));
+            }
+        }
+
+        if (quantidadeAssinantes.incrementAndGet() > configuracao.getMaximoAssinantes()) {
+            quantidadeAssinantes.decrementAndGet();
+            throw HttpException.serviceUnavailable("Limite de acompanhamentos simultâneos atingido");
+        }
+
+        var assinante = new Assinante(criarEmitter(), pautas);
+        assinante.emitter.onTimeout(assinante.emitter::complete);
+        assinante.emitter.onCompletion(() -> cancelar(assinante));
+        assinante.emitter.onError(erro -> cancelar(assinante));
+        assinantes.add(assinante);
+
+        for (UUID pautaId : pautas) {
+            Topico topico = inscrever(pautaId, assinante, novos.get(pautaId));
+            assinante.enfileirar(pautaId, evento(topico));
+        }
+        return assinante.emitter;
+    }
+
+    private Topico inscrever(UUID pautaId, Assinante assinante, Topico novo) {
+        Topico topico = topicos.compute(pautaId, (id, existente) -> {
+            Topico atual = existente != null ? existente : novo;
+            if (atual != null) {
+                atual.assinantes.add(assinante);
+            }
+            return atual;
+        });
+        if (topico != null) {
+            return topico;
+        }
+        // o tópico visto na consulta perdeu o último assinante antes da inscrição
+        return inscrever(pautaId, assinante, criarTopico(pautaId));
+    }
+
+    @Override
+    public void notificarVoto(UUID pautaId) {
+        Topico topico = topicos.get(pautaId);
+        if (topico != null) {
+            topico.alterado.set(true);
+        }
+    }
+
+    @Override
+    public void notificarSessaoAberta(UUID pautaId, LocalDateTime fechamento) {
+        Topico topico = topicos.get(pautaId);
+        if (topico != null) {
+            topico.fechamento = fechamento;
+            topico.encerramentoNotificado = false;
+            topico.alterado.set(true);
+        }
+    }
+
+    protected SseEmitter criarEmitter() {
+        return new SseEmitter(configuracao.getTimeout().toMillis());
+    }
+
+    void publicar() {
+        try {
+            LocalDateTime agora = LocalDateTime.now();
+            for (Topico topico : topicos.values()) {
+                if (!topico.encerramentoNotificado && topico.fechamento != null && agora.isAfter(topico.fechamento)) {
+                    topico.encerramentoNotificado = true;
+                    topico.alterado.set(true);
+                }
+                if (topico.alterado.getAndSet(false)) {
+                    var evento = evento(topico);
+                    topico.assinantes.forEach(assinante -> assinante.enfileirar(topico.pautaId, evento));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Falha ao publicar acompanhamento das votações", e);
+        }
+    }
+
+    private void pingar() {
+        assinantes.forEach(Assinante::pingar);
+    }
+
+    private Topico criarTopico(UUID pautaId) {
+        var pauta = pautaRepository.buscarPauta(pautaId)
+                .orElseThrow(() -> HttpException.notFound("Pauta não encontrada"));
+        SessaoDTO sessao = pauta.getSessao();
+        return new Topico(pautaId, sessao != null ? sessao.getFechamento() : null);
+    }
+
+    private AcompanhamentoVotacaoDTO evento(Topico topico) {
+        var resultado = apuracaoVotos.resultado(topico.pautaId);
+        var fechamento = topico.fechamento;
+        boolean aberta = fechamento != null && !LocalDateTime.now().isAfter(fechamento);
+        return new AcompanhamentoVotacaoDTO(topico.pautaId, resultado.getTotalVotos(), resultado.getVotosSim(),
+                resultado.getVotosNao(), aberta, fechamento);
+    }
+
+    private void cancelar(Assinante assinante) {
+        if (!assinantes.remove(assinante)) {
+            return;
+        }
+        quantidadeAssinantes.decrementAndGet();
+        for (UUID pautaId : assinante.pautas) {
+            topicos.computeIfPresent(pautaId, (id, topico) -> {
+                topico.assinantes.remove(assinante);
+                return topico.assinantes.isEmpty() ? null : topico;
+            });
+        }
+    }
+
+    private static class Topico {
+        final UUID pautaId;
+        final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+        final AtomicBoolean alterado = new AtomicBoolean();
+        volatile LocalDateTime fechamento;
+        volatile boolean encerramentoNotificado;
+
+        Topico(UUID pautaId, LocalDateTime fechamento) {
+            this.pautaId = pautaId;
+            this.fechamento = fechamento;
+            this.encerramentoNotificado = fechamento != null && LocalDateTime.now().isAfter(fechamento);
+        }
+    }
+
+    private class Assinante {
+        final SseEmitter emitter;
+        final Set<UUID> pautas;
+        final Map<UUID, AcompanhamentoVotacaoDTO> pendentes = new ConcurrentHashMap<>();
+        final AtomicBoolean enviando = new AtomicBoolean();
+        volatile boolean pingPendente;
+
+        Assinante(SseEmitter emitter, Set<UUID> pautas) {
+            this.emitter = emitter;
+            this.pautas = pautas;
+        }
+
+        void enfileirar(UUID pautaId, AcompanhamentoVotacaoDTO evento) {
+            // substitui o evento anterior ainda não enviado: só o estado mais recente importa
+            pendentes.put(pautaId, evento);
+            agendarEnvio();
+        }
+
+        void pingar() {
+            pingPendente = true;
+            agendarEnvio();
+        }
+
+        private void agendarEnvio() {
+            if (enviando.compareAndSet(false, true)) {
+                envios.execute(this::enviar);
+            }
+        }
+
+        private void enviar() {
+            try {
+                do {
+                    if (pingPendente) {
+                        pingPendente = false;
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    }
+                    for (UUID pautaId : pendentes.keySet()) {
+                        var evento = pendentes.remove(pautaId);
+                        if (evento != null) {
+                            emitter.send(SseEmitter.event().name("resultado").data(evento, MediaType.APPLICATION_JSON));
+                        }
+                    }
+                    enviando.set(false);
+                } while ((pingPendente || !pendentes.isEmpty()) && enviando.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Assinante de acompanhamento desconectado", e);
+                emitter.completeWithError(e);
+                cancelar(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.neverson.votacao.services.impl;
+
+import com.neverson.votacao.config.VotacaoProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Controle de admissão dos votos: limita quantos estão em andamento ao mesmo tempo, no
+ * total e por sessão, e recusa o excedente na hora em vez de deixá-lo esperando pelo
+ * lock de escrita do banco. O limite total é um AIMD guiado pela latência da gravação:
+ * cada gravação abaixo da latência alvo, com o limite em uso, soma {@code 1/limite}; uma
+ * gravação acima dela corta o limite pela metade, no máximo uma vez por janela do tamanho
+ * da latência alvo, para que uma rajada de gravações lentas conte como um sinal só.
+ */
+@Component
+public class AdmissaoVotos {
+
+    private final boolean habilitado;
+    private final int limiteMinimo;
+    private final int limiteMaximo;
+    private final int limitePorSessao;
+    private final long latenciaAlvo;
+    private final Duration novaTentativa;
+    private final LongSupplier relogio;
+
+    private final AtomicInteger emAndamento = new AtomicInteger();
+    private final Map<UUID, Integer> emAndamentoPorSessao = new ConcurrentHashMap<>();
+    private volatile double limite;
+    private long ultimaReducao;
+
+    private final Counter admitidos;
+    private final Counter recusadosLimiteGlobal;
+    private final Counter recusadosLimiteSessao;
+
+    @Autowired
+    public AdmissaoVotos(VotacaoProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    AdmissaoVotos(VotacaoProperties properties, MeterRegistry meterRegistry, LongSupplier relogio) {
+        var configuracao = properties.getAdmissao();
+        this.habilitado = configuracao.isHabilitado();
+        this.limiteMinimo = Math.max(1, configuracao.getLimiteMinimo());
+        this.limiteMaximo = Math.max(limiteMinimo, configuracao.getLimiteMaximo());
+        this.limitePorSessao = configuracao.getLimitePorSessao();
+        this.latenciaAlvo = configuracao.getLatenciaAlvo().toNanos();
+        this.novaTentativa = configuracao.getNovaTentativa();
+        this.relogio = relogio;
+        this.limite = Math.clamp(configuracao.getLimiteInicial(), limiteMinimo, limiteMaximo);
+        this.ultimaReducao = relogio.getAsLong() - latenciaAlvo;
+
+        this.admitidos = contador("admitido", "nenhum", meterRegistry);
+        this.recusadosLimiteGlobal = contador("recusado", "global", meterRegistry);
+        this.recusadosLimiteSessao = contador("recusado", "sessao", meterRegistry);
+        Gauge.builder("votacao.admissao.limite", this, AdmissaoVotos::limite)
+                .register(meterRegistry);
+        Gauge.builder("votacao.admissao.andamento", emAndamento, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    private static Counter contador(String resultado, String limite, MeterRegistry meterRegistry) {
+        return Counter.builder("votacao.admissao")
+                .tag("resultado", resultado)
+                .tag("limite", limite)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserva uma vaga para um voto na sessão. Retorna {@code false}, sem reservar nada,
+     * se o limite total ou o da sessão já foi atingido. Toda vaga reservada deve ser
+     * devolvida com {@link #liberar}.
+     */
+    public boolean admitir(UUID sessaoId) {
+        if (!habilitado) {
+            return true;
+        }
+        if (emAndamento.incrementAndGet() > limite()) {
+            emAndamento.decrementAndGet();
+            recusadosLimiteGlobal.increment();
+            return false;
+        }
+        if (emAndamentoPorSessao.merge(sessaoId, 1, Integer::sum) > limitePorSessao) {
+            devolver(sessaoId);
+            recusadosLimiteSessao.increment();
+            return false;
+        }
+        admitidos.increment();
+        return true;
+    }
+
+    /**
+     * Devolve a vaga do voto. {@code latenciaGravacao} é quanto a gravação levou em
+     * nanossegundos, com ou sem sucesso, ou zero se o voto parou antes de gravar; só as
+     * gravações ajustam o limite.
+     */
+    public void liberar(UUID sessaoId, long latenciaGravacao) {
+        if (!habilitado) {
+            return;
+        }
+        if (latenciaGravacao > 0) {
+            // lido antes de devolver a vaga, que também estava em uso
+            ajustar(latenciaGravacao, emAndamento.get());
+        }
+        devolver(sessaoId);
+    }
+
+    public Duration getNovaTentativa() {
+        return novaTentativa;
+    }
+
+    int limite() {
+        return (int) limite;
+    }
+
+    int emAndamento() {
+        return emAndamento.get();
+    }
+
+    private void devolver(UUID sessaoId) {
+        emAndamento.decrementAndGet();
+        emAndamentoPorSessao.computeIfPresent(sessaoId, (id, votos) -> votos == 1 ? null : votos - 1);
+    }
+
+    private synchronized void ajustar(long latencia, int ocupadas) {
+        if (latencia > latenciaAlvo) {
+            long agora = relogio.getAsLong();
+            if (agora - ultimaReducao >= latenciaAlvo) {
+                limite = Math.max(limiteMinimo, limite / 2);
+                ultimaReducao = agora;
+            }
+        } else if (ocupadas * 2 >= limite) {
+            // com o limite ocioso uma gravação rápida não diz nada sobre quanto o banco aguenta
+            limite = Math.min(limiteMaximo, limite + 1 / limite);
+        }
+    }
+}
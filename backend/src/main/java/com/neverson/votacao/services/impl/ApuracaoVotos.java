@@ -0,0 +1,128 @@
+package com.neverson.votacao.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.domain.dtos.ContagemVotosDTO;
+import com.neverson.votacao.domain.dtos.ResultadoVotacaoDTO;
+import com.neverson.votacao.domain.enums.EVotoOpcao;
+import com.neverson.votacao.repositories.ResultadoVotacaoJdbcRepository;
+import com.neverson.votacao.repositories.VotoJdbcRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Placar em memória de cada pauta, atualizado a cada voto confirmado, para que o
+ * resultado seja lido em O(1) sem varrer a tabela voto. É reconstruído a partir do
+ * banco na inicialização; depois disso todo voto passa por esta instância, então uma
+ * pauta sem placar ou ainda não tem votos ou já foi encerrada. Pautas encerradas trocam
+ * o placar pelo resultado final gravado, que não muda mais; esses ficam num cache
+ * limitado, e o que sair dele é relido de resultado_votacao. Depende de
+ * {@link DiarioVotos} para só reconstruir depois que os votos que estavam no diário
+ * chegarem à tabela.
+ */
+@Component
+@DependsOn("diarioVotos")
+public class ApuracaoVotos {
+
+    private final VotoJdbcRepository votoJdbcRepository;
+    private final ResultadoVotacaoJdbcRepository resultadoVotacaoJdbcRepository;
+    private final Map<UUID, Placar> placares = new ConcurrentHashMap<>();
+    private final Cache<UUID, ResultadoVotacaoDTO> finais;
+
+    public ApuracaoVotos(VotoJdbcRepository votoJdbcRepository,
+                         ResultadoVotacaoJdbcRepository resultadoVotacaoJdbcRepository,
+                         VotacaoProperties properties, MeterRegistry meterRegistry) {
+        this.votoJdbcRepository = votoJdbcRepository;
+        this.resultadoVotacaoJdbcRepository = resultadoVotacaoJdbcRepository;
+        this.finais = Caffeine.newBuilder()
+                .maximumSize(properties.getResultados().getTamanhoMaximo())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, finais, "resultados.finais");
+    }
+
+    @PostConstruct
+    public void reconstruir() {
+        placares.clear();
+        for (ContagemVotosDTO contagem : votoJdbcRepository.contarVotosPorPauta()) {
+            placar(contagem.getPautaId()).somar(contagem.getVoto(), contagem.getQuantidade());
+        }
+    }
+
+    /**
+     * Deve ser chamado somente depois que o voto estiver gravado. Pauta já encerrada é
+     * ignorada, para não recriar um placar que ninguém mais remove.
+     */
+    public void registrar(UUID pautaId, EVotoOpcao voto) {
+        Placar placar = placares.get(pautaId);
+        if (placar == null) {
+            if (resultadoFinal(pautaId) != null) {
+                return;
+            }
+            placar = placar(pautaId);
+        }
+        placar.somar(voto, 1);
+    }
+
+    /**
+     * Fixa o resultado da pauta encerrada; a partir daqui ele é devolvido no lugar do placar.
+     */
+    public void congelar(UUID pautaId, ResultadoVotacaoDTO resultado) {
+        finais.put(pautaId, resultado);
+        placares.remove(pautaId);
+    }
+
+    /**
+     * Resultado congelado da pauta, ou {@code null} se ela ainda não foi encerrada. Pauta
+     * com placar está aberta; sem placar e fora do cache, o banco decide.
+     */
+    public ResultadoVotacaoDTO resultadoFinal(UUID pautaId) {
+        ResultadoVotacaoDTO resultadoFinal = finais.getIfPresent(pautaId);
+        if (resultadoFinal != null || placares.containsKey(pautaId)) {
+            return resultadoFinal;
+        }
+        // null não entra no cache, então a pauta aberta continua sendo consultada até encerrar
+        return finais.get(pautaId, resultadoVotacaoJdbcRepository::buscar);
+    }
+
+    public ResultadoVotacaoDTO resultado(UUID pautaId) {
+        ResultadoVotacaoDTO resultadoFinal = resultadoFinal(pautaId);
+        if (resultadoFinal != null) {
+            return resultadoFinal;
+        }
+        Placar placar = placares.get(pautaId);
+        if (placar == null) {
+            return new ResultadoVotacaoDTO(0, 0, 0);
+        }
+        return placar.resultado();
+    }
+
+    private Placar placar(UUID pautaId) {
+        return placares.computeIfAbsent(pautaId, id -> new Placar());
+    }
+
+    private static class Placar {
+        // LongAdder espalha as escritas concorrentes em células separadas
+        private final LongAdder sim = new LongAdder();
+        private final LongAdder nao = new LongAdder();
+
+        void somar(EVotoOpcao voto, long quantidade) {
+            (voto == EVotoOpcao.SIM ? sim : nao).add(quantidade);
+        }
+
+        ResultadoVotacaoDTO resultado() {
+            int votosSim = sim.intValue();
+            int votosNao = nao.intValue();
+            return new ResultadoVotacaoDTO(votosSim + votosNao, votosSim, votosNao);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.neverson.votacao.services.impl;
+
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.config.exceptions.HttpException;
+import com.neverson.votacao.domain.dtos.ElegibilidadeVotacaoDTO;
+import com.neverson.votacao.domain.enums.EStatusEligibilidade;
+import com.neverson.votacao.services.ConsultaElegibilidadeService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Cliente do serviço externo de elegibilidade: GET {url}/{cpf} devolvendo
+ * {"status": "ABLE_TO_VOTE" | "UNABLE_TO_VOTE"}, ou 404 para CPF desconhecido.
+ * Conexão e leitura têm timeout próprio para uma resposta lenta não segurar o voto.
+ */
+@Service
+@ConditionalOnProperty(name = "votacao.elegibilidade.modo", havingValue = "http")
+public class ConsultaElegibilidadeHttpServiceImpl implements ConsultaElegibilidadeService {
+
+    private final RestClient restClient;
+
+    public ConsultaElegibilidadeHttpServiceImpl(RestClient.Builder restClientBuilder, VotacaoProperties properties) {
+        var configuracao = properties.getElegibilidade();
+        var httpClient = HttpClient.newBuilder()
+                .connectTimeout(configuracao.getTimeoutConexao())
+                .build();
+        var requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(configuracao.getTimeoutLeitura());
+
+        this.restClient = restClientBuilder
+                .baseUrl(configuracao.getUrl())
+                .requestFactory(requestFactory)
+                .build();
+    }
+
+    @Override
+    public EStatusEligibilidade consultar(long cpf) {
+        ElegibilidadeVotacaoDTO resposta;
+        try {
+            resposta = restClient.get()
+                    .uri("/{cpf}", String.format("%011d", cpf))
+                    .retrieve()
+                    .onStatus(status -> status.isSameCodeAs(HttpStatus.NOT_FOUND), (requisicao, erro) -> {
+                        throw HttpException.notFound("CPF inválido");
+                    })
+                    .body(ElegibilidadeVotacaoDTO.class);
+        } catch (CancellationException e) {
+            // o timeout de leitura cancela a requisição do HttpClient; conforme o ponto em que
+            // ela estava, o cancelamento escapa sem ser traduzido pelo RestClient
+            throw new ResourceAccessException("Tempo esgotado lendo a resposta do serviço de elegibilidade");
+        }
+
+        if (resposta == null || resposta.getStatus() == null) {
+            throw new IllegalStateException("Resposta do serviço de elegibilidade sem status");
+        }
+        return resposta.getStatus();
+    }
+}
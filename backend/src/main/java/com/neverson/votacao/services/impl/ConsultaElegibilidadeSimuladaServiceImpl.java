@@ -0,0 +1,28 @@
+package com.neverson.votacao.services.impl;
+
+import com.neverson.votacao.domain.enums.EStatusEligibilidade;
+import com.neverson.votacao.services.ConsultaElegibilidadeService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Random;
+
+@Service
+@ConditionalOnProperty(name = "votacao.elegibilidade.modo", havingValue = "simulada", matchIfMissing = true)
+public class ConsultaElegibilidadeSimuladaServiceImpl implements ConsultaElegibilidadeService {
+
+    private final Random random;
+
+    public ConsultaElegibilidadeSimuladaServiceImpl() {
+        this.random = createRandom();
+    }
+
+    protected Random createRandom() {
+        return new Random();
+    }
+
+    @Override
+    public EStatusEligibilidade consultar(long cpf) {
+        return random.nextBoolean() ? EStatusEligibilidade.ABLE_TO_VOTE : EStatusEligibilidade.UNABLE_TO_VOTE;
+    }
+}
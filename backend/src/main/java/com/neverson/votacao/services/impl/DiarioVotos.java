@@ -0,0 +1,421 @@
+package com.neverson.votacao.services.impl;
+
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.config.exceptions.HttpException;
+import com.neverson.votacao.domain.entities.Voto;
+import com.neverson.votacao.domain.enums.EVotoOpcao;
+import com.neverson.votacao.repositories.VotoJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Diário de votos em um arquivo mapeado em memória, o caminho durável do modo DIARIO.
+ * Cada voto aceito é um registro de tamanho fixo anexado no fim do diário; quem anexa
+ * espera o {@code force()} do trecho que contém o seu registro, e o primeiro que chega
+ * força de uma vez tudo o que os outros anexaram enquanto isso (group commit). Uma
+ * thread projeta os registros na tabela voto em lotes e avança o checkpoint do
+ * cabeçalho. Na inicialização os registros depois do checkpoint são projetados de novo
+ * antes de qualquer leitura da tabela; o INSERT ignora o que já estava lá.
+ * <p>
+ * Cabeçalho: geração e checkpoint. Registro: geração, pauta, associado, instante,
+ * opção e CRC32. Quando o arquivo enche e tudo já foi projetado, o diário recomeça do
+ * início com a geração seguinte; registros de outra geração ou com CRC errado marcam
+ * o fim do diário.
+ */
+@Component
+public class DiarioVotos {
+
+    private static final Logger log = LoggerFactory.getLogger(DiarioVotos.class);
+
+    private static final int CABECALHO = 16;
+    private static final int POSICAO_CHECKPOINT = 8;
+    static final int REGISTRO = 48;
+    private static final int CONTEUDO = REGISTRO - Integer.BYTES;
+
+    private final VotoJdbcRepository votoJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final VotacaoProperties.Escrita configuracao;
+    private final Path arquivo;
+    private final boolean habilitado;
+
+    private final ReentrantLock trava = new ReentrantLock();
+    private final Condition forcado = trava.newCondition();
+    private final Condition projetado = trava.newCondition();
+
+    private FileChannel canal;
+    private MappedByteBuffer mapa;
+    private int capacidade;
+    private long geracao;
+    // posições no arquivo: antes de escrita tudo foi anexado, antes de duravel foi
+    // forçado para o disco e antes de checkpoint já está na tabela voto
+    private int escrita;
+    private int duravel;
+    private int checkpoint;
+    private boolean forcando;
+    // registros descartados por um force que falhou cujos autores ainda não receberam o erro
+    private int descartesPendentes;
+    // contagens que seguem crescendo quando o diário recomeça
+    private long anexados;
+    private long duraveis;
+    private long projetados;
+
+    private volatile boolean ativo;
+    private Thread projetor;
+
+    public DiarioVotos(VotoJdbcRepository votoJdbcRepository, TransactionTemplate transactionTemplate,
+                       VotacaoProperties properties) {
+        this.votoJdbcRepository = votoJdbcRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.configuracao = properties.getEscrita();
+        this.arquivo = Paths.get(configuracao.getDiario().getArquivo());
+        this.habilitado = configuracao.getModo() == VotacaoProperties.ModoEscrita.DIARIO;
+    }
+
+    /**
+     * Projeta o que ficou no diário, mesmo com outro modo de escrita configurado, e
+     * no modo DIARIO deixa o projetor rodando.
+     */
+    @PostConstruct
+    public void iniciar() {
+        if (!habilitado && !Files.exists(arquivo)) {
+            return;
+        }
+        recuperar();
+        if (!habilitado) {
+            fechar();
+            return;
+        }
+        ativo = true;
+        projetor = new Thread(this::projetarContinuamente, "votos-diario");
+        projetor.setDaemon(true);
+        projetor.start();
+    }
+
+    @PreDestroy
+    public void parar() throws InterruptedException {
+        if (projetor != null) {
+            ativo = false;
+            projetor.join(configuracao.getTimeout().toMillis());
+        }
+        if (mapa != null) {
+            fechar();
+        }
+    }
+
+    /**
+     * Anexa o voto e só retorna depois que o registro estiver no disco. Depois de anexado o
+     * registro vai ser forçado e projetado por alguém, então daí em diante o prazo não conta:
+     * o voto só é recusado se o force que o cobria falhar e o registro for descartado.
+     */
+    public void anexar(Voto voto) {
+        long prazo = System.nanoTime() + configuracao.getTimeout().toNanos();
+        long sequencia;
+        trava.lock();
+        try {
+            while (descartesPendentes > 0 || escrita + REGISTRO > capacidade) {
+                if (descartesPendentes > 0) {
+                    if (!aguardar(forcado, prazo)) {
+                        throw HttpException.serviceUnavailable("Diário de votos indisponível, tente novamente");
+                    }
+                } else if (projetados == anexados) {
+                    recomecar();
+                } else if (!aguardar(projetado, prazo)) {
+                    throw HttpException.serviceUnavailable("Diário de votos cheio, tente novamente");
+                }
+            }
+            mapa.put(escrita, codificar(voto));
+            escrita += REGISTRO;
+            sequencia = ++anexados;
+
+            while (duraveis < sequencia) {
+                if (descartesPendentes > 0) {
+                    if (--descartesPendentes == 0) {
+                        forcado.signalAll();
+                    }
+                    throw HttpException.serviceUnavailable("Falha ao gravar o voto no disco, tente novamente");
+                }
+                if (forcando) {
+                    forcado.awaitUninterruptibly();
+                } else {
+                    forcar();
+                }
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Espera a tabela voto receber todos os votos já confirmados no diário. Usado antes
+     * de apurar o resultado final a partir da tabela.
+     */
+    public void aguardarProjecao() {
+        if (!ativo) {
+            return;
+        }
+        long prazo = System.nanoTime() + configuracao.getTimeout().toNanos();
+        trava.lock();
+        try {
+            long alvo = duraveis;
+            while (projetados < alvo) {
+                if (!aguardar(projetado, prazo)) {
+                    throw new IllegalStateException("Votos do diário ainda não chegaram à tabela voto");
+                }
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Abre o diário, acha o fim a partir do checkpoint e projeta na tabela o que faltava.
+     */
+    void recuperar() {
+        abrir();
+        geracao = mapa.getLong(0);
+        if (geracao == 0) {
+            geracao = 1;
+            gravarCabecalho(CABECALHO);
+        }
+        checkpoint = (int) mapa.getLong(POSICAO_CHECKPOINT);
+        if (checkpoint < CABECALHO || checkpoint > capacidade) {
+            throw new IllegalStateException("Checkpoint inválido no diário de votos: " + checkpoint);
+        }
+
+        int fim = checkpoint;
+        while (fim + REGISTRO <= capacidade && valido(fim)) {
+            fim += REGISTRO;
+        }
+        escrita = duravel = fim;
+        anexados = duraveis = (fim - checkpoint) / REGISTRO;
+        projetados = 0;
+
+        if (anexados > 0) {
+            log.info("Recuperando {} votos do diário {}", anexados, arquivo);
+        }
+        while (projetarLote()) {
+            // segue até alcançar o fim do diário
+        }
+    }
+
+    private void projetarContinuamente() {
+        while (ativo) {
+            try {
+                if (!projetarLote()) {
+                    aguardarNovos();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Falha ao projetar votos do diário, nova tentativa em {}", configuracao.getIntervalo(), e);
+                try {
+                    Thread.sleep(configuracao.getIntervalo());
+                } catch (InterruptedException interrompido) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Grava na tabela o próximo lote de registros já forçados. Retorna {@code false} se não havia nenhum.
+     */
+    private boolean projetarLote() {
+        int inicio;
+        int fim;
+        trava.lock();
+        try {
+            inicio = checkpoint;
+            fim = Math.min(duravel, inicio + configuracao.getTamanhoLote() * REGISTRO);
+        } finally {
+            trava.unlock();
+        }
+        if (inicio == fim) {
+            return false;
+        }
+
+        // o trecho já forçado não muda até ser projetado, então é lido sem a trava
+        List<Voto> votos = new ArrayList<>((fim - inicio) / REGISTRO);
+        for (int posicao = inicio; posicao < fim; posicao += REGISTRO) {
+            votos.add(decodificar(posicao));
+        }
+        transactionTemplate.execute(status -> votoJdbcRepository.inserirEmLote(votos));
+
+        trava.lock();
+        try {
+            checkpoint = fim;
+            projetados += votos.size();
+            // sem force: um checkpoint atrasado só faz a recuperação projetar de novo
+            mapa.putLong(POSICAO_CHECKPOINT, checkpoint);
+            projetado.signalAll();
+        } finally {
+            trava.unlock();
+        }
+        return true;
+    }
+
+    private void aguardarNovos() throws InterruptedException {
+        trava.lock();
+        try {
+            if (checkpoint == duravel && ativo) {
+                forcado.awaitNanos(configuracao.getIntervalo().toNanos());
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Chamado com a trava; ela é solta durante o force para os outros seguirem anexando.
+     */
+    private void forcar() {
+        int inicio = duravel;
+        int fim = escrita;
+        long sequencia = anexados;
+        boolean forcou = false;
+        forcando = true;
+        trava.unlock();
+        try {
+            mapa.force(inicio, fim - inicio);
+            forcou = true;
+        } catch (UncheckedIOException e) {
+            log.error("Falha ao forçar o diário de votos {}, descartando os registros não gravados", arquivo, e);
+        } finally {
+            trava.lock();
+            forcando = false;
+            if (forcou) {
+                duravel = fim;
+                duraveis = sequencia;
+            } else {
+                descartarNaoForcados();
+            }
+            forcado.signalAll();
+        }
+    }
+
+    /**
+     * Chamado com a trava depois de um force que falhou. Apaga todos os registros ainda não
+     * forçados, para que nem o projetor nem a recuperação os vejam, e não deixa anexar nada
+     * até cada um que os anexou receber o erro; assim as sequências descartadas não são
+     * reaproveitadas por outro voto antes disso.
+     */
+    private void descartarNaoForcados() {
+        mapa.put(duravel, new byte[escrita - duravel]);
+        descartesPendentes = (int) (anexados - duraveis);
+        anexados = duraveis;
+        escrita = duravel;
+    }
+
+    /**
+     * Chamado com a trava, só quando todos os registros já foram projetados.
+     */
+    private void recomecar() {
+        geracao++;
+        gravarCabecalho(CABECALHO);
+        checkpoint = escrita = duravel = CABECALHO;
+    }
+
+    private void gravarCabecalho(int novoCheckpoint) {
+        mapa.putLong(0, geracao);
+        mapa.putLong(POSICAO_CHECKPOINT, novoCheckpoint);
+        mapa.force(0, CABECALHO);
+    }
+
+    private byte[] codificar(Voto voto) {
+        ByteBuffer registro = ByteBuffer.allocate(REGISTRO)
+                .putLong(geracao)
+                .putLong(voto.getPautaId().getMostSignificantBits())
+                .putLong(voto.getPautaId().getLeastSignificantBits())
+                .putLong(voto.getAssociadoId())
+                .putLong(System.currentTimeMillis())
+                .put((byte) voto.getVoto().ordinal());
+        CRC32 crc = new CRC32();
+        crc.update(registro.array(), 0, CONTEUDO);
+        registro.putInt(CONTEUDO, (int) crc.getValue());
+        return registro.array();
+    }
+
+    private Voto decodificar(int posicao) {
+        UUID pautaId = new UUID(mapa.getLong(posicao + 8), mapa.getLong(posicao + 16));
+        return new Voto(pautaId, mapa.getLong(posicao + 24), EVotoOpcao.values()[mapa.get(posicao + 40)]);
+    }
+
+    private boolean valido(int posicao) {
+        if (mapa.getLong(posicao) != geracao) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(mapa.slice(posicao, CONTEUDO));
+        return (int) crc.getValue() == mapa.getInt(posicao + CONTEUDO);
+    }
+
+    private boolean aguardar(Condition condicao, long prazo) {
+        long restante = prazo - System.nanoTime();
+        if (restante <= 0) {
+            return false;
+        }
+        try {
+            condicao.awaitNanos(restante);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw HttpException.serviceUnavailable("Gravação do voto interrompida");
+        }
+    }
+
+    private void abrir() {
+        try {
+            long tamanho = Math.max(configuracao.getDiario().getTamanho().toBytes(),
+                    Files.exists(arquivo) ? Files.size(arquivo) : 0);
+            if (tamanho > Integer.MAX_VALUE) {
+                throw new IllegalStateException("O diário de votos deve ter menos de 2GB");
+            }
+            Path diretorio = arquivo.toAbsolutePath().getParent();
+            if (diretorio != null) {
+                Files.createDirectories(diretorio);
+            }
+            canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            mapa = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanho);
+            capacidade = (int) tamanho;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void fechar() {
+        trava.lock();
+        try {
+            mapa.force();
+            canal.close();
+        } catch (IOException e) {
+            log.warn("Falha ao fechar o diário de votos {}", arquivo, e);
+        } finally {
+            mapa = null;
+            trava.unlock();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.neverson.votacao.services.impl;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker mínimo. Depois de {@code falhasParaAbrir} falhas seguidas o circuito
+ * abre e {@link #permitir()} recusa tudo durante {@code espera}. Passado esse tempo
+ * uma única chamada de teste é liberada; o resultado dela fecha ou reabre o circuito.
+ */
+class Disjuntor {
+
+    private final int falhasParaAbrir;
+    private final long esperaNanos;
+    private final LongSupplier relogio;
+
+    private int falhasSeguidas;
+    private long abertoDesde;
+    private boolean testando;
+
+    Disjuntor(int falhasParaAbrir, Duration espera, LongSupplier relogio) {
+        this.falhasParaAbrir = falhasParaAbrir;
+        this.esperaNanos = espera.toNanos();
+        this.relogio = relogio;
+    }
+
+    synchronized boolean permitir() {
+        if (falhasSeguidas < falhasParaAbrir) {
+            return true;
+        }
+        if (testando || relogio.getAsLong() - abertoDesde < esperaNanos) {
+            return false;
+        }
+        testando = true;
+        return true;
+    }
+
+    synchronized void sucesso() {
+        falhasSeguidas = 0;
+        testando = false;
+    }
+
+    synchronized void falha() {
+        falhasSeguidas++;
+        testando = false;
+        if (falhasSeguidas >= falhasParaAbrir) {
+            abertoDesde = relogio.getAsLong();
+        }
+    }
+
+    synchronized boolean isAberto() {
+        return falhasSeguidas >= falhasParaAbrir;
+    }
+}
@@ -0,0 +1,165 @@
+package com.neverson.votacao.services.impl;
+
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.domain.dtos.ResultadoVotacaoDTO;
+import com.neverson.votacao.domain.dtos.SessaoResumoDTO;
+import com.neverson.votacao.repositories.ResultadoVotacaoJdbcRepository;
+import com.neverson.votacao.repositories.SessaoRepository;
+import com.neverson.votacao.repositories.VotoJdbcRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encerra cada sessão no seu fechamento: apura o placar final a partir do banco uma
+ * única vez, grava em resultado_votacao, marca a sessão como encerrada e fixa o
+ * resultado em {@link ApuracaoVotos}. As sessões esperam numa {@link DelayQueue}
+ * consumida por uma única thread; na inicialização a fila é remontada com as sessões
+ * ainda não encerradas, e as que fecharam com a aplicação parada saem na hora. Antes
+ * de apurar, espera os votos da pauta ainda em gravação ({@link GravacoesEmAndamento}).
+ * Encerrada a sessão, o índice de votantes da pauta é descartado e o fragmento de
+ * votos, se houver, é desanexado.
+ */
+@Component
+public class EncerramentoSessoes {
+
+    private static final Logger log = LoggerFactory.getLogger(EncerramentoSessoes.class);
+
+    private final SessaoRepository sessaoRepository;
+    private final VotoJdbcRepository votoJdbcRepository;
+    private final ResultadoVotacaoJdbcRepository resultadoVotacaoJdbcRepository;
+    private final ApuracaoVotos apuracaoVotos;
+    private final VotantesIndex votantesIndex;
+    private final DiarioVotos diarioVotos;
+    private final GravacoesEmAndamento gravacoesEmAndamento;
+    private final TransactionTemplate transactionTemplate;
+    private final VotacaoProperties.Encerramento configuracao;
+    private final DelayQueue<SessaoAgendada> agenda = new DelayQueue<>();
+
+    private Thread encerrador;
+
+    public EncerramentoSessoes(SessaoRepository sessaoRepository, VotoJdbcRepository votoJdbcRepository,
+                               ResultadoVotacaoJdbcRepository resultadoVotacaoJdbcRepository,
+                               ApuracaoVotos apuracaoVotos, VotantesIndex votantesIndex, DiarioVotos diarioVotos,
+                               GravacoesEmAndamento gravacoesEmAndamento, TransactionTemplate transactionTemplate, VotacaoProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.sessaoRepository = sessaoRepository;
+        this.votoJdbcRepository = votoJdbcRepository;
+        this.resultadoVotacaoJdbcRepository = resultadoVotacaoJdbcRepository;
+        this.apuracaoVotos = apuracaoVotos;
+        this.votantesIndex = votantesIndex;
+        this.diarioVotos = diarioVotos;
+        this.gravacoesEmAndamento = gravacoesEmAndamento;
+        this.transactionTemplate = transactionTemplate;
+        this.configuracao = properties.getSessoes().getEncerramento();
+        // encerramentos pendentes: sessões abertas, as que esperam a margem depois do fechamento
+        // e as que falharam e aguardam nova tentativa; não é a contagem de sessões abertas
+        Gauge.builder("votacao.sessoes.agendadas", agenda, DelayQueue::size)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        resultadoVotacaoJdbcRepository.percorrerTodos(apuracaoVotos::congelar);
+        sessaoRepository.buscarNaoEncerradas().forEach(this::agendar);
+
+        encerrador = new Thread(this::encerrarNoFechamento, "sessoes-encerramento");
+        encerrador.setDaemon(true);
+        encerrador.start();
+    }
+
+    @PreDestroy
+    public void parar() throws InterruptedException {
+        if (encerrador != null) {
+            encerrador.interrupt();
+            encerrador.join(Duration.ofSeconds(5).toMillis());
+        }
+    }
+
+    public void agendar(SessaoResumoDTO sessao) {
+        Duration ateFechamento = Duration.between(LocalDateTime.now(), sessao.getFechamento());
+        agendar(sessao, ateFechamento.plus(configuracao.getMargem()));
+    }
+
+    private void agendar(SessaoResumoDTO sessao, Duration atraso) {
+        agenda.add(new SessaoAgendada(sessao, System.nanoTime() + Math.max(0, atraso.toNanos())));
+    }
+
+    private void encerrarNoFechamento() {
+        while (!Thread.currentThread().isInterrupted()) {
+            SessaoAgendada agendada;
+            try {
+                agendada = agenda.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                encerrar(agendada.sessao());
+            } catch (RuntimeException e) {
+                log.error("Falha ao encerrar a sessão {}, nova tentativa em {}", agendada.sessao().getId(),
+                        configuracao.getNovaTentativa(), e);
+                agendar(agendada.sessao(), configuracao.getNovaTentativa());
+            }
+        }
+    }
+
+    ResultadoVotacaoDTO encerrar(SessaoResumoDTO sessao) {
+        var pautaId = sessao.getPautaId();
+        aguardarGravacoes(pautaId);
+        // no modo DIARIO a tabela pode estar atrás dos votos já aceitos
+        diarioVotos.aguardarProjecao();
+        ResultadoVotacaoDTO resultado = transactionTemplate.execute(status -> {
+            var apurado = votoJdbcRepository.contarVotos(pautaId);
+            if (!resultadoVotacaoJdbcRepository.inserir(pautaId, apurado, Instant.now())) {
+                apurado = resultadoVotacaoJdbcRepository.buscar(pautaId);
+            }
+            sessaoRepository.marcarEncerrada(sessao.getId());
+            return apurado;
+        });
+        apuracaoVotos.congelar(pautaId, resultado);
+        votantesIndex.liberar(pautaId);
+        votoJdbcRepository.desanexarFragmento(pautaId);
+        return resultado;
+    }
+
+    /**
+     * Um voto que checou a sessão antes do fechamento pode ainda estar na fila do lote ou
+     * esperando o escritor; apurar antes dele o deixaria fora do resultado final.
+     */
+    private void aguardarGravacoes(UUID pautaId) {
+        try {
+            if (!gravacoesEmAndamento.aguardar(pautaId, configuracao.getEspera())) {
+                throw new IllegalStateException("Votos da pauta " + pautaId + " ainda em gravação");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Encerramento interrompido aguardando os votos da pauta " + pautaId, e);
+        }
+    }
+
+    private record SessaoAgendada(SessaoResumoDTO sessao, long prazo) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unidade) {
+            return unidade.convert(prazo - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed outra) {
+            return Long.compare(prazo, ((SessaoAgendada) outra).prazo);
+        }
+    }
+}
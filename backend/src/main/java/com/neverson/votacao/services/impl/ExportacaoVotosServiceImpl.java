@@ -0,0 +1,125 @@
+package com.neverson.votacao.services.impl;
+
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.config.exceptions.HttpException;
+import com.neverson.votacao.domain.enums.EFormatoArquivo;
+import com.neverson.votacao.domain.enums.EVotoOpcao;
+import com.neverson.votacao.repositories.VotoJdbcRepository;
+import com.neverson.votacao.services.ExportacaoVotosService;
+import com.neverson.votacao.services.PautaService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportação dos votos de uma pauta para auditoria. As linhas vão do cursor JDBC
+ * direto para a resposta, sem entidades nem lista intermediária, então a memória
+ * fica constante seja qual for o tamanho da pauta. A leitura roda numa transação
+ * somente leitura para usar o pool de leitura e não segurar a conexão de escrita.
+ */
+@Service
+public class ExportacaoVotosServiceImpl implements ExportacaoVotosService {
+
+    private static final int BUFFER = 64 * 1024;
+
+    private final PautaService pautaService;
+    private final VotoJdbcRepository votoJdbcRepository;
+    private final TransactionTemplate leitura;
+    private final int tamanhoBusca;
+
+    public ExportacaoVotosServiceImpl(PautaService pautaService, VotoJdbcRepository votoJdbcRepository,
+                                      PlatformTransactionManager transactionManager, VotacaoProperties properties) {
+        this.pautaService = pautaService;
+        this.votoJdbcRepository = votoJdbcRepository;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        this.tamanhoBusca = properties.getExportacao().getTamanhoBusca();
+    }
+
+    @Override
+    public StreamingResponseBody exportar(UUID pautaId, EFormatoArquivo formato, boolean gzip) {
+        if (pautaService.findById(pautaId).isEmpty()) {
+            throw HttpException.notFound("Pauta não encontrada");
+        }
+        return saida -> escrever(pautaId, formato, gzip ? new GZIPOutputStream(saida, BUFFER) : saida);
+    }
+
+    void escrever(UUID pautaId, EFormatoArquivo formato, OutputStream destino) throws IOException {
+        var saida = new BufferedOutputStream(destino, BUFFER);
+        var linha = new EscritorLinha(saida, formato);
+        try {
+            linha.cabecalho();
+            leitura.executeWithoutResult(status -> votoJdbcRepository.percorrerPorPauta(pautaId, tamanhoBusca, linha));
+        } catch (UncheckedIOException e) {
+            // cliente desconectou no meio da exportação
+            throw e.getCause();
+        }
+        saida.flush();
+        if (destino instanceof GZIPOutputStream gzip) {
+            gzip.finish();
+        }
+    }
+
+    /**
+     * Escreve cada voto como bytes ASCII num buffer reaproveitado, sem criar objetos por linha.
+     */
+    private static class EscritorLinha implements VotoJdbcRepository.LeitorVoto {
+        private static final byte[] CABECALHO_CSV = "cpf,voto\n".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] INICIO_JSON = "{\"cpf\":\"".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] MEIO_JSON = "\",\"voto\":\"".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] FIM_JSON = "\"}\n".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[][] OPCOES = Arrays.stream(EVotoOpcao.values())
+                .map(opcao -> opcao.name().getBytes(StandardCharsets.US_ASCII))
+                .toArray(byte[][]::new);
+
+        private final OutputStream saida;
+        private final EFormatoArquivo formato;
+        private final byte[] cpf = new byte[11];
+
+        EscritorLinha(OutputStream saida, EFormatoArquivo formato) {
+            this.saida = saida;
+            this.formato = formato;
+        }
+
+        void cabecalho() throws IOException {
+            if (formato == EFormatoArquivo.CSV) {
+                saida.write(CABECALHO_CSV);
+            }
+        }
+
+        @Override
+        public void ler(long associadoId, EVotoOpcao voto) {
+            // CPF guardado como número perde os zeros à esquerda
+            for (int i = cpf.length - 1; i >= 0; i--) {
+                cpf[i] = (byte) ('0' + associadoId % 10);
+                associadoId /= 10;
+            }
+            try {
+                if (formato == EFormatoArquivo.CSV) {
+                    saida.write(cpf);
+                    saida.write(',');
+                    saida.write(OPCOES[voto.ordinal()]);
+                    saida.write('\n');
+                } else {
+                    saida.write(INICIO_JSON);
+                    saida.write(cpf);
+                    saida.write(MEIO_JSON);
+                    saida.write(OPCOES[voto.ordinal()]);
+                    saida.write(FIM_JSON);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
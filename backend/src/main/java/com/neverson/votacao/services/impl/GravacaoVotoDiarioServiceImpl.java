@@ -0,0 +1,28 @@
+package com.neverson.votacao.services.impl;
+
+import com.neverson.votacao.domain.entities.Voto;
+import com.neverson.votacao.services.GravacaoVotoService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * O voto é aceito quando o registro dele está forçado no {@link DiarioVotos}; a tabela
+ * voto é atualizada depois, pelo projetor do diário. A duplicidade já foi barrada pelo
+ * {@link VotantesIndex} e, na projeção, o INSERT ignora o que já existe.
+ */
+@Service
+@ConditionalOnProperty(name = "votacao.escrita.modo", havingValue = "diario")
+public class GravacaoVotoDiarioServiceImpl implements GravacaoVotoService {
+
+    private final DiarioVotos diarioVotos;
+
+    public GravacaoVotoDiarioServiceImpl(DiarioVotos diarioVotos) {
+        this.diarioVotos = diarioVotos;
+    }
+
+    @Override
+    public Voto gravar(Voto voto) {
+        diarioVotos.anexar(voto);
+        return voto;
+    }
+}
@@ -0,0 +1,27 @@
+package com.neverson.votacao.services.impl;
+
+import com.neverson.votacao.config.exceptions.HttpException;
+import com.neverson.votacao.domain.entities.Voto;
+import com.neverson.votacao.repositories.VotoJdbcRepository;
+import com.neverson.votacao.services.GravacaoVotoService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+@Service
+@ConditionalOnProperty(name = "votacao.escrita.modo", havingValue = "direta", matchIfMissing = true)
+public class GravacaoVotoDiretaServiceImpl implements GravacaoVotoService {
+
+    private final VotoJdbcRepository votoJdbcRepository;
+
+    public GravacaoVotoDiretaServiceImpl(VotoJdbcRepository votoJdbcRepository) {
+        this.votoJdbcRepository = votoJdbcRepository;
+    }
+
+    @Override
+    public Voto gravar(Voto voto) {
+        if (!votoJdbcRepository.inserir(voto)) {
+            throw HttpException.conflict("Associado já votou nesta pauta");
+        }
+        return voto;
+    }
+}
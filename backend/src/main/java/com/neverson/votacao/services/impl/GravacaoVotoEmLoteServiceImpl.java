@@ -0,0 +1,196 @@
+package com.neverson.votacao.services.impl;
+
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.config.exceptions.HttpException;
+import com.neverson.votacao.domain.entities.Voto;
+import com.neverson.votacao.repositories.VotoJdbcRepository;
+import com.neverson.votacao.services.GravacaoVotoService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Write-behind: os votos validados entram numa fila limitada e uma única thread
+ * os grava em lotes JDBC, uma transação por lote. Quem chamou {@link #gravar}
+ * fica bloqueado até o commit do lote do seu voto, então a durabilidade é a mesma
+ * da gravação direta.
+ */
+@Service
+@ConditionalOnProperty(name = "votacao.escrita.modo", havingValue = "lote")
+public class GravacaoVotoEmLoteServiceImpl implements GravacaoVotoService {
+
+    private static final Logger log = LoggerFactory.getLogger(GravacaoVotoEmLoteServiceImpl.class);
+
+    private final VotoJdbcRepository votoJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final VotacaoProperties.Escrita configuracao;
+    private final BlockingQueue<VotoPendente> fila;
+
+    private volatile boolean ativo;
+    private Thread escritor;
+
+    public GravacaoVotoEmLoteServiceImpl(VotoJdbcRepository votoJdbcRepository,
+                                         TransactionTemplate transactionTemplate,
+                                         VotacaoProperties properties) {
+        this.votoJdbcRepository = votoJdbcRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.configuracao = properties.getEscrita();
+        this.fila = new ArrayBlockingQueue<>(configuracao.getCapacidadeFila());
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        ativo = true;
+        escritor = new Thread(this::escrever, "votos-escritor");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    @PreDestroy
+    public void parar() throws InterruptedException {
+        ativo = false;
+        escritor.join(configuracao.getTimeout().toMillis());
+    }
+
+    @Override
+    public Voto gravar(Voto voto) {
+        var pendente = new VotoPendente(voto, new CompletableFuture<>());
+        long timeout = configuracao.getTimeout().toNanos();
+
+        try {
+            if (!fila.offer(pendente, timeout, TimeUnit.NANOSECONDS)) {
+                throw HttpException.serviceUnavailable("Fila de votos cheia, tente novamente");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw HttpException.serviceUnavailable("Gravação do voto interrompida");
+        }
+
+        try {
+            return pendente.confirmacao().get(timeout, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            // ainda na fila, o voto sai sem ter sido gravado; já num lote, o commit vai
+            // acontecer e o 503 faria o chamador descartar um voto que ficará no banco
+            if (fila.remove(pendente)) {
+                throw HttpException.serviceUnavailable("Tempo esgotado aguardando a gravação do voto");
+            }
+            return confirmado(pendente);
+        } catch (ExecutionException e) {
+            throw desembrulhar(e.getCause());
+        }
+    }
+
+    private static Voto confirmado(VotoPendente pendente) {
+        try {
+            return pendente.confirmacao().join();
+        } catch (CompletionException e) {
+            throw desembrulhar(e.getCause());
+        }
+    }
+
+    private static RuntimeException desembrulhar(Throwable causa) {
+        return causa instanceof RuntimeException excecao ? excecao : new IllegalStateException(causa);
+    }
+
+    private void escrever() {
+        List<VotoPendente> lote = new ArrayList<>(configuracao.getTamanhoLote());
+
+        while (ativo || !fila.isEmpty()) {
+            try {
+                if (preencher(lote)) {
+                    gravarLote(lote);
+                }
+            } catch (RuntimeException e) {
+                // a thread é a única escritora: se morrer, todo gravar seguinte fica sem resposta
+                log.error("Falha inesperada ao gravar lote de {} votos", lote.size(), e);
+                lote.forEach(pendente -> pendente.confirmacao().completeExceptionally(e));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                // quem ainda espera por esses votos não pode ficar bloqueado para sempre
+                var interrompida = HttpException.serviceUnavailable("Gravação do voto interrompida");
+                fila.drainTo(lote);
+                lote.forEach(pendente -> pendente.confirmacao().completeExceptionally(interrompida));
+                return;
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Espera o primeiro voto e, a partir dele, junta outros até completar o lote
+     * ou até passar o intervalo configurado.
+     */
+    private boolean preencher(List<VotoPendente> lote) throws InterruptedException {
+        long intervalo = configuracao.getIntervalo().toNanos();
+        int tamanhoLote = configuracao.getTamanhoLote();
+
+        VotoPendente primeiro = fila.poll(intervalo, TimeUnit.NANOSECONDS);
+        if (primeiro == null) {
+            return false;
+        }
+        lote.add(primeiro);
+
+        long prazo = System.nanoTime() + intervalo;
+        while (lote.size() < tamanhoLote) {
+            fila.drainTo(lote, tamanhoLote - lote.size());
+            long restante = prazo - System.nanoTime();
+            if (lote.size() >= tamanhoLote || restante <= 0) {
+                break;
+            }
+            VotoPendente proximo = fila.poll(restante, TimeUnit.NANOSECONDS);
+            if (proximo == null) {
+                break;
+            }
+            lote.add(proximo);
+        }
+        return true;
+    }
+
+    private void gravarLote(List<VotoPendente> lote) {
+        // com fragmentos cada banco grava o seu grupo, e a falha de um não derruba os outros
+        for (List<VotoPendente> grupo : votoJdbcRepository.agruparPorBanco(lote, pendente -> pendente.voto().getPautaId())) {
+            gravarGrupo(grupo);
+        }
+    }
+
+    private void gravarGrupo(List<VotoPendente> lote) {
+        List<Voto> votos = lote.stream().map(VotoPendente::voto).toList();
+        int[] inseridos;
+        try {
+            inseridos = transactionTemplate.execute(status -> votoJdbcRepository.inserirEmLote(votos));
+        } catch (RuntimeException e) {
+            log.error("Falha ao gravar lote de {} votos", votos.size(), e);
+            lote.forEach(pendente -> pendente.confirmacao().completeExceptionally(e));
+            return;
+        }
+        for (int i = 0; i < lote.size(); i++) {
+            var pendente = lote.get(i);
+            if (inseridos[i] == 0) {
+                pendente.confirmacao().completeExceptionally(HttpException.conflict("Associado já votou nesta pauta"));
+            } else {
+                pendente.confirmacao().complete(pendente.voto());
+            }
+        }
+    }
+
+    private record VotoPendente(Voto voto, CompletableFuture<Voto> confirmacao) {
+    }
+}
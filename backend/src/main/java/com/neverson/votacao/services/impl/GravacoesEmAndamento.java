@@ -0,0 +1,50 @@
+package com.neverson.votacao.services.impl;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Conta, por pauta, os votos que já passaram ou estão para passar pela checagem de
+ * sessão aberta e ainda não terminaram de gravar e de entrar no placar. O encerramento
+ * espera essa contagem zerar antes de apurar. Para isso o voto precisa entrar aqui
+ * antes de checar se a sessão está aberta: quem entra depois que o encerramento
+ * começou já encontra a sessão fechada.
+ */
+@Component
+public class GravacoesEmAndamento {
+
+    private static final long INTERVALO_ESPERA_MS = 10;
+
+    private final Map<UUID, Integer> porPauta = new ConcurrentHashMap<>();
+
+    /**
+     * Toda entrada deve ser seguida de um {@link #sair} da mesma pauta.
+     */
+    public void entrar(UUID pautaId) {
+        porPauta.merge(pautaId, 1, Integer::sum);
+    }
+
+    public void sair(UUID pautaId) {
+        porPauta.computeIfPresent(pautaId, (id, gravacoes) -> gravacoes == 1 ? null : gravacoes - 1);
+    }
+
+    /**
+     * Espera até não haver voto em andamento na pauta. Retorna {@code false} se o
+     * prazo acabar antes disso. Só o encerramento chama, então basta consultar a
+     * contagem em intervalos curtos.
+     */
+    public boolean aguardar(UUID pautaId, Duration prazo) throws InterruptedException {
+        long limite = System.nanoTime() + prazo.toNanos();
+        while (porPauta.containsKey(pautaId)) {
+            if (System.nanoTime() - limite >= 0) {
+                return false;
+            }
+            Thread.sleep(INTERVALO_ESPERA_MS);
+        }
+        return true;
+    }
+}
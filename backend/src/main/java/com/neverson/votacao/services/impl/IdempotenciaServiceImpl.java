@@ -0,0 +1,97 @@
+package com.neverson.votacao.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.config.exceptions.HttpException;
+import com.neverson.votacao.services.IdempotenciaService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Guarda em memória, por Idempotency-Key, o desfecho de cada operação, com validade e
+ * tamanho limitados. A repetição de uma chave devolve o desfecho guardado sem executar
+ * nada de novo. Só desfechos definitivos ficam guardados: erros 5xx, 429 e exceções
+ * inesperadas liberam a chave para que a próxima tentativa execute de novo.
+ */
+@Service
+public class IdempotenciaServiceImpl implements IdempotenciaService {
+
+    private static final int TAMANHO_MAXIMO_CHAVE = 255;
+
+    private final Cache<String, Execucao> execucoes;
+
+    public IdempotenciaServiceImpl(VotacaoProperties properties, MeterRegistry meterRegistry) {
+        var configuracao = properties.getIdempotencia();
+        this.execucoes = Caffeine.newBuilder()
+                .maximumSize(configuracao.getTamanhoMaximo())
+                .expireAfterWrite(configuracao.getValidade())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, execucoes, "idempotencia");
+    }
+
+    @Override
+    public boolean executar(String chave, Object requisicao, Runnable operacao) {
+        if (chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            throw HttpException.badRequest("Idempotency-Key deve ter de 1 a " + TAMANHO_MAXIMO_CHAVE + " caracteres");
+        }
+
+        var nova = new Execucao(requisicao);
+        var execucao = execucoes.get(chave, k -> nova);
+        if (!execucao.requisicao.equals(requisicao)) {
+            throw HttpException.unprocessableEntity("Idempotency-Key já usada em outra requisição");
+        }
+
+        if (execucao != nova) {
+            repetir(execucao);
+            return true;
+        }
+
+        try {
+            operacao.run();
+            nova.desfecho.complete(null);
+        } catch (HttpException e) {
+            if (e.getHttpStatus().is5xxServerError() || e.getHttpStatus() == HttpStatus.TOO_MANY_REQUESTS) {
+                execucoes.asMap().remove(chave, nova);
+            }
+            nova.desfecho.complete(e);
+            throw e;
+        } catch (RuntimeException | Error e) {
+            execucoes.asMap().remove(chave, nova);
+            nova.desfecho.completeExceptionally(e);
+            throw e;
+        }
+        return false;
+    }
+
+    private static void repetir(Execucao execucao) {
+        HttpException erro;
+        try {
+            erro = execucao.desfecho.join();
+        } catch (CompletionException e) {
+            // a execução original falhou sem desfecho definitivo; esta tentativa falha junto
+            throw HttpException.internalServerError("Tente novamente mais tarde");
+        }
+        if (erro != null) {
+            throw new HttpException(erro.getHttpStatus(), erro.getMessage(), erro.getRetryAfter());
+        }
+    }
+
+    /**
+     * Desfecho da primeira execução de uma chave: {@code null} para sucesso ou o erro lançado.
+     */
+    private static class Execucao {
+        final Object requisicao;
+        final CompletableFuture<HttpException> desfecho = new CompletableFuture<>();
+
+        Execucao(Object requisicao) {
+            this.requisicao = requisicao;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.neverson.votacao.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.config.exceptions.HttpException;
+import com.neverson.votacao.controllers.dtos.VotarRequestDTO;
+import com.neverson.votacao.domain.dtos.RejeicaoImportacaoDTO;
+import com.neverson.votacao.domain.dtos.ResultadoImportacaoDTO;
+import com.neverson.votacao.domain.dtos.SessaoResumoDTO;
+import com.neverson.votacao.domain.entities.Voto;
+import com.neverson.votacao.domain.enums.EFormatoArquivo;
+import com.neverson.votacao.domain.enums.EVotoOpcao;
+import com.neverson.votacao.repositories.VotoJdbcRepository;
+import com.neverson.votacao.services.AcompanhamentoVotacaoService;
+import com.neverson.votacao.services.ImportacaoVotosService;
+import com.neverson.votacao.services.SessaoService;
+import com.neverson.votacao.utils.CPFUtils;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importação de cédulas coletadas fora do sistema. O arquivo é lido linha a linha e
+ * gravado em lotes, uma transação por lote, então a memória usada não depende do
+ * tamanho do arquivo. Duplicados, no próprio arquivo ou contra votos já gravados, são
+ * barrados pelo {@link VotantesIndex}, o mesmo usado pelos votos individuais. O lote
+ * também é gravado quando passa o intervalo configurado, para que um upload lento não
+ * segure votos lidos antes do fechamento da sessão.
+ */
+@Service
+public class ImportacaoVotosServiceImpl implements ImportacaoVotosService {
+
+    private static final String CABECALHO_CSV = "sessaoId";
+
+    private final SessaoService sessaoService;
+    private final VotantesIndex votantesIndex;
+    private final VotoJdbcRepository votoJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApuracaoVotos apuracaoVotos;
+    private final GravacoesEmAndamento gravacoesEmAndamento;
+    private final AcompanhamentoVotacaoService acompanhamentoVotacaoService;
+    private final ObjectMapper objectMapper;
+    private final VotacaoProperties.Importacao configuracao;
+    private final ScheduledExecutorService agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "importacao-votos");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ImportacaoVotosServiceImpl(SessaoService sessaoService, VotantesIndex votantesIndex,
+                                      VotoJdbcRepository votoJdbcRepository, TransactionTemplate transactionTemplate,
+                                      ApuracaoVotos apuracaoVotos, GravacoesEmAndamento gravacoesEmAndamento,
+                                      AcompanhamentoVotacaoService acompanhamentoVotacaoService,
+                                      ObjectMapper objectMapper, VotacaoProperties properties) {
+        this.sessaoService = sessaoService;
+        this.votantesIndex = votantesIndex;
+        this.votoJdbcRepository = votoJdbcRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.apuracaoVotos = apuracaoVotos;
+        this.gravacoesEmAndamento = gravacoesEmAndamento;
+        this.acompanhamentoVotacaoService = acompanhamentoVotacaoService;
+        this.objectMapper = objectMapper;
+        this.configuracao = properties.getImportacao();
+    }
+
+    @PreDestroy
+    public void parar() {
+        agendador.shutdownNow();
+    }
+
+    @Override
+    public ResultadoImportacaoDTO importar(InputStream conteudo, EFormatoArquivo formato) throws IOException {
+        long inicio = System.nanoTime();
+        var importacao = new Importacao();
+        long intervalo = configuracao.getIntervalo().toMillis();
+        ScheduledFuture<?> gravacaoPeriodica = agendador.scheduleWithFixedDelay(importacao::gravarLoteVencido,
+                intervalo, intervalo, TimeUnit.MILLISECONDS);
+
+        try (var leitor = new BufferedReader(new InputStreamReader(conteudo, StandardCharsets.UTF_8))) {
+            String linha;
+            long numero = 0;
+            while ((linha = leitor.readLine()) != null) {
+                numero++;
+                if (linha.isBlank() || (formato == EFormatoArquivo.CSV && numero == 1 && linha.startsWith(CABECALHO_CSV))) {
+                    continue;
+                }
+                importacao.linhasLidas++;
+                try {
+                    importacao.adicionar(numero, ler(linha, formato));
+                } catch (HttpException e) {
+                    importacao.rejeitar(numero, e.getMessage());
+                }
+            }
+            importacao.gravarLote();
+        } catch (Throwable e) {
+            // upload interrompido: o lote em montagem nunca será gravado
+            importacao.descartarLote();
+            throw e;
+        } finally {
+            gravacaoPeriodica.cancel(false);
+        }
+        importacao.rejeicoes.sort(Comparator.comparingLong(RejeicaoImportacaoDTO::getLinha));
+
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        double votosPorSegundo = duracaoMs == 0 ? importacao.importados : importacao.importados * 1000.0 / duracaoMs;
+        return new ResultadoImportacaoDTO(importacao.linhasLidas, importacao.importados, importacao.rejeitados,
+                importacao.rejeicoes, duracaoMs, votosPorSegundo);
+    }
+
+    private VotarRequestDTO ler(String linha, EFormatoArquivo formato) {
+        return formato == EFormatoArquivo.CSV ? lerCsv(linha) : lerJson(linha);
+    }
+
+    private VotarRequestDTO lerJson(String linha) {
+        try {
+            return objectMapper.readValue(linha, VotarRequestDTO.class);
+        } catch (JsonProcessingException e) {
+            throw HttpException.badRequest("JSON inválido");
+        }
+    }
+
+    // sessaoId,cpf,voto
+    private static VotarRequestDTO lerCsv(String linha) {
+        String[] campos = linha.split(",", -1);
+        if (campos.length != 3) {
+            throw HttpException.badRequest("Esperado: sessaoId,cpf,voto");
+        }
+        try {
+            return new VotarRequestDTO(UUID.fromString(campos[0].trim()), campos[1].trim(),
+                    EVotoOpcao.valueOf(campos[2].trim().toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            throw HttpException.badRequest("sessaoId ou voto inválido");
+        }
+    }
+
+    /**
+     * Estado de uma importação: o lote em montagem, as sessões já consultadas e o resumo.
+     * O lote é gravado pela thread da requisição e pela gravação periódica, por isso os
+     * métodos que mexem nele são sincronizados.
+     */
+    private class Importacao {
+        final List<VotoPendente> lote = new ArrayList<>(configuracao.getTamanhoLote());
+        final Map<UUID, Optional<SessaoResumoDTO>> sessoes = new HashMap<>();
+        final List<RejeicaoImportacaoDTO> rejeicoes = new ArrayList<>();
+        long linhasLidas;
+        long importados;
+        long rejeitados;
+        long inicioLote;
+        RuntimeException falhaGravacao;
+
+        synchronized void adicionar(long linha, VotarRequestDTO voto) {
+            if (falhaGravacao != null) {
+                throw falhaGravacao;
+            }
+            if (voto.getSessaoId() == null || voto.getCpf() == null || voto.getVoto() == null) {
+                throw HttpException.badRequest("Campos obrigatórios: sessaoId, cpf, voto");
+            }
+            long associadoId = CPFUtils.parse(voto.getCpf());
+            if (associadoId == CPFUtils.INVALIDO) {
+                throw HttpException.badRequest("CPF inválido");
+            }
+            var sessao = sessoes.computeIfAbsent(voto.getSessaoId(), sessaoService::buscarResumo)
+                    .orElseThrow(() -> HttpException.notFound("Sessão não encontrada"));
+            if (!sessao.isAberta()) {
+                throw HttpException.badRequest("Sessão de votação encerrada");
+            }
+
+            if (lote.isEmpty()) {
+                inicioLote = System.nanoTime();
+            }
+            lote.add(new VotoPendente(linha, sessao, new Voto(sessao.getPautaId(), associadoId, voto.getVoto())));
+            if (lote.size() >= configuracao.getTamanhoLote()) {
+                gravarLote();
+            }
+        }
+
+        /**
+         * Chamado pela gravação periódica. Uma falha fica guardada e é lançada na thread
+         * da requisição, na próxima linha ou no fim do arquivo.
+         */
+        synchronized void gravarLoteVencido() {
+            if (lote.isEmpty() || falhaGravacao != null
+                    || System.nanoTime() - inicioLote < configuracao.getIntervalo().toNanos()) {
+                return;
+            }
+            try {
+                gravarLote();
+            } catch (RuntimeException e) {
+                falhaGravacao = e;
+            }
+        }
+
+        /**
+         * Só aqui o voto entra em {@link GravacoesEmAndamento}, checa o fechamento e se
+         * registra no índice, logo antes da inserção; um lote ainda em montagem não segura
+         * o encerramento da sessão.
+         */
+        synchronized void gravarLote() {
+            if (falhaGravacao != null) {
+                throw falhaGravacao;
+            }
+            if (lote.isEmpty()) {
+                return;
+            }
+            List<VotoPendente> aceitos = new ArrayList<>(lote.size());
+            try {
+                for (var pendente : lote) {
+                    var pautaId = pendente.voto().getPautaId();
+                    // como no voto avulso, entra antes de checar o fechamento
+                    gravacoesEmAndamento.entrar(pautaId);
+                    boolean aceito = false;
+                    try {
+                        if (!pendente.sessao().isAberta()) {
+                            rejeitar(pendente.linha(), "Sessão de votação encerrada");
+                        } else if (!votantesIndex.registrar(pautaId, pendente.voto().getAssociadoId())) {
+                            rejeitar(pendente.linha(), "Associado já votou nesta pauta");
+                        } else {
+                            aceito = true;
+                        }
+                    } finally {
+                        if (!aceito) {
+                            gravacoesEmAndamento.sair(pautaId);
+                        }
+                    }
+                    if (aceito) {
+                        aceitos.add(pendente);
+                    }
+                }
+            } catch (RuntimeException e) {
+                descartar(aceitos);
+                throw e;
+            } finally {
+                lote.clear();
+            }
+            if (aceitos.isEmpty()) {
+                return;
+            }
+
+            List<Voto> votos = aceitos.stream().map(VotoPendente::voto).toList();
+            int[] inseridos;
+            try {
+                inseridos = transactionTemplate.execute(status -> votoJdbcRepository.inserirEmLote(votos));
+            } catch (RuntimeException e) {
+                descartar(aceitos);
+                throw e;
+            }
+
+            Set<UUID> pautas = new HashSet<>();
+            for (int i = 0; i < aceitos.size(); i++) {
+                var pendente = aceitos.get(i);
+                if (inseridos[i] == 0) {
+                    // outro voto do mesmo associado foi gravado entre o índice e o lote
+                    rejeitar(pendente.linha(), "Associado já votou nesta pauta");
+                    continue;
+                }
+                apuracaoVotos.registrar(pendente.voto().getPautaId(), pendente.voto().getVoto());
+                pautas.add(pendente.voto().getPautaId());
+                importados++;
+            }
+            pautas.forEach(acompanhamentoVotacaoService::notificarVoto);
+            aceitos.forEach(pendente -> gravacoesEmAndamento.sair(pendente.voto().getPautaId()));
+        }
+
+        /**
+         * O lote em montagem ainda não entrou no índice nem em gravação; basta esquecê-lo.
+         */
+        synchronized void descartarLote() {
+            lote.clear();
+        }
+
+        /**
+         * Libera no índice os associados de um lote não gravado, para que possam votar de novo.
+         */
+        private void descartar(List<VotoPendente> aceitos) {
+            aceitos.forEach(pendente -> {
+                votantesIndex.remover(pendente.voto().getPautaId(), pendente.voto().getAssociadoId());
+                gravacoesEmAndamento.sair(pendente.voto().getPautaId());
+            });
+        }
+
+        synchronized void rejeitar(long linha, String motivo) {
+            rejeitados++;
+            if (rejeicoes.size() < configuracao.getMaximoRejeicoes()) {
+                rejeicoes.add(new RejeicaoImportacaoDTO(linha, motivo));
+            }
+        }
+    }
+
+    private record VotoPendente(long linha, SessaoResumoDTO sessao, Voto voto) {
+    }
+}
@@ -1,9 +1,15 @@
 package com.neverson.votacao.services.impl;
 
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.domain.dtos.PaginaDTO;
+import com.neverson.votacao.domain.dtos.PautaDTO;
 import com.neverson.votacao.domain.entities.Pauta;
 import com.neverson.votacao.repositories.PautaRepository;
 import com.neverson.votacao.services.PautaService;
+import com.neverson.votacao.utils.CursorUtils;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,9 +18,11 @@ import java.util.UUID;
 @Service
 public class PautaServiceImpl implements PautaService {
     private final PautaRepository pautaRepository;
+    private final VotacaoProperties.Paginacao paginacao;
 
-    public PautaServiceImpl(PautaRepository pautaRepository) {
+    public PautaServiceImpl(PautaRepository pautaRepository, VotacaoProperties properties) {
         this.pautaRepository = pautaRepository;
+        this.paginacao = properties.getPaginacao();
     }
     @Override
     public Pauta criarPauta(String titulo, String descricao) {
@@ -22,12 +30,31 @@ public class PautaServiceImpl implements PautaService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Pauta> findById(UUID id) {
         return this.pautaRepository.findById(id);
     }
 
     @Override
-    public List<Pauta> buscarPautas() {
-        return pautaRepository.buscarPautas();
+    @Transactional(readOnly = true)
+    public Optional<PautaDTO> buscarPauta(UUID id) {
+        return pautaRepository.buscarPauta(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaDTO<PautaDTO> buscarPautas(String cursor, Integer tamanho) {
+        int tamanhoPagina = paginacao.tamanho(tamanho);
+        // um item a mais só para saber se existe página seguinte
+        var limite = Limit.of(tamanhoPagina + 1);
+        List<PautaDTO> pautas = cursor == null
+                ? pautaRepository.buscarPautas(limite)
+                : pautaRepository.buscarPautasApos(CursorUtils.decodificar(cursor), limite);
+
+        if (pautas.size() <= tamanhoPagina) {
+            return new PaginaDTO<>(pautas, null);
+        }
+        var pagina = pautas.subList(0, tamanhoPagina);
+        return new PaginaDTO<>(pagina, CursorUtils.codificar(pagina.getLast().getOrdenacao()));
     }
 }
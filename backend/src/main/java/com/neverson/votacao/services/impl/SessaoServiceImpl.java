@@ -1,12 +1,20 @@
 package com.neverson.votacao.services.impl;
 
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.domain.dtos.PaginaDTO;
+import com.neverson.votacao.domain.dtos.SessaoDTO;
+import com.neverson.votacao.domain.dtos.SessaoResumoDTO;
 import com.neverson.votacao.domain.entities.Pauta;
 import com.neverson.votacao.domain.entities.Sessao;
 import com.neverson.votacao.repositories.SessaoRepository;
+import com.neverson.votacao.repositories.VotoJdbcRepository;
+import com.neverson.votacao.services.AcompanhamentoVotacaoService;
 import com.neverson.votacao.services.PautaService;
 import com.neverson.votacao.services.SessaoService;
-import org.springframework.data.domain.Sort;
+import com.neverson.votacao.utils.CursorUtils;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -16,13 +24,29 @@ import java.util.UUID;
 @Service
 public class SessaoServiceImpl implements SessaoService {
     private final SessaoRepository sessaoRepository;
+    private final VotoJdbcRepository votoJdbcRepository;
     private final PautaService pautaService;
+    private final VotantesIndex votantesIndex;
+    private final SessoesAbertasCache sessoesAbertasCache;
+    private final AcompanhamentoVotacaoService acompanhamentoVotacaoService;
+    private final EncerramentoSessoes encerramentoSessoes;
+    private final VotacaoProperties.Paginacao paginacao;
 
     private final Integer DEFAULT_SESSION_TIME_SECONDS = 60; // 1 minuto
 
-    public SessaoServiceImpl(SessaoRepository sessaoRepository, PautaService pautaService) {
+    public SessaoServiceImpl(SessaoRepository sessaoRepository, VotoJdbcRepository votoJdbcRepository,
+                             PautaService pautaService, VotantesIndex votantesIndex,
+                             SessoesAbertasCache sessoesAbertasCache,
+                             AcompanhamentoVotacaoService acompanhamentoVotacaoService,
+                             EncerramentoSessoes encerramentoSessoes, VotacaoProperties properties) {
         this.sessaoRepository = sessaoRepository;
+        this.votoJdbcRepository = votoJdbcRepository;
         this.pautaService = pautaService;
+        this.votantesIndex = votantesIndex;
+        this.sessoesAbertasCache = sessoesAbertasCache;
+        this.acompanhamentoVotacaoService = acompanhamentoVotacaoService;
+        this.encerramentoSessoes = encerramentoSessoes;
+        this.paginacao = properties.getPaginacao();
     }
 
     @Override
@@ -33,16 +57,54 @@ public class SessaoServiceImpl implements SessaoService {
         LocalDateTime agora = LocalDateTime.now();
         LocalDateTime fim = agora.plusSeconds(seconds != null ? seconds : this.DEFAULT_SESSION_TIME_SECONDS);
 
-        return sessaoRepository.save(new Sessao( pauta, agora, fim));
+        // o arquivo de votos existe antes de a sessão ficar visível para quem vota
+        votoJdbcRepository.criarFragmento(pauta.getId());
+        var sessao = sessaoRepository.save(new Sessao( pauta, agora, fim));
+        var resumo = new SessaoResumoDTO(sessao.getId(), pauta.getId(), sessao.getFechamento());
+        votantesIndex.iniciar(pauta.getId());
+        sessoesAbertasCache.adicionar(resumo);
+        encerramentoSessoes.agendar(resumo);
+        acompanhamentoVotacaoService.notificarSessaoAberta(pauta.getId(), sessao.getFechamento());
+        return sessao;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Sessao> findById(UUID id) {
         return this.sessaoRepository.findById(id);
     }
 
     @Override
-    public List<Sessao> buscarSessoes() {
-        return this.sessaoRepository.findAll(Sort.by(Sort.Direction.DESC, "fechamento"));
+    @Transactional(readOnly = true)
+    public Optional<SessaoResumoDTO> buscarResumo(UUID id) {
+        var emCache = sessoesAbertasCache.buscar(id);
+        if (emCache != null) {
+            return Optional.of(emCache);
+        }
+
+        var resumo = sessaoRepository.buscarResumo(id);
+        resumo.ifPresent(sessoesAbertasCache::adicionar);
+        return resumo;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaDTO<SessaoDTO> buscarSessoes(String cursor, Integer tamanho) {
+        int tamanhoPagina = paginacao.tamanho(tamanho);
+        var limite = Limit.of(tamanhoPagina + 1);
+        List<SessaoDTO> sessoes;
+        if (cursor == null) {
+            sessoes = sessaoRepository.buscarSessoes(limite);
+        } else {
+            var posicao = CursorUtils.decodificarTemporal(cursor);
+            sessoes = sessaoRepository.buscarSessoesApos(posicao.instante(), posicao.id(), limite);
+        }
+
+        if (sessoes.size() <= tamanhoPagina) {
+            return new PaginaDTO<>(sessoes, null);
+        }
+        var pagina = sessoes.subList(0, tamanhoPagina);
+        var ultima = pagina.getLast();
+        return new PaginaDTO<>(pagina, CursorUtils.codificar(ultima.getFechamento(), ultima.getId()));
     }
 }
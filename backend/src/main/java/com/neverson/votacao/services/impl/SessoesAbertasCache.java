@@ -0,0 +1,65 @@
+package com.neverson.votacao.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.domain.dtos.SessaoResumoDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Cache limitado das sessões abertas. Cada entrada expira sozinha no instante de
+ * fechamento da sessão, então o que está no cache está sempre aberto e o voto pode
+ * ser validado sem ir ao banco. Acertos e falhas ficam em cache.gets{cache=sessoes.abertas}.
+ */
+@Component
+public class SessoesAbertasCache {
+
+    private final boolean habilitado;
+    private final Cache<UUID, SessaoResumoDTO> cache;
+
+    public SessoesAbertasCache(VotacaoProperties properties, MeterRegistry meterRegistry) {
+        var configuracao = properties.getSessoes().getCache();
+        this.habilitado = configuracao.isHabilitado();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(configuracao.getTamanhoMaximo())
+                .expireAfter(new ExpiraNoFechamento())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "sessoes.abertas");
+    }
+
+    public SessaoResumoDTO buscar(UUID sessaoId) {
+        return habilitado ? cache.getIfPresent(sessaoId) : null;
+    }
+
+    public void adicionar(SessaoResumoDTO sessao) {
+        if (habilitado && sessao.isAberta()) {
+            cache.put(sessao.getId(), sessao);
+        }
+    }
+
+    private static class ExpiraNoFechamento implements Expiry<UUID, SessaoResumoDTO> {
+
+        @Override
+        public long expireAfterCreate(UUID id, SessaoResumoDTO sessao, long currentTime) {
+            return Math.max(0, Duration.between(LocalDateTime.now(), sessao.getFechamento()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(UUID id, SessaoResumoDTO sessao, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, sessao, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(UUID id, SessaoResumoDTO sessao, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,33 +1,189 @@
 package com.neverson.votacao.services.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.neverson.votacao.config.VotacaoProperties;
 import com.neverson.votacao.config.exceptions.HttpException;
+import com.neverson.votacao.domain.dtos.ElegibilidadeCpfDTO;
 import com.neverson.votacao.domain.dtos.ElegibilidadeVotacaoDTO;
 import com.neverson.votacao.domain.enums.EStatusEligibilidade;
+import com.neverson.votacao.services.ConsultaElegibilidadeService;
 import com.neverson.votacao.services.VotacaoEligibilidadeService;
 import com.neverson.votacao.utils.CPFUtils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.Random;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Elegibilidade com o serviço externo atrás de um cache por CPF. Consultas simultâneas
+ * do mesmo CPF esperam a mesma chamada em andamento, em vez de cada uma ir ao serviço,
+ * e um {@link Disjuntor} corta as chamadas enquanto o serviço estiver falhando. CPF
+ * desconhecido também fica em cache; falha do serviço não.
+ * Métricas: cache.gets{cache=elegibilidade}, elegibilidade.consulta{resultado} e
+ * elegibilidade.circuito.aberto.
+ */
 @Service
-public class VotacaoEligibilidadeServiceImpl  implements VotacaoEligibilidadeService {
+public class VotacaoEligibilidadeServiceImpl implements VotacaoEligibilidadeService {
 
-    private Random random;
+    private static final Logger log = LoggerFactory.getLogger(VotacaoEligibilidadeServiceImpl.class);
 
-    public VotacaoEligibilidadeServiceImpl() {
-        this.random = createRandom();
-    }
+    private final ConsultaElegibilidadeService consultaElegibilidadeService;
+    private final ObjectMapper objectMapper;
+    private final VotacaoProperties.LoteElegibilidade lote;
+    private final Disjuntor disjuntor;
+    private final AsyncLoadingCache<Long, Consulta> cache;
+    private final Timer consultasComSucesso;
+    private final Timer consultasComFalha;
+
+    public VotacaoEligibilidadeServiceImpl(ConsultaElegibilidadeService consultaElegibilidadeService,
+                                           ObjectMapper objectMapper, VotacaoProperties properties,
+                                           MeterRegistry meterRegistry) {
+        var configuracao = properties.getElegibilidade();
+        this.consultaElegibilidadeService = consultaElegibilidadeService;
+        this.objectMapper = objectMapper;
+        this.lote = configuracao.getLote();
+        this.disjuntor = new Disjuntor(configuracao.getCircuito().getFalhasParaAbrir(),
+                configuracao.getCircuito().getEspera(), System::nanoTime);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(configuracao.getCache().getTamanhoMaximo())
+                .expireAfterWrite(configuracao.getCache().getValidade())
+                // a consulta bloqueia no HTTP; fora do common pool
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .recordStats()
+                .buildAsync(this::consultar);
 
-    protected Random createRandom() {
-        return new Random();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "elegibilidade");
+        this.consultasComSucesso = Timer.builder("elegibilidade.consulta")
+                .tag("resultado", "sucesso")
+                .register(meterRegistry);
+        this.consultasComFalha = Timer.builder("elegibilidade.consulta")
+                .tag("resultado", "falha")
+                .register(meterRegistry);
+        Gauge.builder("elegibilidade.circuito.aberto", disjuntor, d -> d.isAberto() ? 1 : 0)
+                .register(meterRegistry);
     }
 
     @Override
     public ElegibilidadeVotacaoDTO isEligibleToVote(String cpf) throws HttpException {
-        if (!CPFUtils.isValid(cpf)) {
+        long numero = CPFUtils.parse(cpf);
+        if (numero == CPFUtils.INVALIDO) {
             throw HttpException.notFound("CPF inválido");
         }
-        boolean canVote = random.nextBoolean();
-        return new ElegibilidadeVotacaoDTO(canVote ? EStatusEligibilidade.ABLE_TO_VOTE : EStatusEligibilidade.UNABLE_TO_VOTE);
+
+        var futuro = cache.get(numero);
+        Consulta consulta;
+        try {
+            consulta = futuro.join();
+        } catch (CompletionException e) {
+            cache.asMap().remove(numero, futuro);
+            throw HttpException.serviceUnavailable("Serviço de elegibilidade indisponível");
+        }
+
+        if (consulta.erro() == null) {
+            return new ElegibilidadeVotacaoDTO(consulta.status());
+        }
+        if (consulta.erro() == HttpStatus.SERVICE_UNAVAILABLE) {
+            // só a mesma consulta sai do cache; uma nova, já em andamento, fica
+            cache.asMap().remove(numero, futuro);
+        }
+        throw new HttpException(consulta.erro(), consulta.mensagem());
+    }
+
+    /**
+     * As consultas andam numa janela de até {@code concorrencia} CPFs: a linha mais antiga
+     * é escrita antes de abrir a próxima consulta. Assim a saída sai na ordem da entrada
+     * e nem as chamadas em andamento nem a memória crescem com o tamanho do lote.
+     */
+    @Override
+    public StreamingResponseBody verificarLote(List<String> cpfs) {
+        if (cpfs.size() > lote.getMaximoCpfs()) {
+            throw HttpException.badRequest("Máximo de " + lote.getMaximoCpfs() + " CPFs por lote");
+        }
+
+        return saida -> {
+            Deque<CompletableFuture<ElegibilidadeCpfDTO>> janela = new ArrayDeque<>(lote.getConcorrencia());
+            try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (String cpf : cpfs) {
+                    if (janela.size() >= lote.getConcorrencia()) {
+                        escrever(saida, janela.removeFirst());
+                    }
+                    janela.addLast(CPFUtils.parse(cpf) == CPFUtils.INVALIDO
+                            ? CompletableFuture.completedFuture(new ElegibilidadeCpfDTO(cpf, null, "CPF inválido"))
+                            : CompletableFuture.supplyAsync(() -> verificar(cpf), executor));
+                }
+                while (!janela.isEmpty()) {
+                    escrever(saida, janela.removeFirst());
+                }
+            }
+        };
+    }
+
+    private ElegibilidadeCpfDTO verificar(String cpf) {
+        try {
+            return new ElegibilidadeCpfDTO(cpf, isEligibleToVote(cpf).getStatus(), null);
+        } catch (HttpException e) {
+            return new ElegibilidadeCpfDTO(cpf, null, e.getMessage());
+        }
+    }
+
+    private void escrever(OutputStream saida, CompletableFuture<ElegibilidadeCpfDTO> pendente) throws IOException {
+        if (!pendente.isDone()) {
+            // vai esperar a consulta: antes, entrega ao cliente o que já está pronto
+            saida.flush();
+        }
+        saida.write(objectMapper.writeValueAsBytes(pendente.join()));
+        saida.write('\n');
+    }
+
+    /**
+     * Falhas voltam como valor, não como exceção do carregamento: o Caffeine registra
+     * em log cada carregamento que termina em exceção.
+     */
+    private Consulta consultar(Long cpf) {
+        if (!disjuntor.permitir()) {
+            return Consulta.indisponivel();
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            var status = consultaElegibilidadeService.consultar(cpf);
+            disjuntor.sucesso();
+            consultasComSucesso.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return new Consulta(status, null, null);
+        } catch (HttpException e) {
+            // o serviço respondeu (ex.: CPF desconhecido); não conta como falha dele
+            disjuntor.sucesso();
+            consultasComSucesso.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return new Consulta(null, e.getHttpStatus(), e.getMessage());
+        } catch (RuntimeException e) {
+            disjuntor.falha();
+            consultasComFalha.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            log.warn("Falha ao consultar a elegibilidade: {}", e.getMessage());
+            return Consulta.indisponivel();
+        }
+    }
+
+    private record Consulta(EStatusEligibilidade status, HttpStatus erro, String mensagem) {
+
+        static Consulta indisponivel() {
+            return new Consulta(null, HttpStatus.SERVICE_UNAVAILABLE, "Serviço de elegibilidade indisponível");
+        }
     }
 }
@@ -1,53 +1,201 @@
 package com.neverson.votacao.services.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.neverson.votacao.config.VotacaoProperties;
 import com.neverson.votacao.config.exceptions.HttpException;
+import com.neverson.votacao.domain.dtos.ResultadoPublicadoDTO;
 import com.neverson.votacao.domain.dtos.ResultadoVotacaoDTO;
 
 import com.neverson.votacao.domain.entities.Voto;
 import com.neverson.votacao.domain.enums.EVotoOpcao;
 
-import com.neverson.votacao.repositories.VotoRepository;
+import com.neverson.votacao.services.AcompanhamentoVotacaoService;
+import com.neverson.votacao.services.GravacaoVotoService;
 import com.neverson.votacao.services.SessaoService;
 import com.neverson.votacao.services.VotacaoService;
 
+import com.neverson.votacao.utils.CPFUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class VotacaoServiceImpl implements VotacaoService {
 
-    private final VotoRepository votoRepository;
     private final SessaoService sessaoService;
+    private final VotantesIndex votantesIndex;
+    private final GravacaoVotoService gravacaoVotoService;
+    private final ApuracaoVotos apuracaoVotos;
+    private final AcompanhamentoVotacaoService acompanhamentoVotacaoService;
+    private final AdmissaoVotos admissaoVotos;
+    private final GravacoesEmAndamento gravacoesEmAndamento;
+    private final ObjectMapper objectMapper;
+    // resultados finais já serializados; como não mudam mais, cada pauta é serializada uma vez
+    // enquanto estiver no cache
+    private final Cache<UUID, ResultadoPublicadoDTO> publicados;
+
+    private final Timer etapaSessao;
+    private final Timer etapaDuplicidade;
+    private final Timer etapaGravacao;
+    private final Map<Desfecho, Timer> votos = new EnumMap<>(Desfecho.class);
+
+    public VotacaoServiceImpl(SessaoService sessaoService, VotantesIndex votantesIndex,
+                              GravacaoVotoService gravacaoVotoService, ApuracaoVotos apuracaoVotos,
+                              AcompanhamentoVotacaoService acompanhamentoVotacaoService,
+                              AdmissaoVotos admissaoVotos, GravacoesEmAndamento gravacoesEmAndamento,
+                              ObjectMapper objectMapper, VotacaoProperties properties, MeterRegistry meterRegistry) {
 
-    public VotacaoServiceImpl(VotoRepository votoRepository, SessaoService sessaoService) {
-
-        this.votoRepository = votoRepository;
         this.sessaoService = sessaoService;
+        this.votantesIndex = votantesIndex;
+        this.gravacaoVotoService = gravacaoVotoService;
+        this.apuracaoVotos = apuracaoVotos;
+        this.acompanhamentoVotacaoService = acompanhamentoVotacaoService;
+        this.admissaoVotos = admissaoVotos;
+        this.gravacoesEmAndamento = gravacoesEmAndamento;
+        this.objectMapper = objectMapper;
+        this.publicados = Caffeine.newBuilder()
+                .maximumSize(properties.getResultados().getTamanhoMaximo())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, publicados, "resultados.publicados");
+
+        this.etapaSessao = etapa("sessao", meterRegistry);
+        this.etapaDuplicidade = etapa("duplicidade", meterRegistry);
+        this.etapaGravacao = etapa("gravacao", meterRegistry);
+        for (Desfecho desfecho : Desfecho.values()) {
+            // o count de cada timer é o contador de votos por desfecho
+            votos.put(desfecho, Timer.builder("votacao.voto")
+                    .tag("resultado", desfecho.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    private static Timer etapa(String nome, MeterRegistry meterRegistry) {
+        return Timer.builder("votacao.voto.etapa")
+                .tag("etapa", nome)
+                .register(meterRegistry);
     }
 
     @Override
     public Voto votar(UUID sessaoId, String cpf, EVotoOpcao voto) {
-        var sessao = sessaoService.findById(sessaoId).orElseThrow(() -> HttpException.notFound("Sessão não encontrada"));
-
-        if (LocalDateTime.now().isAfter(sessao.getFechamento())) {
-            throw HttpException.badRequest("Sessão de votação encerrada");
+        long inicio = System.nanoTime();
+        var desfecho = Desfecho.ERRO;
+        try {
+            long associadoId = CPFUtils.parse(cpf);
+            if (associadoId == CPFUtils.INVALIDO) {
+                desfecho = Desfecho.CPF_INVALIDO;
+                throw HttpException.badRequest("CPF inválido");
+            }
+
+            if (!admissaoVotos.admitir(sessaoId)) {
+                desfecho = Desfecho.RECUSADO;
+                throw HttpException.tooManyRequests("Muitos votos ao mesmo tempo, tente novamente em instantes",
+                        admissaoVotos.getNovaTentativa());
+            }
+
+            long latenciaGravacao = 0;
+            try {
+                var sessao = etapaSessao.record(() -> sessaoService.buscarResumo(sessaoId));
+                if (sessao.isEmpty()) {
+                    desfecho = Desfecho.SESSAO_INEXISTENTE;
+                    throw HttpException.notFound("Sessão não encontrada");
+                }
+
+                var pautaId = sessao.get().getPautaId();
+                // entra antes de checar o fechamento: o encerramento ou espera este voto ou o vê recusado
+                gravacoesEmAndamento.entrar(pautaId);
+                try {
+                    if (!sessao.get().isAberta()) {
+                        desfecho = Desfecho.SESSAO_ENCERRADA;
+                        throw HttpException.badRequest("Sessão de votação encerrada");
+                    }
+
+                    if (!etapaDuplicidade.record(() -> votantesIndex.registrar(pautaId, associadoId))) {
+                        desfecho = Desfecho.DUPLICADO;
+                        throw HttpException.conflict("Associado já votou nesta pauta");
+                    }
+
+                    Voto gravado;
+                    long inicioGravacao = System.nanoTime();
+                    try {
+                        gravado = etapaGravacao.record(
+                                () -> gravacaoVotoService.gravar(new Voto(pautaId, associadoId, voto)));
+                    } catch (HttpException e) {
+                        // conflito vindo do banco confirma o que o índice já diz; só libera nos outros erros
+                        if (e.getHttpStatus() != HttpStatus.CONFLICT) {
+                            votantesIndex.remover(pautaId, associadoId);
+                        } else {
+                            desfecho = Desfecho.DUPLICADO;
+                        }
+                        throw e;
+                    } catch (RuntimeException e) {
+                        votantesIndex.remover(pautaId, associadoId);
+                        throw e;
+                    } finally {
+                        latenciaGravacao = System.nanoTime() - inicioGravacao;
+                    }
+
+                    apuracaoVotos.registrar(pautaId, voto);
+                    acompanhamentoVotacaoService.notificarVoto(pautaId);
+                    desfecho = Desfecho.ACEITO;
+                    return gravado;
+                } finally {
+                    gravacoesEmAndamento.sair(pautaId);
+                }
+            } finally {
+                admissaoVotos.liberar(sessaoId, latenciaGravacao);
+            }
+        } finally {
+            votos.get(desfecho).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
         }
+    }
 
-        var votoExistente = votoRepository.existsByAssociadoIdAndPauta(cpf, sessao.getPauta());
+    @Override
+    public ResultadoVotacaoDTO resultado(UUID pautaId) {
+        return apuracaoVotos.resultado(pautaId);
+    }
 
-        if (votoExistente) {
-            throw HttpException.conflict("Associado já votou nesta pauta");
+    @Override
+    public ResultadoPublicadoDTO resultadoPublicado(UUID pautaId) {
+        var publicado = publicados.getIfPresent(pautaId);
+        if (publicado != null) {
+            return publicado;
         }
+        var resultadoFinal = apuracaoVotos.resultadoFinal(pautaId);
+        if (resultadoFinal != null) {
+            return publicados.get(pautaId, id -> publicar(resultadoFinal, true));
+        }
+        return publicar(apuracaoVotos.resultado(pautaId), false);
+    }
 
-        var novoVoto = new Voto(cpf, voto, sessao.getPauta());
-
-        return votoRepository.save(novoVoto);
+    private ResultadoPublicadoDTO publicar(ResultadoVotacaoDTO resultado, boolean definitivo) {
+        // o placar determina o JSON inteiro, então serve de ETag forte
+        String etag = "\"" + resultado.getVotosSim() + "-" + resultado.getVotosNao() + "\"";
+        try {
+            return new ResultadoPublicadoDTO(objectMapper.writeValueAsBytes(resultado), etag, definitivo);
+        } catch (JsonProcessingException e) {
+            throw HttpException.internalServerError("Erro ao serializar o resultado");
+        }
     }
 
-    @Override
-    public ResultadoVotacaoDTO resultado(UUID pautaId) {
-        return votoRepository.obterResultadoVotacao(pautaId);
+    private enum Desfecho {
+        ACEITO,
+        CPF_INVALIDO,
+        SESSAO_INEXISTENTE,
+        SESSAO_ENCERRADA,
+        DUPLICADO,
+        RECUSADO,
+        ERRO
     }
 }
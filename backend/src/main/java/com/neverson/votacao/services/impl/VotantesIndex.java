@@ -0,0 +1,84 @@
+package com.neverson.votacao.services.impl;
+
+import com.neverson.votacao.repositories.VotoJdbcRepository;
+import com.neverson.votacao.utils.LongHashSet;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice em memória dos associados que já votaram em cada pauta, com os CPFs
+ * compactados em {@code long}. Evita a consulta de voto duplicado a cada voto.
+ */
+@Component
+public class VotantesIndex {
+
+    private final VotoJdbcRepository votoJdbcRepository;
+    private final Map<UUID, LongHashSet> votantesPorPauta = new ConcurrentHashMap<>();
+
+    public VotantesIndex(VotoJdbcRepository votoJdbcRepository) {
+        this.votoJdbcRepository = votoJdbcRepository;
+    }
+
+    /**
+     * Sessão recém-aberta ainda não tem votos, então o índice começa vazio sem ir ao banco.
+     */
+    public void iniciar(UUID pautaId) {
+        votantesPorPauta.putIfAbsent(pautaId, new LongHashSet());
+    }
+
+    /**
+     * Registra o associado na pauta. Retorna {@code false} se ele já havia votado.
+     */
+    public boolean registrar(UUID pautaId, long associadoId) {
+        LongHashSet votantes = votantes(pautaId);
+        synchronized (votantes) {
+            return votantes.add(associadoId);
+        }
+    }
+
+    /**
+     * Desfaz um {@link #registrar} cujo voto não chegou a ser gravado.
+     */
+    public void remover(UUID pautaId, long associadoId) {
+        LongHashSet votantes = votantesPorPauta.get(pautaId);
+        if (votantes == null) {
+            return;
+        }
+        synchronized (votantes) {
+            votantes.remove(associadoId);
+        }
+    }
+
+    /**
+     * Descarta o índice da pauta encerrada; votos em sessão encerrada são recusados
+     * antes de chegar aqui, então ele não é mais consultado.
+     */
+    public void liberar(UUID pautaId) {
+        votantesPorPauta.remove(pautaId);
+    }
+
+    private LongHashSet votantes(UUID pautaId) {
+        LongHashSet votantes = votantesPorPauta.get(pautaId);
+        if (votantes != null) {
+            return votantes;
+        }
+        // carrega fora do mapa: dentro do computeIfAbsent a leitura do banco travaria o bin
+        // e, com ele, as outras pautas que caem no mesmo bin
+        LongHashSet carregados = carregar(pautaId);
+        LongHashSet anterior = votantesPorPauta.putIfAbsent(pautaId, carregados);
+        return anterior != null ? anterior : carregados;
+    }
+
+    private LongHashSet carregar(UUID pautaId) {
+        List<Long> associados = votoJdbcRepository.buscarAssociadosPorPauta(pautaId);
+        LongHashSet votantes = new LongHashSet(associados.size());
+        for (Long associado : associados) {
+            votantes.add(associado);
+        }
+        return votantes;
+    }
+}
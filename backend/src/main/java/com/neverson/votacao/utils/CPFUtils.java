@@ -2,32 +2,99 @@ package com.neverson.votacao.utils;
 
 public class CPFUtils {
 
-    public static boolean isValid(String cpf) {
-        if (cpf == null || !cpf.matches("\\d{11}") || cpf.chars().distinct().count() == 1) {
-            return false;
+    /**
+     * Retorno de {@link #parse(CharSequence)} para CPF inválido. Nenhum CPF válido
+     * é negativo, então o valor não colide com um CPF de verdade.
+     */
+    public static final long INVALIDO = -1L;
+
+    private static final int DIGITOS = 11;
+    private static final int TAMANHO_FORMATADO = 14;
+
+    /**
+     * Valida o CPF e devolve seus 11 dígitos como um único {@code long}, ou {@link #INVALIDO}.
+     * Aceita só dígitos ou o formato 000.000.000-00. Percorre a entrada uma única vez
+     * sem alocar nada, para poder ficar no caminho de todo voto.
+     */
+    public static long parse(CharSequence cpf) {
+        if (cpf == null) {
+            return INVALIDO;
+        }
+        int tamanho = cpf.length();
+        boolean formatado = tamanho == TAMANHO_FORMATADO;
+        if (!formatado && tamanho != DIGITOS) {
+            return INVALIDO;
         }
 
-        try {
-            int[] digits = cpf.chars().map(c -> c - '0').toArray();
+        long valor = 0;
+        int soma1 = 0;
+        int soma2 = 0;
+        int primeiro = -1;
+        boolean todosIguais = true;
+        int posicao = 0;
 
-            int sum1 = 0;
-            for (int i = 0; i < 9; i++) {
-                sum1 += digits[i] * (10 - i);
+        for (int i = 0; i < tamanho; i++) {
+            char c = cpf.charAt(i);
+            if (formatado && (i == 3 || i == 7 || i == 11)) {
+                if (c != (i == 11 ? '-' : '.')) {
+                    return INVALIDO;
+                }
+                continue;
             }
-            int firstCheckDigit = 11 - (sum1 % 11);
-            if (firstCheckDigit >= 10) firstCheckDigit = 0;
-            if (digits[9] != firstCheckDigit) return false;
-
-            int sum2 = 0;
-            for (int i = 0; i < 10; i++) {
-                sum2 += digits[i] * (11 - i);
+            if (c < '0' || c > '9') {
+                return INVALIDO;
+            }
+            int digito = c - '0';
+            if (primeiro < 0) {
+                primeiro = digito;
+            } else if (digito != primeiro) {
+                todosIguais = false;
+            }
+            if (posicao < 9) {
+                soma1 += digito * (10 - posicao);
+            }
+            if (posicao < 10) {
+                soma2 += digito * (11 - posicao);
+            }
+            if (posicao == 9 && digito != digitoVerificador(soma1)) {
+                return INVALIDO;
             }
-            int secondCheckDigit = 11 - (sum2 % 11);
-            if (secondCheckDigit >= 10) secondCheckDigit = 0;
-            return digits[10] == secondCheckDigit;
+            if (posicao == 10 && digito != digitoVerificador(soma2)) {
+                return INVALIDO;
+            }
+            valor = valor * 10 + digito;
+            posicao++;
+        }
 
-        } catch (Exception e) {
-            return false;
+        return todosIguais ? INVALIDO : valor;
+    }
+
+    public static boolean isValid(String cpf) {
+        return parse(cpf) != INVALIDO;
+    }
+
+    /**
+     * Completa uma base de 9 dígitos com os dois dígitos verificadores. Serve para gerar
+     * CPFs válidos em testes, benchmarks e carga; bases com os 9 dígitos iguais dão um CPF
+     * que {@link #parse(CharSequence)} recusa.
+     */
+    public static long completar(long base) {
+        int soma1 = 0;
+        int soma2 = 0;
+        long resto = base;
+        for (int posicao = 8; posicao >= 0; posicao--) {
+            int digito = (int) (resto % 10);
+            resto /= 10;
+            soma1 += digito * (10 - posicao);
+            soma2 += digito * (11 - posicao);
         }
+        int primeiro = digitoVerificador(soma1);
+        int segundo = digitoVerificador(soma2 + primeiro * 2);
+        return base * 100 + primeiro * 10 + segundo;
+    }
+
+    private static int digitoVerificador(int soma) {
+        int digito = 11 - (soma % 11);
+        return digito >= 10 ? 0 : digito;
     }
 }
@@ -0,0 +1,47 @@
+package com.neverson.votacao.utils;
+
+import java.util.Locale;
+
+/**
+ * Negociação de compressão pelo cabeçalho Accept-Encoding.
+ */
+public class CompressaoUtils {
+
+    /**
+     * Se o cliente aceita gzip: a entrada {@code gzip} decide quando existe; senão vale a
+     * de {@code *}. Sem nenhuma das duas, ou com {@code q=0}, a resposta vai sem compressão.
+     */
+    public static boolean aceitaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double qualquer = null;
+        for (String item : acceptEncoding.split(",")) {
+            String[] partes = item.split(";");
+            String codificacao = partes[0].trim().toLowerCase(Locale.ROOT);
+            if (codificacao.equals("gzip")) {
+                gzip = qualidade(partes);
+            } else if (codificacao.equals("*")) {
+                qualquer = qualidade(partes);
+            }
+        }
+        double escolhida = gzip != null ? gzip : qualquer != null ? qualquer : 0;
+        return escolhida > 0;
+    }
+
+    private static double qualidade(String[] partes) {
+        for (int i = 1; i < partes.length; i++) {
+            String parametro = partes[i].trim();
+            if (parametro.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parametro.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    // q malformado não conta como aceite
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
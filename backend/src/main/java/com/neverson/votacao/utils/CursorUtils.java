@@ -0,0 +1,67 @@
+package com.neverson.votacao.utils;
+
+import com.neverson.votacao.config.exceptions.HttpException;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Cursores das listagens paginadas. O cliente só devolve o token recebido; o conteúdo,
+ * a última chave da página em Base64 para URL, não faz parte do contrato da API.
+ */
+public class CursorUtils {
+
+    private static final int TAMANHO_ID = 16;
+    private static final int TAMANHO_TEMPORAL = Long.BYTES + Integer.BYTES + TAMANHO_ID;
+
+    public record CursorTemporal(LocalDateTime instante, UUID id) {
+    }
+
+    public static String codificar(UUID id) {
+        return codificar(UUIDUtils.toBytes(id));
+    }
+
+    public static UUID decodificar(String cursor) {
+        return UUIDUtils.fromBytes(bytes(cursor, TAMANHO_ID));
+    }
+
+    public static String codificar(LocalDateTime instante, UUID id) {
+        return codificar(ByteBuffer.allocate(TAMANHO_TEMPORAL)
+                .putLong(instante.toEpochSecond(ZoneOffset.UTC))
+                .putInt(instante.getNano())
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array());
+    }
+
+    public static CursorTemporal decodificarTemporal(String cursor) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes(cursor, TAMANHO_TEMPORAL));
+        long segundos = buffer.getLong();
+        int nanos = buffer.getInt();
+        if (nanos < 0 || nanos > 999_999_999) {
+            throw HttpException.badRequest("Cursor inválido");
+        }
+        return new CursorTemporal(LocalDateTime.ofEpochSecond(segundos, nanos, ZoneOffset.UTC),
+                new UUID(buffer.getLong(), buffer.getLong()));
+    }
+
+    private static String codificar(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static byte[] bytes(String cursor, int tamanho) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw HttpException.badRequest("Cursor inválido");
+        }
+        if (bytes.length != tamanho) {
+            throw HttpException.badRequest("Cursor inválido");
+        }
+        return bytes;
+    }
+}
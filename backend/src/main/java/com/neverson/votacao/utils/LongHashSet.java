@@ -0,0 +1,139 @@
+package com.neverson.votacao.utils;
+
+/**
+ * Conjunto de {@code long} com endereçamento aberto (sondagem linear), sem boxing.
+ * O valor {@code 0} é reservado para marcar posições vazias e não pode ser inserido,
+ * o que não é problema para CPFs, pois "00000000000" nunca é válido.
+ * Não é thread-safe.
+ */
+public class LongHashSet {
+
+    private static final long EMPTY = 0L;
+    private static final float LOAD_FACTOR = 0.7f;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    public LongHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongHashSet(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public boolean add(long key) {
+        checkKey(key);
+        int index = indexOf(key);
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    public boolean contains(long key) {
+        if (key == EMPTY) {
+            return false;
+        }
+        int index = indexOf(key);
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    public boolean remove(long key) {
+        if (key == EMPTY) {
+            return false;
+        }
+        int index = indexOf(key);
+        while (keys[index] != key) {
+            if (keys[index] == EMPTY) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        shiftBack(index);
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    // remoção sem lápides: puxa para trás os elementos do mesmo cluster que ficariam inalcançáveis
+    private void shiftBack(int gap) {
+        int index = (gap + 1) & mask;
+        while (keys[index] != EMPTY) {
+            int home = indexOf(keys[index]);
+            if (((index - home) & mask) >= ((index - gap) & mask)) {
+                keys[gap] = keys[index];
+                gap = index;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[gap] = EMPTY;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        allocate(newCapacity);
+        for (long key : oldKeys) {
+            if (key != EMPTY) {
+                int index = indexOf(key);
+                while (keys[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int indexOf(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long needed = (long) Math.ceil(Math.max(expectedSize, 1) / (double) LOAD_FACTOR) + 1;
+        long capacity = Long.highestOneBit(Math.max(needed - 1, MIN_CAPACITY - 1)) << 1;
+        if (capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacidade excedida: " + expectedSize);
+        }
+        return (int) capacity;
+    }
+
+    private static void checkKey(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Chave 0 é reservada");
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.neverson.votacao.utils;
 import com.github.f4b6a3.uuid.UuidCreator;
 
+import java.nio.ByteBuffer;
 import java.util.UUID;
 
 public class UUIDUtils {
@@ -8,4 +9,19 @@ public class UUIDUtils {
     public static UUID generate() {
         return UuidCreator.getTimeOrdered();
     }
+
+    /**
+     * Mesmo formato que o Hibernate usa nas colunas blob do SQLite (16 bytes, big-endian).
+     */
+    public static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    public static UUID fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
 }
@@ -0,0 +1,24 @@
+-- Esquema gerado originalmente pelo Hibernate (ddl-auto: update). Bancos que já
+-- existiam antes do Flyway são marcados nesta versão pelo baseline-on-migrate.
+CREATE TABLE IF NOT EXISTS pauta (
+    id BLOB NOT NULL,
+    descricao VARCHAR(255),
+    titulo VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS sessao (
+    id BLOB NOT NULL,
+    abertura TIMESTAMP,
+    fechamento TIMESTAMP,
+    pauta_id BLOB UNIQUE,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS voto (
+    id BLOB NOT NULL,
+    associado_id VARCHAR(11) NOT NULL,
+    voto TINYINT NOT NULL CHECK (voto BETWEEN 0 AND 1),
+    pauta_id BLOB,
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,48 @@
+-- CPF como inteiro e chave primária (pauta_id, associado_id) sem rowid: a própria
+-- chave é o índice clusterizado, sem o UUID por voto e sem índice secundário.
+CREATE TABLE voto_compacto (
+    pauta_id BLOB NOT NULL,
+    associado_id BIGINT NOT NULL,
+    voto TINYINT NOT NULL CHECK (voto BETWEEN 0 AND 1),
+    PRIMARY KEY (pauta_id, associado_id)
+) WITHOUT ROWID;
+
+-- O @CPF do Hibernate aceitava o CPF formatado ("123.456.789-09"), e o CAST direto
+-- pararia no primeiro ponto. A pontuação sai antes da conversão, e o que não for
+-- convertido fica em voto_quarentena, com o motivo, em vez de sumir: CPF que não vira
+-- exatamente 11 dígitos, voto sem pauta e o segundo voto do mesmo CPF na mesma pauta.
+CREATE TABLE voto_quarentena (
+    id BLOB,
+    pauta_id BLOB,
+    associado_id VARCHAR(255),
+    voto TINYINT,
+    motivo VARCHAR(32) NOT NULL
+);
+
+CREATE TEMP TABLE voto_normalizado AS
+SELECT id, pauta_id, associado_id, voto, cpf,
+       CASE
+           WHEN length(cpf) <> 11 OR cpf GLOB '*[^0-9]*' OR cpf = '00000000000' THEN 'cpf_invalido'
+           WHEN pauta_id IS NULL THEN 'sem_pauta'
+           WHEN row_number() OVER (PARTITION BY pauta_id, cpf ORDER BY rowid) > 1 THEN 'duplicado'
+       END AS motivo
+FROM (SELECT rowid, id, pauta_id, associado_id, voto,
+             replace(replace(associado_id, '.', ''), '-', '') AS cpf
+      FROM voto);
+
+INSERT INTO voto_quarentena (id, pauta_id, associado_id, voto, motivo)
+SELECT id, pauta_id, associado_id, voto, motivo
+FROM voto_normalizado
+WHERE motivo IS NOT NULL;
+
+-- sem OR IGNORE: qualquer conflito que sobrar aqui é um erro e aborta a migração
+INSERT INTO voto_compacto (pauta_id, associado_id, voto)
+SELECT pauta_id, CAST(cpf AS INTEGER), voto
+FROM voto_normalizado
+WHERE motivo IS NULL;
+
+DROP TABLE voto_normalizado;
+
+DROP TABLE voto;
+
+ALTER TABLE voto_compacto RENAME TO voto;
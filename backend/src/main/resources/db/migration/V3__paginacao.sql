@@ -0,0 +1,21 @@
+-- Paginação por cursor (keyset). As listagens buscam "as próximas N depois de X"
+-- direto pelo índice, sem OFFSET, então o custo de uma página não depende da
+-- profundidade.
+
+-- Pautas são listadas pela atividade mais recente: o id da sessão, quando houver,
+-- senão o da própria pauta. Os dois são UUIDs ordenados pelo tempo e, em blob,
+-- comparam na ordem cronológica, então a chave é materializada e indexada.
+ALTER TABLE pauta ADD COLUMN ordenacao BLOB;
+
+UPDATE pauta
+SET ordenacao = coalesce((SELECT sessao.id FROM sessao WHERE sessao.pauta_id = pauta.id), pauta.id);
+
+CREATE UNIQUE INDEX pauta_ordenacao ON pauta (ordenacao);
+
+-- Abrir a sessão leva a pauta para o topo, qualquer que seja o caminho de escrita.
+CREATE TRIGGER sessao_ordena_pauta AFTER INSERT ON sessao
+BEGIN
+    UPDATE pauta SET ordenacao = NEW.id WHERE id = NEW.pauta_id;
+END;
+
+CREATE INDEX sessao_fechamento ON sessao (fechamento, id);
@@ -0,0 +1,13 @@
+-- Sessões passam a ser encerradas explicitamente no fechamento, quando o placar
+-- final é apurado uma única vez e gravado em resultado_votacao.
+ALTER TABLE sessao ADD COLUMN encerrada BOOLEAN NOT NULL DEFAULT 0;
+
+CREATE TABLE resultado_votacao (
+    pauta_id BLOB NOT NULL,
+    total_votos INTEGER NOT NULL,
+    votos_sim INTEGER NOT NULL,
+    votos_nao INTEGER NOT NULL,
+    -- epoch em milissegundos
+    apurado_em BIGINT NOT NULL,
+    PRIMARY KEY (pauta_id)
+) WITHOUT ROWID;
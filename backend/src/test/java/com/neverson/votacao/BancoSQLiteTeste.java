@@ -0,0 +1,28 @@
+package com.neverson.votacao;
+
+import org.flywaydb.core.Flyway;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+
+/**
+ * Banco SQLite em arquivo temporário com as migrações do Flyway aplicadas.
+ */
+public final class BancoSQLiteTeste {
+
+    private BancoSQLiteTeste() {
+    }
+
+    public static DataSource criar(Path diretorio) {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setBusyTimeout(10_000);
+        SQLiteDataSource dataSource = new SQLiteDataSource(config);
+        dataSource.setUrl("jdbc:sqlite:" + diretorio.resolve("votacao.db"));
+
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        return dataSource;
+    }
+}
@@ -0,0 +1,171 @@
+package com.neverson.votacao.config.database;
+
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.domain.entities.Voto;
+import com.neverson.votacao.domain.enums.EVotoOpcao;
+import com.neverson.votacao.repositories.VotoJdbcRepository;
+import com.neverson.votacao.utils.UUIDUtils;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BancoConfigTest {
+
+    private static final long FOLGA_LATENCIA_US = 50_000;
+
+    private HikariDataSource escritor;
+    private HikariDataSource leitores;
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate leitura;
+
+    @BeforeEach
+    void setUp(@TempDir Path diretorio) {
+        var dataSourceProperties = new DataSourceProperties();
+        dataSourceProperties.setUrl("jdbc:sqlite:" + diretorio.resolve("votacao.db"));
+        var properties = new VotacaoProperties();
+        properties.getBanco().setLeitores(4);
+
+        var config = new BancoConfig();
+        escritor = config.escritorDataSource(dataSourceProperties, properties);
+        leitores = config.leitorDataSource(dataSourceProperties, properties, escritor);
+        dataSource = config.dataSource(escritor, leitores);
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        leitura = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        leitura.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        leitores.close();
+        escritor.close();
+    }
+
+    @Test
+    @DisplayName("Deve abrir o banco em WAL e levar as transações somente leitura para o pool de leitura")
+    void shouldUseWalAndRouteReadOnlyTransactions() {
+        assertEquals("wal", jdbcTemplate.queryForObject("PRAGMA journal_mode", String.class));
+        assertEquals(0, jdbcTemplate.queryForObject("PRAGMA query_only", Integer.class));
+        assertEquals(Integer.valueOf(1), leitura.execute(status -> jdbcTemplate.queryForObject("PRAGMA query_only", Integer.class)));
+    }
+
+    @Test
+    @DisplayName("Deve recusar escrita feita por uma conexão do pool de leitura")
+    void shouldRejectWritesOnReadPool() throws SQLException {
+        try (Connection conexao = leitores.getConnection(); Statement statement = conexao.createStatement()) {
+            assertThrows(SQLException.class,
+                    () -> statement.executeUpdate("INSERT INTO pauta (id, titulo) VALUES (x'01', 'Pauta')"));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve ler sem esperar enquanto o escritor mantém uma transação aberta")
+    void shouldReadWhileWriteTransactionIsOpen() throws SQLException {
+        try (Connection conexao = escritor.getConnection(); Statement statement = conexao.createStatement()) {
+            conexao.setAutoCommit(false);
+            statement.executeUpdate("INSERT INTO pauta (id, titulo) VALUES (x'01', 'Pauta')");
+
+            Integer pautas = assertTimeoutPreemptively(Duration.ofSeconds(1), () ->
+                    leitura.execute(status -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pauta", Integer.class)));
+            assertEquals(0, pautas);
+
+            conexao.commit();
+        }
+
+        assertEquals(Integer.valueOf(1), leitura.execute(status -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pauta", Integer.class)));
+    }
+
+    @Test
+    @DisplayName("Deve manter a latência de leitura sob carga de votos sem SQLITE_BUSY")
+    void shouldKeepReadLatencyUnderVoteLoad() throws Exception {
+        var votoJdbcRepository = new VotoJdbcRepository(jdbcTemplate, new FragmentosVoto(new VotacaoProperties()));
+        UUID pautaId = UUID.randomUUID();
+
+        List<Long> semCarga = medirLeituras(pautaId, 500);
+
+        AtomicBoolean rodando = new AtomicBoolean(true);
+        AtomicLong votos = new AtomicLong();
+        List<Long> comCarga;
+        try (ExecutorService escritores = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                tarefas.add(escritores.submit(() -> {
+                    while (rodando.get()) {
+                        long associado = 10_000_000_000L + votos.incrementAndGet();
+                        votoJdbcRepository.inserir(new Voto(pautaId, associado, EVotoOpcao.SIM));
+                    }
+                }));
+            }
+            comCarga = medirLeituras(pautaId, 500);
+            rodando.set(false);
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        }
+
+        assertEquals(votos.get(), jdbcTemplate.queryForObject("SELECT COUNT(*) FROM voto", Long.class));
+        // leitura que esperasse o lock de escrita levaria de centenas de ms até o busy timeout;
+        // a folga absorve o ruído de CPU dividida com os escritores
+        long p99SemCarga = percentil(semCarga, 99);
+        long p99ComCarga = percentil(comCarga, 99);
+        assertTrue(p99ComCarga <= 10 * p99SemCarga + FOLGA_LATENCIA_US,
+                "p99 de leitura com carga " + p99ComCarga + "us, sem carga " + p99SemCarga + "us");
+    }
+
+    // busca pontual pela chave primária, como a verificação de voto existente
+    private List<Long> medirLeituras(UUID pautaId, int quantidade) throws Exception {
+        byte[] pauta = UUIDUtils.toBytes(pautaId);
+        List<Long> latencias = Collections.synchronizedList(new ArrayList<>());
+        try (ExecutorService leitoresConcorrentes = Executors.newFixedThreadPool(4)) {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int i = 0; i < quantidade; i++) {
+                tarefas.add(leitoresConcorrentes.submit(() -> {
+                    long inicio = System.nanoTime();
+                    long associado = 10_000_000_000L + ThreadLocalRandom.current().nextInt(10_000);
+                    leitura.execute(status -> jdbcTemplate.queryForObject(
+                            "SELECT COUNT(*) FROM voto WHERE pauta_id = ? AND associado_id = ?", Long.class, pauta, associado));
+                    latencias.add((System.nanoTime() - inicio) / 1_000);
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        }
+        return latencias;
+    }
+
+    private static long percentil(List<Long> latencias, int percentil) {
+        List<Long> ordenadas = new ArrayList<>(latencias);
+        Collections.sort(ordenadas);
+        return ordenadas.get(Math.min(ordenadas.size() - 1, ordenadas.size() * percentil / 100));
+    }
+}
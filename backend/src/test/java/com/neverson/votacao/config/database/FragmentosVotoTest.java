@@ -0,0 +1,220 @@
+package com.neverson.votacao.config.database;
+
+import com.neverson.votacao.BancoSQLiteTeste;
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.domain.dtos.ContagemVotosDTO;
+import com.neverson.votacao.domain.entities.Voto;
+import com.neverson.votacao.domain.enums.EVotoOpcao;
+import com.neverson.votacao.repositories.VotoJdbcRepository;
+import com.neverson.votacao.utils.UUIDUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FragmentosVotoTest {
+
+    private Path diretorio;
+    private JdbcTemplate principal;
+    private FragmentosVoto fragmentosVoto;
+    private VotoJdbcRepository votoJdbcRepository;
+
+    private final UUID pautaA = UUID.randomUUID();
+    private final UUID pautaB = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp(@TempDir Path diretorio) {
+        this.diretorio = diretorio;
+        principal = new JdbcTemplate(BancoSQLiteTeste.criar(diretorio));
+        var properties = new VotacaoProperties();
+        properties.getBanco().getFragmentos().setHabilitado(true);
+        properties.getBanco().getFragmentos().setDiretorio(diretorio.resolve("fragmentos").toString());
+        fragmentosVoto = new FragmentosVoto(properties);
+        votoJdbcRepository = new VotoJdbcRepository(principal, fragmentosVoto);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fragmentosVoto.fechar();
+    }
+
+    @Test
+    @DisplayName("Deve gravar e ler os votos de cada pauta no próprio arquivo, fora do banco principal")
+    void shouldKeepVotesInPautaFile() {
+        votoJdbcRepository.criarFragmento(pautaA);
+        votoJdbcRepository.criarFragmento(pautaB);
+
+        assertTrue(votoJdbcRepository.inserir(new Voto(pautaA, 52998224725L, EVotoOpcao.SIM)));
+        assertFalse(votoJdbcRepository.inserir(new Voto(pautaA, 52998224725L, EVotoOpcao.NAO)));
+        assertTrue(votoJdbcRepository.inserir(new Voto(pautaA, 12345678909L, EVotoOpcao.NAO)));
+        assertTrue(votoJdbcRepository.inserir(new Voto(pautaB, 52998224725L, EVotoOpcao.SIM)));
+
+        assertTrue(Files.exists(diretorio.resolve("fragmentos").resolve(pautaA + ".db")));
+        assertEquals(0, principal.queryForObject("SELECT COUNT(*) FROM voto", Integer.class));
+        assertEquals(2, votoJdbcRepository.contarVotos(pautaA).getTotalVotos());
+        assertEquals(1, votoJdbcRepository.contarVotos(pautaB).getVotosSim());
+        assertEquals(List.of(12345678909L, 52998224725L),
+                votoJdbcRepository.buscarAssociadosPorPauta(pautaA).stream().sorted().toList());
+    }
+
+    @Test
+    @DisplayName("Deve manter no banco principal os votos de pautas sem fragmento")
+    void shouldRouteLegacyPautaToMainDatabase() {
+        UUID legada = UUID.randomUUID();
+        votoJdbcRepository.criarFragmento(pautaA);
+
+        int[] inseridos = votoJdbcRepository.inserirEmLote(List.of(
+                new Voto(pautaA, 52998224725L, EVotoOpcao.SIM),
+                new Voto(legada, 52998224725L, EVotoOpcao.NAO),
+                new Voto(pautaA, 52998224725L, EVotoOpcao.NAO),
+                new Voto(legada, 12345678909L, EVotoOpcao.SIM)));
+
+        assertArrayEquals(new int[]{1, 1, 0, 1}, inseridos);
+        assertEquals(2, principal.queryForObject("SELECT COUNT(*) FROM voto", Integer.class));
+        assertEquals(1, votoJdbcRepository.contarVotos(pautaA).getTotalVotos());
+        assertEquals(2, votoJdbcRepository.agruparPorBanco(List.of(pautaA, legada, pautaA), pauta -> pauta).size());
+    }
+
+    @Test
+    @DisplayName("Deve continuar lendo e apurando o fragmento depois de desanexado")
+    void shouldReadDetachedFragment() {
+        votoJdbcRepository.criarFragmento(pautaA);
+        votoJdbcRepository.inserir(new Voto(pautaA, 52998224725L, EVotoOpcao.SIM));
+        votoJdbcRepository.inserir(new Voto(pautaA, 12345678909L, EVotoOpcao.SIM));
+
+        votoJdbcRepository.desanexarFragmento(pautaA);
+
+        List<ContagemVotosDTO> contagens = votoJdbcRepository.contarVotosPorPauta();
+        assertEquals(1, contagens.size());
+        assertEquals(pautaA, contagens.getFirst().getPautaId());
+        assertEquals(2, contagens.getFirst().getQuantidade());
+        assertEquals(2, votoJdbcRepository.contarVotos(pautaA).getVotosSim());
+    }
+
+    @Test
+    @DisplayName("Deve gravar em uma pauta enquanto outra mantém a transação de escrita aberta")
+    void shouldWriteWhileAnotherFragmentHoldsTheLock() throws Exception {
+        votoJdbcRepository.criarFragmento(pautaA);
+        votoJdbcRepository.criarFragmento(pautaB);
+
+        var gravando = new CountDownLatch(1);
+        var liberar = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<?> transacaoA = executor.submit(() -> segurarEscrita(pautaA, gravando, liberar));
+            assertTrue(gravando.await(5, TimeUnit.SECONDS));
+
+            List<Boolean> inseridos = new ArrayList<>();
+            assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+                for (long associado = 1; associado <= 100; associado++) {
+                    inseridos.add(votoJdbcRepository.inserir(new Voto(pautaB, associado, EVotoOpcao.SIM)));
+                }
+            });
+
+            liberar.countDown();
+            transacaoA.get(5, TimeUnit.SECONDS);
+            assertFalse(inseridos.contains(false));
+        }
+        assertEquals(100, votoJdbcRepository.contarVotos(pautaB).getTotalVotos());
+    }
+
+    @Test
+    @DisplayName("Deve ler o fragmento desanexado sem anexá-lo de novo, e só reanexar na escrita")
+    void shouldNotReattachOnRead() {
+        votoJdbcRepository.criarFragmento(pautaA);
+        votoJdbcRepository.inserir(new Voto(pautaA, 52998224725L, EVotoOpcao.SIM));
+        votoJdbcRepository.desanexarFragmento(pautaA);
+
+        assertEquals(1, votoJdbcRepository.contarVotos(pautaA).getTotalVotos());
+        assertEquals(List.of(52998224725L), votoJdbcRepository.buscarAssociadosPorPauta(pautaA));
+        votoJdbcRepository.percorrerPorPauta(pautaA, 100, (associado, voto) -> { });
+        assertEquals(1, votoJdbcRepository.agruparPorBanco(List.of(pautaA), pauta -> pauta).size());
+        assertFalse(fragmentosVoto.anexado(pautaA));
+
+        assertTrue(votoJdbcRepository.inserir(new Voto(pautaA, 12345678909L, EVotoOpcao.NAO)));
+        assertTrue(fragmentosVoto.anexado(pautaA));
+        assertEquals(2, votoJdbcRepository.contarVotos(pautaA).getTotalVotos());
+    }
+
+    @Test
+    @DisplayName("Deve esperar a escrita em andamento terminar antes de fechar o fragmento desanexado")
+    void shouldWaitForWriteBeforeDetaching() throws Exception {
+        votoJdbcRepository.criarFragmento(pautaA);
+
+        var gravando = new CountDownLatch(1);
+        var liberar = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<?> escrita = executor.submit(() -> segurarEscrita(pautaA, gravando, liberar));
+            assertTrue(gravando.await(5, TimeUnit.SECONDS));
+
+            Future<?> desanexar = executor.submit(() -> votoJdbcRepository.desanexarFragmento(pautaA));
+            Thread.sleep(200);
+            assertFalse(desanexar.isDone());
+
+            liberar.countDown();
+            escrita.get(5, TimeUnit.SECONDS);
+            desanexar.get(5, TimeUnit.SECONDS);
+        }
+        assertFalse(fragmentosVoto.anexado(pautaA));
+        assertEquals(1, votoJdbcRepository.contarVotos(pautaA).getTotalVotos());
+    }
+
+    @Test
+    @DisplayName("Não deve abrir um segundo escritor no arquivo enquanto o desanexar espera a escrita em andamento")
+    void shouldNotReattachWhileDetaching() throws Exception {
+        votoJdbcRepository.criarFragmento(pautaA);
+
+        var gravando = new CountDownLatch(1);
+        var liberar = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(3)) {
+            Future<?> escrita = executor.submit(() -> segurarEscrita(pautaA, gravando, liberar));
+            assertTrue(gravando.await(5, TimeUnit.SECONDS));
+            Future<?> desanexar = executor.submit(() -> votoJdbcRepository.desanexarFragmento(pautaA));
+            Thread.sleep(200);
+
+            // ainda anexado: a escrita atrasada espera este fragmento em vez de anexar outro
+            assertTrue(fragmentosVoto.anexado(pautaA));
+            Future<Boolean> atrasada = executor.submit(
+                    () -> votoJdbcRepository.inserir(new Voto(pautaA, 52998224725L, EVotoOpcao.SIM)));
+            Thread.sleep(200);
+            assertFalse(atrasada.isDone());
+
+            liberar.countDown();
+            escrita.get(5, TimeUnit.SECONDS);
+            desanexar.get(5, TimeUnit.SECONDS);
+            assertTrue(atrasada.get(5, TimeUnit.SECONDS));
+        }
+        assertTrue(fragmentosVoto.anexado(pautaA));
+        assertEquals(2, votoJdbcRepository.contarVotos(pautaA).getTotalVotos());
+    }
+
+    // grava um voto na pauta e mantém a transação do fragmento aberta até ser liberada
+    private void segurarEscrita(UUID pautaId, CountDownLatch gravando, CountDownLatch liberar) {
+        fragmentosVoto.escrever(pautaId, fragmento -> fragmento.transacao().execute(status -> {
+            fragmento.escrita().update("INSERT INTO voto (pauta_id, associado_id, voto) VALUES (?, 1, 1)",
+                    (Object) UUIDUtils.toBytes(pautaId));
+            gravando.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+    }
+}
@@ -0,0 +1,167 @@
+package com.neverson.votacao.repositories;
+
+import com.neverson.votacao.BancoSQLiteTeste;
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.domain.dtos.PaginaDTO;
+import com.neverson.votacao.domain.dtos.PautaDTO;
+import com.neverson.votacao.domain.dtos.SessaoDTO;
+import com.neverson.votacao.domain.entities.Pauta;
+import com.neverson.votacao.domain.entities.Sessao;
+import com.neverson.votacao.services.AcompanhamentoVotacaoService;
+import com.neverson.votacao.services.PautaService;
+import com.neverson.votacao.services.impl.EncerramentoSessoes;
+import com.neverson.votacao.services.impl.PautaServiceImpl;
+import com.neverson.votacao.services.impl.SessaoServiceImpl;
+import com.neverson.votacao.services.impl.SessoesAbertasCache;
+import com.neverson.votacao.services.impl.VotantesIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Conta os comandos SQL de cada listagem e consulta exposta pela API, com o Hibernate
+ * real sobre o SQLite: cada uma deve ser um único select, sem carregar entidades.
+ */
+@ExtendWith(MockitoExtension.class)
+class ConsultasPorRequisicaoTest {
+
+    @Mock
+    private PautaService pautaServiceSessoes;
+
+    @Mock
+    private VotoJdbcRepository votoJdbcRepository;
+
+    @Mock
+    private VotantesIndex votantesIndex;
+
+    @Mock
+    private SessoesAbertasCache sessoesAbertasCache;
+
+    @Mock
+    private AcompanhamentoVotacaoService acompanhamentoVotacaoService;
+
+    @Mock
+    private EncerramentoSessoes encerramentoSessoes;
+
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+    private Statistics estatisticas;
+    private PautaServiceImpl pautaService;
+    private SessaoServiceImpl sessaoService;
+
+    private UUID pautaComSessao;
+    private UUID pautaSemSessao;
+
+    @BeforeEach
+    void setUp(@TempDir Path diretorio) {
+        var fabrica = new LocalContainerEntityManagerFactoryBean();
+        fabrica.setDataSource(BancoSQLiteTeste.criar(diretorio));
+        fabrica.setPackagesToScan("com.neverson.votacao.domain.entities");
+        fabrica.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        // mesmas convenções de nomes que o Spring Boot configura
+        fabrica.setJpaPropertyMap(Map.of(
+                "hibernate.dialect", "org.hibernate.community.dialect.SQLiteDialect",
+                "hibernate.physical_naming_strategy", "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy",
+                "hibernate.implicit_naming_strategy", "org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy",
+                "hibernate.generate_statistics", "true"));
+        fabrica.afterPropertiesSet();
+        entityManagerFactory = fabrica.getObject();
+        entityManager = entityManagerFactory.createEntityManager();
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        var repositorios = new JpaRepositoryFactory(entityManager);
+        var properties = new VotacaoProperties();
+        pautaService = new PautaServiceImpl(repositorios.getRepository(PautaRepository.class), properties);
+        sessaoService = new SessaoServiceImpl(repositorios.getRepository(SessaoRepository.class), votoJdbcRepository,
+                pautaServiceSessoes, votantesIndex, sessoesAbertasCache, acompanhamentoVotacaoService,
+                encerramentoSessoes, properties);
+
+        entityManager.getTransaction().begin();
+        for (int i = 0; i < 5; i++) {
+            var pauta = new Pauta("Pauta " + i, "Descrição " + i);
+            entityManager.persist(pauta);
+            var agora = LocalDateTime.now();
+            entityManager.persist(new Sessao(pauta, agora, agora.plusMinutes(i + 1)));
+            pautaComSessao = pauta.getId();
+        }
+        var semSessao = new Pauta("Sem sessão", "Descrição");
+        entityManager.persist(semSessao);
+        pautaSemSessao = semSessao.getId();
+        entityManager.getTransaction().commit();
+        entityManager.clear();
+        estatisticas.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManager.close();
+        entityManagerFactory.close();
+    }
+
+    @Test
+    @DisplayName("Deve listar as pautas com as sessões em um único comando")
+    void shouldListPautasWithSingleStatement() {
+        PaginaDTO<PautaDTO> primeira = pautaService.buscarPautas(null, 4);
+        assertUmUnicoSelect();
+
+        PaginaDTO<PautaDTO> segunda = pautaService.buscarPautas(primeira.getProximoCursor(), 4);
+        assertUmUnicoSelect();
+
+        assertEquals(4, primeira.getItens().size());
+        assertEquals(2, segunda.getItens().size());
+        assertEquals(5, primeira.getItens().stream().filter(p -> p.getSessao() != null).count()
+                + segunda.getItens().stream().filter(p -> p.getSessao() != null).count());
+    }
+
+    @Test
+    @DisplayName("Deve buscar o detalhe da pauta em um único comando")
+    void shouldFindPautaWithSingleStatement() {
+        PautaDTO comSessao = pautaService.buscarPauta(pautaComSessao).orElseThrow();
+        assertUmUnicoSelect();
+
+        PautaDTO semSessao = pautaService.buscarPauta(pautaSemSessao).orElseThrow();
+        assertUmUnicoSelect();
+
+        assertEquals(pautaComSessao, comSessao.getSessao().getPautaId());
+        assertNull(semSessao.getSessao());
+    }
+
+    @Test
+    @DisplayName("Deve listar as sessões em um único comando")
+    void shouldListSessoesWithSingleStatement() {
+        PaginaDTO<SessaoDTO> primeira = sessaoService.buscarSessoes(null, 3);
+        assertUmUnicoSelect();
+
+        PaginaDTO<SessaoDTO> segunda = sessaoService.buscarSessoes(primeira.getProximoCursor(), 3);
+        assertUmUnicoSelect();
+
+        assertEquals(3, primeira.getItens().size());
+        assertEquals(2, segunda.getItens().size());
+        assertEquals(pautaComSessao, primeira.getItens().getFirst().getPautaId());
+    }
+
+    private void assertUmUnicoSelect() {
+        assertEquals(1, estatisticas.getPrepareStatementCount(), "comandos SQL");
+        assertEquals(0, estatisticas.getEntityLoadCount(), "entidades carregadas");
+        estatisticas.clear();
+    }
+}
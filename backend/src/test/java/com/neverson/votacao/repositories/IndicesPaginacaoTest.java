@@ -0,0 +1,88 @@
+package com.neverson.votacao.repositories;
+
+import com.neverson.votacao.BancoSQLiteTeste;
+import com.neverson.votacao.utils.UUIDUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Confere no SQLite o que a paginação por cursor depende: a chave de ordenação das
+ * pautas mantida pelo gatilho e buscas por faixa nos índices, sem varrer nem ordenar.
+ */
+class IndicesPaginacaoTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp(@TempDir Path diretorio) {
+        jdbcTemplate = new JdbcTemplate(BancoSQLiteTeste.criar(diretorio));
+    }
+
+    @Test
+    @DisplayName("Deve levar a pauta para o topo da listagem ao abrir a sessão")
+    void shouldMovePautaToTopWhenSessaoIsOpened() {
+        UUID antiga = UUIDUtils.generate();
+        UUID recente = UUIDUtils.generate();
+        inserirPauta(antiga);
+        inserirPauta(recente);
+        assertEquals(List.of(recente, antiga), pautasOrdenadas());
+
+        UUID sessao = UUIDUtils.generate();
+        jdbcTemplate.update("INSERT INTO sessao (id, pauta_id, fechamento) VALUES (?, ?, ?)",
+                UUIDUtils.toBytes(sessao), UUIDUtils.toBytes(antiga), System.currentTimeMillis());
+
+        assertEquals(List.of(antiga, recente), pautasOrdenadas());
+        assertArrayEquals(UUIDUtils.toBytes(sessao), jdbcTemplate.queryForObject(
+                "SELECT ordenacao FROM pauta WHERE id = ?", byte[].class, (Object) UUIDUtils.toBytes(antiga)));
+    }
+
+    @Test
+    @DisplayName("Deve buscar a página de pautas pelo índice de ordenação")
+    void shouldSeekPautasByIndex() {
+        String plano = plano("""
+                SELECT * FROM pauta p LEFT JOIN sessao s ON s.pauta_id = p.id
+                WHERE p.ordenacao < ? ORDER BY p.ordenacao DESC LIMIT 11""", 1);
+
+        assertTrue(plano.contains("SEARCH p USING INDEX pauta_ordenacao (ordenacao<?)"), plano);
+        assertFalse(plano.contains("TEMP B-TREE"), plano);
+    }
+
+    @Test
+    @DisplayName("Deve buscar a página de sessões por faixa de fechamento, sem percorrer o índice desde o início")
+    void shouldSeekSessoesByIndex() {
+        String plano = plano("""
+                SELECT * FROM sessao s JOIN pauta p ON p.id = s.pauta_id
+                WHERE s.fechamento <= ? AND (s.fechamento < ? OR s.id < ?)
+                ORDER BY s.fechamento DESC, s.id DESC LIMIT 11""", 3);
+
+        assertTrue(plano.contains("SEARCH s USING INDEX sessao_fechamento (fechamento<?)"), plano);
+        assertFalse(plano.contains("TEMP B-TREE"), plano);
+    }
+
+    private void inserirPauta(UUID id) {
+        jdbcTemplate.update("INSERT INTO pauta (id, titulo, ordenacao) VALUES (?, 'Pauta', ?)",
+                UUIDUtils.toBytes(id), UUIDUtils.toBytes(id));
+    }
+
+    private List<UUID> pautasOrdenadas() {
+        return jdbcTemplate.query("SELECT id FROM pauta ORDER BY ordenacao DESC",
+                (linha, numero) -> UUIDUtils.fromBytes(linha.getBytes(1)));
+    }
+
+    private String plano(String sql, int parametros) {
+        Object[] valores = new Object[parametros];
+        Arrays.fill(valores, 1);
+        return String.join("\n", jdbcTemplate.query("EXPLAIN QUERY PLAN " + sql,
+                (linha, numero) -> linha.getString("detail"), valores));
+    }
+}
@@ -0,0 +1,84 @@
+package com.neverson.votacao.repositories;
+
+import com.neverson.votacao.utils.UUIDUtils;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Aplica a V2 sobre votos gravados no esquema antigo, com o CPF em texto como o
+ * Hibernate deixava, inclusive formatado.
+ */
+class MigracaoVotoCompactoTest {
+
+    private SQLiteDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    private final UUID pautaId = UUIDUtils.generate();
+
+    @BeforeEach
+    void setUp(@TempDir Path diretorio) {
+        dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + diretorio.resolve("votacao.db"));
+        Flyway.configure().dataSource(dataSource).target("1").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    @DisplayName("Deve converter o CPF formatado para o número completo")
+    void shouldStripFormattingBeforeCast() {
+        inserirVotoAntigo("123.456.789-09", 1, pautaId);
+        inserirVotoAntigo("52998224725", 0, pautaId);
+
+        migrar();
+
+        assertEquals(List.of(12345678909L, 52998224725L), jdbcTemplate.queryForList(
+                "SELECT associado_id FROM voto ORDER BY associado_id", Long.class));
+        assertEquals(0, contarQuarentena());
+    }
+
+    @Test
+    @DisplayName("Deve mandar para a quarentena o CPF inválido, o voto sem pauta e o voto repetido")
+    void shouldQuarantineRowsThatCannotBeConverted() {
+        inserirVotoAntigo("123.456.789-09", 1, pautaId);
+        inserirVotoAntigo("12345678909", 0, pautaId);
+        inserirVotoAntigo("529.982.247", 1, pautaId);
+        inserirVotoAntigo("52998224725", 1, null);
+
+        migrar();
+
+        List<Map<String, Object>> voto = jdbcTemplate.queryForList("SELECT associado_id, voto FROM voto");
+        assertEquals(1, voto.size());
+        assertEquals(12345678909L, ((Number) voto.getFirst().get("associado_id")).longValue());
+        assertEquals(1, ((Number) voto.getFirst().get("voto")).intValue());
+
+        assertEquals(List.of("cpf_invalido", "duplicado", "sem_pauta"), jdbcTemplate.queryForList(
+                "SELECT motivo FROM voto_quarentena ORDER BY motivo", String.class));
+        assertEquals("12345678909", jdbcTemplate.queryForObject(
+                "SELECT associado_id FROM voto_quarentena WHERE motivo = 'duplicado'", String.class));
+    }
+
+    private void migrar() {
+        Flyway.configure().dataSource(dataSource).load().migrate();
+    }
+
+    private void inserirVotoAntigo(String cpf, int voto, UUID pauta) {
+        jdbcTemplate.update("INSERT INTO voto (id, associado_id, voto, pauta_id) VALUES (?, ?, ?, ?)",
+                UUIDUtils.toBytes(UUIDUtils.generate()), cpf, voto, pauta == null ? null : UUIDUtils.toBytes(pauta));
+    }
+
+    private int contarQuarentena() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM voto_quarentena", Integer.class);
+    }
+}
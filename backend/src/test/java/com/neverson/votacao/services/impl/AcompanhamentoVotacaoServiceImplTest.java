@@ -0,0 +1,235 @@
+package com.neverson.votacao.services.impl;
+
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.config.exceptions.HttpException;
+import com.neverson.votacao.domain.dtos.AcompanhamentoVotacaoDTO;
+import com.neverson.votacao.domain.dtos.PautaDTO;
+import com.neverson.votacao.domain.dtos.SessaoDTO;
+import com.neverson.votacao.domain.enums.EVotoOpcao;
+import com.neverson.votacao.repositories.PautaRepository;
+import com.neverson.votacao.repositories.ResultadoVotacaoJdbcRepository;
+import com.neverson.votacao.repositories.VotoJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AcompanhamentoVotacaoServiceImplTest {
+
+    @Mock
+    private PautaRepository pautaRepository;
+
+    @Mock
+    private VotoJdbcRepository votoJdbcRepository;
+
+    @Mock
+    private ResultadoVotacaoJdbcRepository resultadoVotacaoJdbcRepository;
+
+    private ApuracaoVotos apuracaoVotos;
+    private VotacaoProperties properties;
+    private EmitterDeTeste emitter;
+    private AcompanhamentoVotacaoServiceImpl acompanhamentoService;
+
+    private final UUID pautaId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        properties = new VotacaoProperties();
+        apuracaoVotos = new ApuracaoVotos(votoJdbcRepository, resultadoVotacaoJdbcRepository, properties,
+                new SimpleMeterRegistry());
+        emitter = new EmitterDeTeste();
+        // sem iniciar(): os testes chamam publicar() no lugar do agendador
+        acompanhamentoService = new AcompanhamentoVotacaoServiceImpl(apuracaoVotos, pautaRepository, properties) {
+            @Override
+            protected SseEmitter criarEmitter() {
+                return emitter;
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        emitter.liberar.countDown();
+        acompanhamentoService.parar();
+    }
+
+    @Test
+    @DisplayName("Deve enviar o estado atual ao assinar e agrupar vários votos em um único evento")
+    void shouldSendCurrentStateAndCoalesceVotes() throws InterruptedException {
+        LocalDateTime fechamento = LocalDateTime.now().plusMinutes(5);
+        when(pautaRepository.buscarPauta(pautaId)).thenReturn(Optional.of(pauta(fechamento)));
+        emitter.liberar.countDown();
+
+        acompanhamentoService.assinar(List.of(pautaId));
+        AcompanhamentoVotacaoDTO inicial = emitter.proximo();
+        assertEquals(0, inicial.getTotalVotos());
+        assertTrue(inicial.isSessaoAberta());
+        assertEquals(fechamento, inicial.getFechamento());
+
+        for (int i = 0; i < 100; i++) {
+            apuracaoVotos.registrar(pautaId, i % 4 == 0 ? EVotoOpcao.NAO : EVotoOpcao.SIM);
+            acompanhamentoService.notificarVoto(pautaId);
+        }
+        acompanhamentoService.publicar();
+
+        AcompanhamentoVotacaoDTO atualizado = emitter.proximo();
+        assertEquals(100, atualizado.getTotalVotos());
+        assertEquals(75, atualizado.getVotosSim());
+        assertEquals(25, atualizado.getVotosNao());
+        assertNull(emitter.eventos.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Deve entregar apenas o estado mais recente a um cliente lento")
+    void shouldDeliverOnlyLatestStateToSlowClient() throws InterruptedException {
+        when(pautaRepository.buscarPauta(pautaId)).thenReturn(Optional.of(pauta(null)));
+
+        // o primeiro envio fica preso até liberar, simulando um cliente que não lê
+        acompanhamentoService.assinar(List.of(pautaId));
+        assertTrue(emitter.enviando.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            apuracaoVotos.registrar(pautaId, EVotoOpcao.SIM);
+            acompanhamentoService.notificarVoto(pautaId);
+            acompanhamentoService.publicar();
+        }
+        emitter.liberar.countDown();
+
+        assertEquals(0, emitter.proximo().getTotalVotos());
+        AcompanhamentoVotacaoDTO ultimo = emitter.proximo();
+        assertEquals(5, ultimo.getTotalVotos());
+        assertFalse(ultimo.isSessaoAberta());
+        assertNull(emitter.eventos.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Deve avisar quando a sessão encerrar mesmo sem novos votos")
+    void shouldNotifyWhenSessionCloses() throws InterruptedException {
+        when(pautaRepository.buscarPauta(pautaId))
+                .thenReturn(Optional.of(pauta(LocalDateTime.now().plusNanos(50_000_000))));
+        emitter.liberar.countDown();
+
+        acompanhamentoService.assinar(List.of(pautaId));
+        assertTrue(emitter.proximo().isSessaoAberta());
+
+        Thread.sleep(100);
+        acompanhamentoService.publicar();
+
+        assertFalse(emitter.proximo().isSessaoAberta());
+    }
+
+    @Test
+    @DisplayName("Deve recusar novas assinaturas acima do limite configurado")
+    void shouldRejectSubscriptionsAboveLimit() {
+        properties.getAcompanhamento().setMaximoAssinantes(1);
+        when(pautaRepository.buscarPauta(pautaId)).thenReturn(Optional.of(pauta(null)));
+
+        acompanhamentoService.assinar(List.of(pautaId));
+        HttpException exception = assertThrows(HttpException.class, () -> acompanhamentoService.assinar(List.of(pautaId)));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getHttpStatus());
+    }
+
+    @Test
+    @DisplayName("Deve aceitar exatamente o limite de assinaturas feitas ao mesmo tempo")
+    void shouldNotExceedLimitUnderConcurrentSubscriptions() throws Exception {
+        properties.getAcompanhamento().setMaximoAssinantes(10);
+        when(pautaRepository.buscarPauta(pautaId)).thenReturn(Optional.of(pauta(null)));
+        emitter.liberar.countDown();
+
+        var largada = new CountDownLatch(1);
+        List<Future<Boolean>> tentativas = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(50)) {
+            for (int i = 0; i < 50; i++) {
+                tentativas.add(executor.submit(() -> {
+                    largada.await();
+                    try {
+                        acompanhamentoService.assinar(List.of(pautaId));
+                        return true;
+                    } catch (HttpException e) {
+                        return false;
+                    }
+                }));
+            }
+            largada.countDown();
+            int aceitas = 0;
+            for (Future<Boolean> tentativa : tentativas) {
+                aceitas += tentativa.get() ? 1 : 0;
+            }
+            assertEquals(10, aceitas);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve recusar com 404 a assinatura de pauta inexistente sem registrar nada")
+    void shouldRejectUnknownPauta() {
+        properties.getAcompanhamento().setMaximoAssinantes(1);
+        UUID desconhecida = UUID.randomUUID();
+        when(pautaRepository.buscarPauta(pautaId)).thenReturn(Optional.of(pauta(null)));
+        when(pautaRepository.buscarPauta(desconhecida)).thenReturn(Optional.empty());
+
+        HttpException exception = assertThrows(HttpException.class,
+                () -> acompanhamentoService.assinar(List.of(pautaId, desconhecida)));
+
+        assertEquals(HttpStatus.NOT_FOUND, exception.getHttpStatus());
+        // a vaga do limite não foi consumida
+        assertNotNull(acompanhamentoService.assinar(List.of(pautaId)));
+    }
+
+    private PautaDTO pauta(LocalDateTime fechamento) {
+        var sessao = fechamento == null ? null
+                : new SessaoDTO(UUID.randomUUID(), pautaId, fechamento.minusMinutes(1), fechamento, false);
+        return new PautaDTO(pautaId, "Pauta de Teste", "Descrição da Pauta", sessao);
+    }
+
+    private static class EmitterDeTeste extends SseEmitter {
+        final BlockingQueue<AcompanhamentoVotacaoDTO> eventos = new LinkedBlockingQueue<>();
+        final CountDownLatch liberar = new CountDownLatch(1);
+        final CountDownLatch enviando = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            enviando.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            builder.build().stream()
+                    .map(DataWithMediaType::getData)
+                    .filter(AcompanhamentoVotacaoDTO.class::isInstance)
+                    .map(AcompanhamentoVotacaoDTO.class::cast)
+                    .forEach(eventos::add);
+        }
+
+        AcompanhamentoVotacaoDTO proximo() throws InterruptedException {
+            AcompanhamentoVotacaoDTO evento = eventos.poll(5, TimeUnit.SECONDS);
+            assertNotNull(evento, "nenhum evento recebido");
+            return evento;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.neverson.votacao.services.impl;
+
+import com.neverson.votacao.config.VotacaoProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissaoVotosTest {
+
+    private static final long RAPIDA = Duration.ofMillis(5).toNanos();
+    private static final long LENTA = Duration.ofMillis(500).toNanos();
+
+    private final AtomicLong relogio = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID sessaoId = UUID.randomUUID();
+    private VotacaoProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new VotacaoProperties();
+        var admissao = properties.getAdmissao();
+        admissao.setLimiteInicial(8);
+        admissao.setLimiteMinimo(2);
+        admissao.setLimiteMaximo(16);
+        admissao.setLatenciaAlvo(Duration.ofMillis(100));
+    }
+
+    @Test
+    @DisplayName("Deve recusar acima do limite global e voltar a admitir quando uma vaga for devolvida")
+    void shouldRejectAboveGlobalLimit() {
+        AdmissaoVotos admissao = nova();
+
+        for (int i = 0; i < 8; i++) {
+            assertTrue(admissao.admitir(UUID.randomUUID()));
+        }
+        assertFalse(admissao.admitir(sessaoId));
+        assertEquals(8, admissao.emAndamento());
+
+        admissao.liberar(sessaoId, 0);
+        assertTrue(admissao.admitir(sessaoId));
+
+        assertEquals(9, meterRegistry.get("votacao.admissao").tag("resultado", "admitido").counter().count());
+        assertEquals(1, meterRegistry.get("votacao.admissao").tag("limite", "global").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve limitar os votos em andamento de uma sessão sem tirar as vagas das outras")
+    void shouldLimitEachSession() {
+        properties.getAdmissao().setLimitePorSessao(3);
+        AdmissaoVotos admissao = nova();
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(admissao.admitir(sessaoId));
+        }
+        assertFalse(admissao.admitir(sessaoId));
+        assertTrue(admissao.admitir(UUID.randomUUID()));
+        assertEquals(4, admissao.emAndamento());
+
+        admissao.liberar(sessaoId, 0);
+        assertTrue(admissao.admitir(sessaoId));
+        assertEquals(1, meterRegistry.get("votacao.admissao").tag("limite", "sessao").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve cortar o limite pela metade uma vez por janela quando a gravação passar da latência alvo")
+    void shouldHalveLimitOncePerWindowOnSlowWrites() {
+        AdmissaoVotos admissao = nova();
+
+        ocupar(admissao, 4);
+        for (int i = 0; i < 4; i++) {
+            admissao.liberar(sessaoId, LENTA);
+        }
+        assertEquals(4, admissao.limite());
+
+        relogio.addAndGet(Duration.ofMillis(100).toNanos());
+        ocupar(admissao, 1);
+        admissao.liberar(sessaoId, LENTA);
+        assertEquals(2, admissao.limite());
+
+        relogio.addAndGet(Duration.ofMillis(100).toNanos());
+        ocupar(admissao, 1);
+        admissao.liberar(sessaoId, LENTA);
+        assertEquals(2, admissao.limite());
+    }
+
+    @Test
+    @DisplayName("Deve aumentar o limite aos poucos com gravações rápidas só quando ele estiver em uso")
+    void shouldGrowLimitOnlyWhenInUse() {
+        AdmissaoVotos admissao = nova();
+
+        for (int i = 0; i < 100; i++) {
+            ocupar(admissao, 1);
+            admissao.liberar(sessaoId, RAPIDA);
+        }
+        assertEquals(8, admissao.limite());
+
+        for (int i = 0; i < 100; i++) {
+            ocupar(admissao, 8);
+            for (int j = 0; j < 8; j++) {
+                admissao.liberar(sessaoId, RAPIDA);
+            }
+        }
+        assertEquals(16, admissao.limite());
+        assertEquals(0, admissao.emAndamento());
+    }
+
+    @Test
+    @DisplayName("Deve admitir tudo quando desabilitado")
+    void shouldAdmitEverythingWhenDisabled() {
+        properties.getAdmissao().setHabilitado(false);
+        AdmissaoVotos admissao = nova();
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(admissao.admitir(sessaoId));
+        }
+        assertEquals(0, admissao.emAndamento());
+    }
+
+    private AdmissaoVotos nova() {
+        return new AdmissaoVotos(properties, meterRegistry, relogio::get);
+    }
+
+    private void ocupar(AdmissaoVotos admissao, int vagas) {
+        for (int i = 0; i < vagas; i++) {
+            assertTrue(admissao.admitir(sessaoId));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.neverson.votacao.services.impl;
+
+import com.neverson.votacao.BancoSQLiteTeste;
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.config.database.FragmentosVoto;
+import com.neverson.votacao.config.exceptions.HttpException;
+import com.neverson.votacao.domain.dtos.ResultadoVotacaoDTO;
+import com.neverson.votacao.domain.entities.Pauta;
+import com.neverson.votacao.domain.entities.Voto;
+import com.neverson.votacao.domain.enums.EVotoOpcao;
+import com.neverson.votacao.repositories.ResultadoVotacaoJdbcRepository;
+import com.neverson.votacao.repositories.VotoJdbcRepository;
+import com.neverson.votacao.utils.UUIDUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApuracaoVotosTest {
+
+    // mesma agregação de VotoJdbcRepository.CONTAR_VOTOS_DA_PAUTA
+    private static final String RESULTADO_SQL = """
+        SELECT
+            COUNT(*) AS totalVotos,
+            COALESCE(SUM(CASE WHEN v.voto = 1 THEN 1 ELSE 0 END), 0) AS votosSim,
+            COALESCE(SUM(CASE WHEN v.voto = 0 THEN 1 ELSE 0 END), 0) AS votosNao
+        FROM voto v
+        WHERE v.pauta_id = ?
+    """;
+
+    private JdbcTemplate jdbcTemplate;
+    private VotoJdbcRepository votoJdbcRepository;
+    private ApuracaoVotos apuracaoVotos;
+
+    private final List<Pauta> pautas = List.of(
+            new Pauta(UUID.randomUUID(), "Pauta 1", "Descricao 1", null),
+            new Pauta(UUID.randomUUID(), "Pauta 2", "Descricao 2", null),
+            new Pauta(UUID.randomUUID(), "Pauta 3", "Descricao 3", null)
+    );
+
+    @BeforeEach
+    void setUp(@TempDir Path diretorio) {
+        jdbcTemplate = new JdbcTemplate(BancoSQLiteTeste.criar(diretorio));
+        votoJdbcRepository = new VotoJdbcRepository(jdbcTemplate, new FragmentosVoto(new VotacaoProperties()));
+        apuracaoVotos = new ApuracaoVotos(votoJdbcRepository, new ResultadoVotacaoJdbcRepository(jdbcTemplate),
+                new VotacaoProperties(), new SimpleMeterRegistry());
+        apuracaoVotos.reconstruir();
+    }
+
+    @Test
+    @DisplayName("Deve manter o placar igual à agregação SQL com votos concorrentes, inclusive duplicados")
+    void shouldMatchSqlAggregateUnderConcurrentVotes() {
+        var gravacao = new GravacaoVotoDiretaServiceImpl(votoJdbcRepository);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < 2_000; i++) {
+                executor.submit(() -> {
+                    var random = ThreadLocalRandom.current();
+                    var pauta = pautas.get(random.nextInt(pautas.size()));
+                    var opcao = random.nextBoolean() ? EVotoOpcao.SIM : EVotoOpcao.NAO;
+                    long cpf = 10_000_000_000L + random.nextInt(1_500);
+                    try {
+                        gravacao.gravar(new Voto(cpf, opcao, pauta));
+                        apuracaoVotos.registrar(pauta.getId(), opcao);
+                    } catch (HttpException conflito) {
+                        // associado já votou: não entra no placar
+                    }
+                });
+            }
+        }
+
+        pautas.forEach(pauta -> assertResultadoIgualAoBanco(apuracaoVotos, pauta.getId()));
+    }
+
+    @Test
+    @DisplayName("Deve reconstruir o placar a partir da tabela voto")
+    void shouldRebuildFromTable() {
+        var gravacao = new GravacaoVotoDiretaServiceImpl(votoJdbcRepository);
+        for (int i = 0; i < 300; i++) {
+            var pauta = pautas.get(i % pautas.size());
+            gravacao.gravar(new Voto(10_000_000_000L + i, i % 3 == 0 ? EVotoOpcao.NAO : EVotoOpcao.SIM, pauta));
+        }
+
+        var reconstruida = new ApuracaoVotos(votoJdbcRepository, new ResultadoVotacaoJdbcRepository(jdbcTemplate),
+                new VotacaoProperties(), new SimpleMeterRegistry());
+        reconstruida.reconstruir();
+
+        pautas.forEach(pauta -> assertResultadoIgualAoBanco(reconstruida, pauta.getId()));
+        assertEquals(0, reconstruida.resultado(UUID.randomUUID()).getTotalVotos());
+    }
+
+    @Test
+    @DisplayName("Deve reler de resultado_votacao o resultado final que não está em memória")
+    void shouldReadFinalResultEvictedFromCache() {
+        var pautaId = pautas.get(0).getId();
+        var resultadoFinal = new ResultadoVotacaoDTO(10, 7, 3);
+        new ResultadoVotacaoJdbcRepository(jdbcTemplate).inserir(pautaId, resultadoFinal, Instant.now());
+
+        assertEquals(resultadoFinal, apuracaoVotos.resultadoFinal(pautaId));
+        // voto tardio de pauta encerrada não recria o placar
+        apuracaoVotos.registrar(pautaId, EVotoOpcao.SIM);
+        assertEquals(resultadoFinal, apuracaoVotos.resultado(pautaId));
+        assertNull(apuracaoVotos.resultadoFinal(pautas.get(1).getId()));
+    }
+
+    private void assertResultadoIgualAoBanco(ApuracaoVotos apuracao, UUID pautaId) {
+        ResultadoVotacaoDTO esperado = jdbcTemplate.queryForObject(RESULTADO_SQL, (rs, i) -> new ResultadoVotacaoDTO(
+                rs.getInt("totalVotos"), rs.getInt("votosSim"), rs.getInt("votosNao")
+        ), (Object) UUIDUtils.toBytes(pautaId));
+
+        assertEquals(esperado, apuracao.resultado(pautaId));
+    }
+}
@@ -0,0 +1,109 @@
+package com.neverson.votacao.services.impl;
+
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.config.exceptions.HttpException;
+import com.neverson.votacao.domain.enums.EStatusEligibilidade;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Contra um servidor HTTP local que faz o papel do serviço externo.
+ */
+class ConsultaElegibilidadeHttpServiceImplTest {
+
+    private final Map<String, Resposta> respostas = new ConcurrentHashMap<>();
+
+    private HttpServer servidor;
+    private ConsultaElegibilidadeHttpServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        servidor.createContext("/users/", this::responder);
+        servidor.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        servidor.start();
+
+        var properties = new VotacaoProperties();
+        properties.getElegibilidade().setUrl("http://localhost:" + servidor.getAddress().getPort() + "/users");
+        properties.getElegibilidade().setTimeoutLeitura(Duration.ofMillis(200));
+        service = new ConsultaElegibilidadeHttpServiceImpl(RestClient.builder(), properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        servidor.stop(0);
+    }
+
+    @Test
+    @DisplayName("Deve consultar o CPF com 11 dígitos e devolver o status informado pelo serviço")
+    void shouldReturnStatusFromService() {
+        respostas.put("/users/01234567890", new Resposta(200, "{\"status\":\"UNABLE_TO_VOTE\"}", Duration.ZERO));
+        respostas.put("/users/52998224725", new Resposta(200, "{\"status\":\"ABLE_TO_VOTE\"}", Duration.ZERO));
+
+        assertEquals(EStatusEligibilidade.UNABLE_TO_VOTE, service.consultar(1234567890L));
+        assertEquals(EStatusEligibilidade.ABLE_TO_VOTE, service.consultar(52998224725L));
+    }
+
+    @Test
+    @DisplayName("Deve lançar 404 quando o serviço não conhecer o CPF")
+    void shouldThrowNotFoundForUnknownCpf() {
+        HttpException exception = assertThrows(HttpException.class, () -> service.consultar(52998224725L));
+
+        assertEquals(HttpStatus.NOT_FOUND, exception.getHttpStatus());
+    }
+
+    @Test
+    @DisplayName("Deve desistir da resposta lenta no timeout de leitura")
+    void shouldTimeoutSlowResponse() {
+        respostas.put("/users/52998224725", new Resposta(200, "{\"status\":\"ABLE_TO_VOTE\"}", Duration.ofSeconds(5)));
+
+        long inicio = System.nanoTime();
+        assertThrows(ResourceAccessException.class, () -> service.consultar(52998224725L));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - inicio).compareTo(Duration.ofSeconds(2)) < 0);
+    }
+
+    @Test
+    @DisplayName("Deve falhar quando o serviço responder com erro")
+    void shouldFailOnServerError() {
+        respostas.put("/users/52998224725", new Resposta(500, "{}", Duration.ZERO));
+
+        assertThrows(RuntimeException.class, () -> service.consultar(52998224725L));
+    }
+
+    private void responder(HttpExchange troca) throws IOException {
+        var resposta = respostas.getOrDefault(troca.getRequestURI().getPath(), new Resposta(404, "", Duration.ZERO));
+        try {
+            Thread.sleep(resposta.atraso());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] corpo = resposta.corpo().getBytes(StandardCharsets.UTF_8);
+        troca.getResponseHeaders().add("Content-Type", "application/json");
+        troca.sendResponseHeaders(resposta.status(), corpo.length == 0 ? -1 : corpo.length);
+        try (var saida = troca.getResponseBody()) {
+            saida.write(corpo);
+        }
+    }
+
+    private record Resposta(int status, String corpo, Duration atraso) {
+    }
+}
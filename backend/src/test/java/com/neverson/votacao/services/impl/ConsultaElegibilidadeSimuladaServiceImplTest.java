@@ -0,0 +1,41 @@
+package com.neverson.votacao.services.impl;
+
+import com.neverson.votacao.domain.enums.EStatusEligibilidade;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConsultaElegibilidadeSimuladaServiceImplTest {
+
+    private ConsultaElegibilidadeSimuladaServiceImpl service;
+
+    @Mock
+    private Random random;
+
+    @BeforeEach
+    void setUp() {
+        service = new ConsultaElegibilidadeSimuladaServiceImpl() {
+            protected Random createRandom() {
+                return random;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Deve sortear o resultado da elegibilidade")
+    void shouldDrawEligibility() {
+        when(random.nextBoolean()).thenReturn(true, false);
+
+        assertEquals(EStatusEligibilidade.ABLE_TO_VOTE, service.consultar(12345678909L));
+        assertEquals(EStatusEligibilidade.UNABLE_TO_VOTE, service.consultar(12345678909L));
+    }
+}
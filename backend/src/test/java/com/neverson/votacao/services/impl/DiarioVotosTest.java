@@ -0,0 +1,161 @@
+package com.neverson.votacao.services.impl;
+
+import com.neverson.votacao.BancoSQLiteTeste;
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.config.database.FragmentosVoto;
+import com.neverson.votacao.domain.entities.Voto;
+import com.neverson.votacao.domain.enums.EVotoOpcao;
+import com.neverson.votacao.repositories.VotoJdbcRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiarioVotosTest {
+
+    private Path arquivo;
+    private JdbcTemplate jdbcTemplate;
+    private VotoJdbcRepository votoJdbcRepository;
+    private TransactionTemplate transactionTemplate;
+    private VotacaoProperties properties;
+    private final List<DiarioVotos> diarios = new ArrayList<>();
+
+    private final UUID pautaId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp(@TempDir Path diretorio) {
+        DataSource dataSource = BancoSQLiteTeste.criar(diretorio);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        properties = new VotacaoProperties();
+        properties.getEscrita().setModo(VotacaoProperties.ModoEscrita.DIARIO);
+        arquivo = diretorio.resolve("votos.diario");
+        properties.getEscrita().getDiario().setArquivo(arquivo.toString());
+        votoJdbcRepository = new VotoJdbcRepository(jdbcTemplate, new FragmentosVoto(properties));
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (DiarioVotos diario : diarios) {
+            diario.parar();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve projetar na tabela voto os votos anexados ao diário")
+    void shouldProjectJournalIntoVotoTable() throws Exception {
+        DiarioVotos diario = novoDiario();
+        diario.iniciar();
+
+        anexarConcorrentes(diario, 500);
+        diario.aguardarProjecao();
+
+        assertEquals(500, contarVotos());
+        assertEquals(250, votoJdbcRepository.contarVotos(pautaId).getVotosSim());
+    }
+
+    @Test
+    @DisplayName("Deve recuperar depois de uma queda os votos confirmados que não chegaram à tabela")
+    void shouldReplayJournalAfterCrash() throws Exception {
+        // sem o projetor rodando, como se o processo caísse logo depois de confirmar os votos
+        DiarioVotos antesDaQueda = novoDiario();
+        antesDaQueda.recuperar();
+        anexarConcorrentes(antesDaQueda, 300);
+        assertEquals(0, contarVotos());
+
+        // registro cortado no meio, como um append interrompido pela queda
+        try (var escrita = new RandomAccessFile(arquivo.toFile(), "rw")) {
+            escrita.seek(16 + 300L * DiarioVotos.REGISTRO);
+            escrita.write(new byte[]{1, 0, 0, 0, 0, 0, 0, 0, 42, 42});
+        }
+
+        DiarioVotos depoisDaQueda = novoDiario();
+        depoisDaQueda.iniciar();
+
+        assertEquals(300, contarVotos());
+        depoisDaQueda.anexar(new Voto(pautaId, 99_999_999_999L, EVotoOpcao.NAO));
+        depoisDaQueda.aguardarProjecao();
+        assertEquals(301, contarVotos());
+    }
+
+    @Test
+    @DisplayName("Deve recuperar só o que está depois do checkpoint, sem duplicar votos")
+    void shouldReplayFromCheckpoint() throws Exception {
+        DiarioVotos diario = novoDiario();
+        diario.iniciar();
+        anexarConcorrentes(diario, 100);
+        diario.aguardarProjecao();
+        diario.parar();
+        diarios.remove(diario);
+
+        DiarioVotos reaberto = novoDiario();
+        reaberto.recuperar();
+        for (long associado = 1_000; associado < 1_050; associado++) {
+            reaberto.anexar(new Voto(pautaId, associado, EVotoOpcao.SIM));
+        }
+
+        DiarioVotos recuperado = novoDiario();
+        recuperado.iniciar();
+
+        assertEquals(150, contarVotos());
+    }
+
+    @Test
+    @DisplayName("Deve recomeçar o diário cheio depois que todos os votos forem projetados")
+    void shouldWrapAroundWhenFull() throws Exception {
+        properties.getEscrita().getDiario().setTamanho(DataSize.ofBytes(16 + 8L * DiarioVotos.REGISTRO));
+        DiarioVotos diario = novoDiario();
+        diario.iniciar();
+
+        anexarConcorrentes(diario, 100);
+        diario.aguardarProjecao();
+        assertEquals(100, contarVotos());
+
+        diario.parar();
+        diarios.remove(diario);
+        DiarioVotos recuperado = novoDiario();
+        recuperado.iniciar();
+        assertEquals(100, contarVotos());
+    }
+
+    private DiarioVotos novoDiario() {
+        DiarioVotos diario = new DiarioVotos(votoJdbcRepository, transactionTemplate, properties);
+        diarios.add(diario);
+        return diario;
+    }
+
+    private void anexarConcorrentes(DiarioVotos diario, int quantidade) throws Exception {
+        List<Future<?>> anexos = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < quantidade; i++) {
+                var voto = new Voto(pautaId, 10_000_000_000L + i, i % 2 == 0 ? EVotoOpcao.SIM : EVotoOpcao.NAO);
+                anexos.add(executor.submit(() -> diario.anexar(voto)));
+            }
+            for (Future<?> anexo : anexos) {
+                anexo.get();
+            }
+        }
+    }
+
+    private int contarVotos() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM voto", Integer.class);
+    }
+}
@@ -0,0 +1,61 @@
+package com.neverson.votacao.services.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DisjuntorTest {
+
+    private final AtomicLong relogio = new AtomicLong();
+    private final Disjuntor disjuntor = new Disjuntor(2, Duration.ofSeconds(30), relogio::get);
+
+    @Test
+    @DisplayName("Deve abrir após as falhas seguidas configuradas e zerar a contagem com um sucesso")
+    void shouldOpenAfterConsecutiveFailures() {
+        disjuntor.falha();
+        disjuntor.sucesso();
+        disjuntor.falha();
+        assertTrue(disjuntor.permitir());
+
+        disjuntor.falha();
+
+        assertTrue(disjuntor.isAberto());
+        assertFalse(disjuntor.permitir());
+    }
+
+    @Test
+    @DisplayName("Deve liberar uma única chamada de teste depois da espera e fechar se ela der certo")
+    void shouldAllowSingleTrialAfterWait() {
+        disjuntor.falha();
+        disjuntor.falha();
+
+        relogio.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        assertTrue(disjuntor.permitir());
+        assertFalse(disjuntor.permitir());
+        disjuntor.sucesso();
+        assertFalse(disjuntor.isAberto());
+        assertTrue(disjuntor.permitir());
+    }
+
+    @Test
+    @DisplayName("Deve reabrir e recomeçar a espera se a chamada de teste falhar")
+    void shouldReopenWhenTrialFails() {
+        disjuntor.falha();
+        disjuntor.falha();
+        relogio.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertTrue(disjuntor.permitir());
+
+        disjuntor.falha();
+
+        assertFalse(disjuntor.permitir());
+        relogio.addAndGet(Duration.ofSeconds(29).toNanos());
+        assertFalse(disjuntor.permitir());
+        relogio.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertTrue(disjuntor.permitir());
+    }
+}
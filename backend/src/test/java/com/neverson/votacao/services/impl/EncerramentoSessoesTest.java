@@ -0,0 +1,192 @@
+package com.neverson.votacao.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neverson.votacao.BancoSQLiteTeste;
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.config.database.FragmentosVoto;
+import com.neverson.votacao.domain.dtos.ResultadoVotacaoDTO;
+import com.neverson.votacao.domain.dtos.SessaoResumoDTO;
+import com.neverson.votacao.domain.entities.Voto;
+import com.neverson.votacao.domain.enums.EVotoOpcao;
+import com.neverson.votacao.repositories.ResultadoVotacaoJdbcRepository;
+import com.neverson.votacao.repositories.SessaoRepository;
+import com.neverson.votacao.repositories.VotoJdbcRepository;
+import com.neverson.votacao.services.AcompanhamentoVotacaoService;
+import com.neverson.votacao.services.SessaoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EncerramentoSessoesTest {
+
+    @Mock
+    private SessaoRepository sessaoRepository;
+
+    @Mock
+    private SessaoService sessaoService;
+
+    @Mock
+    private VotantesIndex votantesIndex;
+
+    @Mock
+    private AcompanhamentoVotacaoService acompanhamentoVotacaoService;
+
+    private VotoJdbcRepository votoJdbcRepository;
+    private ResultadoVotacaoJdbcRepository resultadoVotacaoJdbcRepository;
+    private ApuracaoVotos apuracaoVotos;
+    private VotacaoProperties properties;
+    private EncerramentoSessoes encerramentoSessoes;
+    private TransactionTemplate transactionTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private final GravacoesEmAndamento gravacoesEmAndamento = new GravacoesEmAndamento();
+
+    private final UUID pautaId = UUID.randomUUID();
+    private final UUID sessaoId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp(@TempDir Path diretorio) {
+        DataSource dataSource = BancoSQLiteTeste.criar(diretorio);
+        var jdbcTemplate = new JdbcTemplate(dataSource);
+        votoJdbcRepository = new VotoJdbcRepository(jdbcTemplate, new FragmentosVoto(new VotacaoProperties()));
+        resultadoVotacaoJdbcRepository = new ResultadoVotacaoJdbcRepository(jdbcTemplate);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new VotacaoProperties();
+        apuracaoVotos = new ApuracaoVotos(votoJdbcRepository, resultadoVotacaoJdbcRepository, properties, meterRegistry);
+        properties.getSessoes().getEncerramento().setMargem(Duration.ZERO);
+        var diarioVotos = new DiarioVotos(votoJdbcRepository, transactionTemplate, properties);
+        encerramentoSessoes = new EncerramentoSessoes(sessaoRepository, votoJdbcRepository,
+                resultadoVotacaoJdbcRepository, apuracaoVotos, votantesIndex, diarioVotos, gravacoesEmAndamento, transactionTemplate,
+                properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        encerramentoSessoes.parar();
+    }
+
+    @Test
+    @DisplayName("Deve apurar, gravar e fixar o resultado final quando a sessão fechar")
+    void shouldFinalizeSessionAtFechamento() throws InterruptedException {
+        votar(52998224725L, EVotoOpcao.SIM);
+        votar(12345678909L, EVotoOpcao.SIM);
+        votar(11144477735L, EVotoOpcao.NAO);
+        when(sessaoRepository.buscarNaoEncerradas()).thenReturn(List.of());
+        encerramentoSessoes.iniciar();
+
+        encerramentoSessoes.agendar(new SessaoResumoDTO(sessaoId, pautaId, LocalDateTime.now().plusNanos(200_000_000)));
+
+        assertNull(resultadoVotacaoJdbcRepository.buscar(pautaId));
+        assertEquals(1, meterRegistry.get("votacao.sessoes.agendadas").gauge().value());
+        verify(sessaoRepository, timeout(5_000)).marcarEncerrada(sessaoId);
+        assertEquals(0, meterRegistry.get("votacao.sessoes.agendadas").gauge().value());
+        assertEquals(new ResultadoVotacaoDTO(3, 2, 1), resultadoVotacaoJdbcRepository.buscar(pautaId));
+        // liberado depois do commit que marca a sessão como encerrada
+        verify(votantesIndex, timeout(5_000)).liberar(pautaId);
+
+        // voto gravado depois do encerramento não altera o resultado fixado
+        votar(39053344705L, EVotoOpcao.NAO);
+        apuracaoVotos.registrar(pautaId, EVotoOpcao.NAO);
+        assertEquals(new ResultadoVotacaoDTO(3, 2, 1), apuracaoVotos.resultado(pautaId));
+    }
+
+    @Test
+    @DisplayName("Deve encerrar na inicialização as sessões que fecharam com a aplicação parada")
+    void shouldFinalizeOverdueSessionsOnStartup() {
+        votar(52998224725L, EVotoOpcao.NAO);
+        when(sessaoRepository.buscarNaoEncerradas())
+                .thenReturn(List.of(new SessaoResumoDTO(sessaoId, pautaId, LocalDateTime.now().minusHours(1))));
+
+        encerramentoSessoes.iniciar();
+
+        verify(sessaoRepository, timeout(5_000)).marcarEncerrada(sessaoId);
+        assertEquals(new ResultadoVotacaoDTO(1, 0, 1), resultadoVotacaoJdbcRepository.buscar(pautaId));
+    }
+
+    @Test
+    @DisplayName("Deve carregar na inicialização os resultados já gravados")
+    void shouldLoadFinalResultsOnStartup() {
+        resultadoVotacaoJdbcRepository.inserir(pautaId, new ResultadoVotacaoDTO(10, 7, 3), Instant.now());
+        when(sessaoRepository.buscarNaoEncerradas()).thenReturn(List.of());
+
+        encerramentoSessoes.iniciar();
+
+        assertEquals(new ResultadoVotacaoDTO(10, 7, 3), apuracaoVotos.resultado(pautaId));
+    }
+
+    @Test
+    @DisplayName("Deve manter o primeiro resultado quando a mesma sessão for encerrada de novo")
+    void shouldKeepFirstResultWhenFinalizedTwice() {
+        var sessao = new SessaoResumoDTO(sessaoId, pautaId, LocalDateTime.now());
+        votar(52998224725L, EVotoOpcao.SIM);
+        encerramentoSessoes.encerrar(sessao);
+
+        votar(12345678909L, EVotoOpcao.NAO);
+        ResultadoVotacaoDTO resultado = encerramentoSessoes.encerrar(sessao);
+
+        assertEquals(new ResultadoVotacaoDTO(1, 1, 0), resultado);
+        assertEquals(new ResultadoVotacaoDTO(1, 1, 0), resultadoVotacaoJdbcRepository.buscar(pautaId));
+        verify(sessaoRepository, times(2)).marcarEncerrada(sessaoId);
+    }
+
+    @Test
+    @DisplayName("Deve esperar o voto aceito antes do fechamento que o lote só grava depois dele")
+    void shouldWaitForBatchedVoteCommittedAfterFechamento() throws Exception {
+        // o lote junta votos por 600ms, então o voto só é gravado depois do fechamento
+        properties.getEscrita().setIntervalo(Duration.ofMillis(600));
+        var gravacaoEmLote = new GravacaoVotoEmLoteServiceImpl(votoJdbcRepository, transactionTemplate, properties);
+        gravacaoEmLote.iniciar();
+        var votacaoService = new VotacaoServiceImpl(sessaoService, new VotantesIndex(votoJdbcRepository),
+                gravacaoEmLote, apuracaoVotos, acompanhamentoVotacaoService,
+                new AdmissaoVotos(properties, meterRegistry), gravacoesEmAndamento, new ObjectMapper(), properties,
+                meterRegistry);
+
+        var sessao = new SessaoResumoDTO(sessaoId, pautaId, LocalDateTime.now().plusNanos(300_000_000));
+        when(sessaoService.buscarResumo(sessaoId)).thenReturn(Optional.of(sessao));
+        when(sessaoRepository.buscarNaoEncerradas()).thenReturn(List.of());
+        encerramentoSessoes.iniciar();
+        encerramentoSessoes.agendar(sessao);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<Voto> voto = executor.submit(() -> votacaoService.votar(sessaoId, "52998224725", EVotoOpcao.SIM));
+
+            verify(sessaoRepository, timeout(5_000)).marcarEncerrada(sessaoId);
+            assertEquals(52998224725L, voto.get(5, TimeUnit.SECONDS).getAssociadoId());
+        } finally {
+            gravacaoEmLote.parar();
+        }
+
+        assertEquals(new ResultadoVotacaoDTO(1, 1, 0), resultadoVotacaoJdbcRepository.buscar(pautaId));
+        assertEquals(new ResultadoVotacaoDTO(1, 1, 0), apuracaoVotos.resultado(pautaId));
+    }
+
+    private void votar(long associadoId, EVotoOpcao voto) {
+        votoJdbcRepository.inserir(new Voto(pautaId, associadoId, voto));
+    }
+}
@@ -0,0 +1,117 @@
+package com.neverson.votacao.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neverson.votacao.BancoSQLiteTeste;
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.config.database.FragmentosVoto;
+import com.neverson.votacao.config.exceptions.HttpException;
+import com.neverson.votacao.domain.entities.Pauta;
+import com.neverson.votacao.domain.entities.Voto;
+import com.neverson.votacao.domain.enums.EFormatoArquivo;
+import com.neverson.votacao.domain.enums.EVotoOpcao;
+import com.neverson.votacao.repositories.VotoJdbcRepository;
+import com.neverson.votacao.services.PautaService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExportacaoVotosServiceImplTest {
+
+    @Mock
+    private PautaService pautaService;
+
+    private VotoJdbcRepository votoJdbcRepository;
+    private ExportacaoVotosServiceImpl exportacaoService;
+
+    private final Pauta pauta = new Pauta(UUID.randomUUID(), "Pauta de Teste", "Descrição da Pauta", null);
+
+    @BeforeEach
+    void setUp(@TempDir Path diretorio) {
+        DataSource dataSource = BancoSQLiteTeste.criar(diretorio);
+        votoJdbcRepository = new VotoJdbcRepository(new JdbcTemplate(dataSource),
+                new FragmentosVoto(new VotacaoProperties()));
+        var properties = new VotacaoProperties();
+        properties.getExportacao().setTamanhoBusca(100);
+        exportacaoService = new ExportacaoVotosServiceImpl(pautaService, votoJdbcRepository,
+                new DataSourceTransactionManager(dataSource), properties);
+    }
+
+    @Test
+    @DisplayName("Deve exportar em CSV apenas os votos da pauta, ordenados e com o CPF completo")
+    void shouldExportCsv() throws IOException {
+        when(pautaService.findById(pauta.getId())).thenReturn(Optional.of(pauta));
+        votoJdbcRepository.inserirEmLote(List.of(
+                new Voto(pauta.getId(), 52998224725L, EVotoOpcao.SIM),
+                new Voto(pauta.getId(), 1234567890L, EVotoOpcao.NAO),
+                new Voto(UUID.randomUUID(), 12345678909L, EVotoOpcao.SIM)
+        ));
+
+        String csv = new String(exportar(EFormatoArquivo.CSV, false), StandardCharsets.UTF_8);
+
+        assertEquals("cpf,voto\n01234567890,NAO\n52998224725,SIM\n", csv);
+    }
+
+    @Test
+    @DisplayName("Deve exportar em NDJSON comprimido todos os votos de uma pauta grande")
+    void shouldExportGzippedNdjson() throws IOException {
+        when(pautaService.findById(pauta.getId())).thenReturn(Optional.of(pauta));
+        List<Voto> votos = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            votos.add(new Voto(pauta.getId(), 10_000_000_000L + i, i % 2 == 0 ? EVotoOpcao.SIM : EVotoOpcao.NAO));
+        }
+        votoJdbcRepository.inserirEmLote(votos);
+
+        byte[] comprimido = exportar(EFormatoArquivo.NDJSON, true);
+        String[] linhas;
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(comprimido))) {
+            linhas = new String(gzip.readAllBytes(), StandardCharsets.UTF_8).split("\n");
+        }
+
+        assertEquals(5_000, linhas.length);
+        var objectMapper = new ObjectMapper();
+        assertEquals(Map.of("cpf", "10000000000", "voto", "SIM"), objectMapper.readValue(linhas[0], Map.class));
+        assertEquals(Map.of("cpf", "10000004999", "voto", "NAO"), objectMapper.readValue(linhas[4_999], Map.class));
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção quando a pauta não existir")
+    void shouldThrowWhenPautaNotFound() {
+        UUID pautaId = UUID.randomUUID();
+        when(pautaService.findById(pautaId)).thenReturn(Optional.empty());
+
+        HttpException exception = assertThrows(HttpException.class,
+                () -> exportacaoService.exportar(pautaId, EFormatoArquivo.CSV, false));
+
+        assertEquals(HttpStatus.NOT_FOUND, exception.getHttpStatus());
+    }
+
+    private byte[] exportar(EFormatoArquivo formato, boolean gzip) throws IOException {
+        var saida = new ByteArrayOutputStream();
+        exportacaoService.exportar(pauta.getId(), formato, gzip).writeTo(saida);
+        return saida.toByteArray();
+    }
+}
@@ -0,0 +1,93 @@
+package com.neverson.votacao.services.impl;
+
+import com.neverson.votacao.BancoSQLiteTeste;
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.config.database.FragmentosVoto;
+import com.neverson.votacao.config.exceptions.HttpException;
+import com.neverson.votacao.domain.entities.Pauta;
+import com.neverson.votacao.domain.entities.Voto;
+import com.neverson.votacao.domain.enums.EVotoOpcao;
+import com.neverson.votacao.repositories.VotoJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GravacaoVotoDiretaServiceImplTest {
+
+    private GravacaoVotoDiretaServiceImpl gravacaoVotoService;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private final Pauta pauta = new Pauta(UUID.randomUUID(), "Pauta de Teste", "Descrição da Pauta", null);
+
+    @BeforeEach
+    void setUp(@TempDir Path diretorio) {
+        jdbcTemplate = new JdbcTemplate(BancoSQLiteTeste.criar(diretorio));
+        gravacaoVotoService = new GravacaoVotoDiretaServiceImpl(
+                new VotoJdbcRepository(jdbcTemplate, new FragmentosVoto(new VotacaoProperties())));
+    }
+
+    @Test
+    @DisplayName("Deve gravar o voto com um único insert")
+    void shouldInsertVote() {
+        Voto voto = gravacaoVotoService.gravar(new Voto(12345678901L, EVotoOpcao.SIM, pauta));
+
+        assertEquals(12345678901L, voto.getAssociadoId());
+        assertEquals(1, contarVotos());
+    }
+
+    @Test
+    @DisplayName("Deve aceitar exatamente um voto quando o mesmo CPF vota de várias threads ao mesmo tempo")
+    void shouldAcceptExactlyOneConcurrentVote() throws InterruptedException {
+        int tentativas = 32;
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Voto>> resultados = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(tentativas)) {
+            for (int i = 0; i < tentativas; i++) {
+                EVotoOpcao opcao = i % 2 == 0 ? EVotoOpcao.SIM : EVotoOpcao.NAO;
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    return gravacaoVotoService.gravar(new Voto(12345678901L, opcao, pauta));
+                }));
+            }
+            largada.countDown();
+        }
+
+        int aceitos = 0;
+        int conflitos = 0;
+        for (Future<Voto> resultado : resultados) {
+            try {
+                resultado.get();
+                aceitos++;
+            } catch (ExecutionException e) {
+                HttpException exception = assertInstanceOf(HttpException.class, e.getCause());
+                assertEquals(HttpStatus.CONFLICT, exception.getHttpStatus());
+                conflitos++;
+            }
+        }
+
+        assertEquals(1, aceitos);
+        assertEquals(tentativas - 1, conflitos);
+        assertEquals(1, contarVotos());
+    }
+
+    private int contarVotos() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM voto", Integer.class);
+    }
+}
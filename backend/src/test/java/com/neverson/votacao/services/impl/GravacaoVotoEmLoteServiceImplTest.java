@@ -0,0 +1,186 @@
+package com.neverson.votacao.services.impl;
+
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.config.exceptions.HttpException;
+import com.neverson.votacao.domain.entities.Pauta;
+import com.neverson.votacao.domain.entities.Voto;
+import com.neverson.votacao.domain.enums.EVotoOpcao;
+import com.neverson.votacao.repositories.VotoJdbcRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GravacaoVotoEmLoteServiceImplTest {
+
+    private GravacaoVotoEmLoteServiceImpl gravacaoVotoService;
+
+    @Mock
+    private VotoJdbcRepository votoJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final Pauta pauta = new Pauta(UUID.randomUUID(), "Pauta de Teste", "Descrição da Pauta", null);
+
+    @BeforeEach
+    void setUp() {
+        VotacaoProperties properties = new VotacaoProperties();
+        properties.getEscrita().setTamanhoLote(64);
+        properties.getEscrita().setIntervalo(Duration.ofMillis(50));
+        // sem fragmentos o lote inteiro vai para o banco principal
+        lenient().when(votoJdbcRepository.agruparPorBanco(anyList(), any()))
+                .thenAnswer(invocation -> List.of(invocation.<List<?>>getArgument(0)));
+
+        gravacaoVotoService = new GravacaoVotoEmLoteServiceImpl(votoJdbcRepository,
+                new TransactionTemplate(transactionManager), properties);
+        gravacaoVotoService.iniciar();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        gravacaoVotoService.parar();
+    }
+
+    @Test
+    @DisplayName("Deve agrupar votos concorrentes em lotes e liberar cada chamador após o commit")
+    void shouldGroupConcurrentVotesInBatches() throws Exception {
+        List<List<Voto>> lotes = new ArrayList<>();
+        when(votoJdbcRepository.inserirEmLote(anyList())).thenAnswer(invocation -> {
+            List<Voto> lote = invocation.getArgument(0);
+            synchronized (lotes) {
+                lotes.add(List.copyOf(lote));
+            }
+            int[] inseridos = new int[lote.size()];
+            Arrays.fill(inseridos, 1);
+            return inseridos;
+        });
+
+        int totalVotos = 200;
+        List<Future<Voto>> gravados = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(32)) {
+            for (int i = 0; i < totalVotos; i++) {
+                long cpf = 10_000_000_000L + i;
+                gravados.add(executor.submit(() -> gravacaoVotoService.gravar(new Voto(cpf, EVotoOpcao.SIM, pauta))));
+            }
+            for (Future<Voto> gravado : gravados) {
+                assertEquals(pauta.getId(), gravado.get().getPautaId());
+            }
+        }
+
+        assertEquals(totalVotos, lotes.stream().mapToInt(List::size).sum());
+        assertTrue(lotes.size() < totalVotos, "votos não foram agrupados: " + lotes.size() + " lotes");
+        assertTrue(lotes.stream().allMatch(lote -> lote.size() <= 64));
+        verify(transactionManager, times(lotes.size())).commit(any());
+    }
+
+    @Test
+    @DisplayName("Deve devolver conflito apenas para o voto que o banco recusou dentro do lote")
+    void shouldReturnConflictForRejectedRowOnly() throws Exception {
+        when(votoJdbcRepository.inserirEmLote(anyList())).thenAnswer(invocation -> {
+            List<Voto> lote = invocation.getArgument(0);
+            int[] inseridos = new int[lote.size()];
+            for (int i = 0; i < lote.size(); i++) {
+                inseridos[i] = lote.get(i).getVoto() == EVotoOpcao.SIM ? 1 : 0;
+            }
+            return inseridos;
+        });
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<Voto> aceito = executor.submit(() -> gravacaoVotoService.gravar(new Voto(12345678901L, EVotoOpcao.SIM, pauta)));
+            Future<Voto> recusado = executor.submit(() -> gravacaoVotoService.gravar(new Voto(12345678901L, EVotoOpcao.NAO, pauta)));
+
+            assertEquals(EVotoOpcao.SIM, aceito.get().getVoto());
+            ExecutionException exception = assertThrows(ExecutionException.class, recusado::get);
+            HttpException conflito = assertInstanceOf(HttpException.class, exception.getCause());
+            assertEquals(HttpStatus.CONFLICT, conflito.getHttpStatus());
+        }
+    }
+
+    @Test
+    @DisplayName("No tempo esgotado, deve recusar o voto ainda na fila e esperar o que já está num lote")
+    void shouldOnlyGiveUpOnVotesStillQueued() throws Exception {
+        VotacaoProperties properties = new VotacaoProperties();
+        properties.getEscrita().setTamanhoLote(1);
+        properties.getEscrita().setTimeout(Duration.ofMillis(200));
+        var lenta = new GravacaoVotoEmLoteServiceImpl(votoJdbcRepository,
+                new TransactionTemplate(transactionManager), properties);
+        lenta.iniciar();
+
+        var gravando = new CountDownLatch(1);
+        var liberar = new CountDownLatch(1);
+        when(votoJdbcRepository.inserirEmLote(anyList())).thenAnswer(invocation -> {
+            gravando.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return new int[]{1};
+        });
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<Voto> noLote = executor.submit(() -> lenta.gravar(new Voto(12345678901L, EVotoOpcao.SIM, pauta)));
+            assertTrue(gravando.await(5, TimeUnit.SECONDS));
+
+            HttpException exception = assertThrows(HttpException.class,
+                    () -> lenta.gravar(new Voto(52998224725L, EVotoOpcao.NAO, pauta)));
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getHttpStatus());
+
+            // o primeiro já passou do prazo, mas o lote dele está sendo gravado
+            liberar.countDown();
+            assertEquals(12345678901L, noLote.get(5, TimeUnit.SECONDS).getAssociadoId());
+        } finally {
+            lenta.parar();
+        }
+        verify(votoJdbcRepository, times(1)).inserirEmLote(anyList());
+    }
+
+    @Test
+    @DisplayName("Deve propagar a falha do lote para quem aguarda a gravação")
+    void shouldPropagateBatchFailure() {
+        when(votoJdbcRepository.inserirEmLote(anyList())).thenThrow(new IllegalStateException("database is locked"));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> gravacaoVotoService.gravar(new Voto(12345678901L, EVotoOpcao.NAO, pauta))
+        );
+
+        assertEquals("database is locked", exception.getMessage());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    @DisplayName("Deve continuar gravando depois de uma falha fora da transação do lote")
+    void shouldKeepWriterAliveAfterUnexpectedFailure() {
+        when(votoJdbcRepository.agruparPorBanco(anyList(), any()))
+                .thenThrow(new IllegalStateException("fragmento fechado"))
+                .thenAnswer(invocation -> List.of(invocation.<List<?>>getArgument(0)));
+        when(votoJdbcRepository.inserirEmLote(anyList())).thenReturn(new int[]{1});
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> gravacaoVotoService.gravar(new Voto(12345678901L, EVotoOpcao.NAO, pauta)));
+        assertEquals("fragmento fechado", exception.getMessage());
+
+        assertEquals(52998224725L, gravacaoVotoService.gravar(new Voto(52998224725L, EVotoOpcao.SIM, pauta)).getAssociadoId());
+    }
+}
@@ -0,0 +1,144 @@
+package com.neverson.votacao.services.impl;
+
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.config.exceptions.HttpException;
+import com.neverson.votacao.controllers.dtos.VotarRequestDTO;
+import com.neverson.votacao.domain.enums.EVotoOpcao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotenciaServiceImplTest {
+
+    private IdempotenciaServiceImpl idempotenciaService;
+
+    private final VotarRequestDTO voto = new VotarRequestDTO(UUID.randomUUID(), "52998224725", EVotoOpcao.SIM);
+
+    @BeforeEach
+    void setUp() {
+        idempotenciaService = new IdempotenciaServiceImpl(new VotacaoProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Deve executar uma única vez as tentativas concorrentes com a mesma chave")
+    void shouldRunOnceForConcurrentRetries() throws Exception {
+        var execucoes = new AtomicInteger();
+        var liberar = new CountDownLatch(1);
+        Runnable operacao = () -> {
+            execucoes.incrementAndGet();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        List<Future<Boolean>> tentativas = new ArrayList<>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 32; i++) {
+                var copia = new VotarRequestDTO(voto.getSessaoId(), voto.getCpf(), voto.getVoto());
+                tentativas.add(executor.submit(() -> idempotenciaService.executar("chave", copia, operacao)));
+            }
+            Thread.sleep(100);
+            liberar.countDown();
+
+            int repetidas = 0;
+            for (var tentativa : tentativas) {
+                if (tentativa.get(5, TimeUnit.SECONDS)) {
+                    repetidas++;
+                }
+            }
+            assertEquals(31, repetidas);
+        }
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    @DisplayName("Deve repetir o erro definitivo da primeira tentativa sem executar de novo")
+    void shouldReplayDefinitiveError() {
+        var execucoes = new AtomicInteger();
+        Runnable operacao = () -> {
+            execucoes.incrementAndGet();
+            throw HttpException.conflict("Associado já votou nesta pauta");
+        };
+
+        assertThrows(HttpException.class, () -> idempotenciaService.executar("chave", voto, operacao));
+        HttpException repetido = assertThrows(HttpException.class,
+                () -> idempotenciaService.executar("chave", voto, operacao));
+
+        assertEquals(HttpStatus.CONFLICT, repetido.getHttpStatus());
+        assertEquals("Associado já votou nesta pauta", repetido.getMessage());
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    @DisplayName("Deve liberar a chave quando a primeira tentativa falhar com erro do servidor")
+    void shouldReleaseKeyOnServerError() {
+        var execucoes = new AtomicInteger();
+        Runnable operacao = () -> {
+            if (execucoes.incrementAndGet() == 1) {
+                throw HttpException.serviceUnavailable("Fila de gravação cheia");
+            }
+        };
+
+        assertThrows(HttpException.class, () -> idempotenciaService.executar("chave", voto, operacao));
+
+        assertFalse(idempotenciaService.executar("chave", voto, operacao));
+        assertTrue(idempotenciaService.executar("chave", voto, operacao));
+        assertEquals(2, execucoes.get());
+    }
+
+    @Test
+    @DisplayName("Deve liberar a chave quando a primeira tentativa for recusada por excesso de votos")
+    void shouldReleaseKeyOnTooManyRequests() {
+        var execucoes = new AtomicInteger();
+        Runnable operacao = () -> {
+            if (execucoes.incrementAndGet() == 1) {
+                throw HttpException.tooManyRequests("Muitos votos simultâneos", Duration.ofSeconds(1));
+            }
+        };
+
+        HttpException recusa = assertThrows(HttpException.class,
+                () -> idempotenciaService.executar("chave", voto, operacao));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, recusa.getHttpStatus());
+
+        assertFalse(idempotenciaService.executar("chave", voto, operacao));
+        assertEquals(2, execucoes.get());
+    }
+
+    @Test
+    @DisplayName("Deve recusar a mesma chave com outro voto")
+    void shouldRejectKeyReuseWithDifferentRequest() {
+        idempotenciaService.executar("chave", voto, () -> {
+        });
+
+        var outroVoto = new VotarRequestDTO(voto.getSessaoId(), voto.getCpf(), EVotoOpcao.NAO);
+        HttpException exception = assertThrows(HttpException.class,
+                () -> idempotenciaService.executar("chave", outroVoto, () -> fail("não deveria executar")));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, exception.getHttpStatus());
+    }
+
+    @Test
+    @DisplayName("Deve recusar chave vazia ou longa demais")
+    void shouldRejectInvalidKey() {
+        Runnable operacao = () -> fail("não deveria executar");
+
+        assertThrows(HttpException.class, () -> idempotenciaService.executar(" ", voto, operacao));
+        assertThrows(HttpException.class, () -> idempotenciaService.executar("x".repeat(256), voto, operacao));
+    }
+}
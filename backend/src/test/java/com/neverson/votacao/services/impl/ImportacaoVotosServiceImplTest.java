@@ -0,0 +1,284 @@
+package com.neverson.votacao.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neverson.votacao.BancoSQLiteTeste;
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.config.database.FragmentosVoto;
+import com.neverson.votacao.domain.dtos.RejeicaoImportacaoDTO;
+import com.neverson.votacao.domain.dtos.ResultadoImportacaoDTO;
+import com.neverson.votacao.domain.dtos.ResultadoVotacaoDTO;
+import com.neverson.votacao.domain.dtos.SessaoResumoDTO;
+import com.neverson.votacao.domain.enums.EFormatoArquivo;
+import com.neverson.votacao.repositories.ResultadoVotacaoJdbcRepository;
+import com.neverson.votacao.repositories.SessaoRepository;
+import com.neverson.votacao.repositories.VotoJdbcRepository;
+import com.neverson.votacao.services.AcompanhamentoVotacaoService;
+import com.neverson.votacao.services.SessaoService;
+import com.neverson.votacao.utils.CPFUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportacaoVotosServiceImplTest {
+
+    @Mock
+    private SessaoService sessaoService;
+
+    @Mock
+    private VotoJdbcRepository votantesRepository;
+
+    @Mock
+    private AcompanhamentoVotacaoService acompanhamentoVotacaoService;
+
+    @Mock
+    private SessaoRepository sessaoRepository;
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private VotoJdbcRepository votoJdbcRepository;
+    private ApuracaoVotos apuracaoVotos;
+    private VotacaoProperties properties;
+    private VotantesIndex votantesIndex;
+    private ImportacaoVotosServiceImpl importacaoService;
+    private final GravacoesEmAndamento gravacoesEmAndamento = new GravacoesEmAndamento();
+
+    private final UUID sessaoId = UUID.randomUUID();
+    private final UUID pautaId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp(@TempDir Path diretorio) {
+        dataSource = BancoSQLiteTeste.criar(diretorio);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        votoJdbcRepository = new VotoJdbcRepository(jdbcTemplate, new FragmentosVoto(new VotacaoProperties()));
+        properties = new VotacaoProperties();
+        apuracaoVotos = new ApuracaoVotos(votoJdbcRepository, new ResultadoVotacaoJdbcRepository(jdbcTemplate),
+                properties, new SimpleMeterRegistry());
+
+        votantesIndex = new VotantesIndex(votantesRepository);
+        importacaoService = new ImportacaoVotosServiceImpl(sessaoService, votantesIndex,
+                votoJdbcRepository, new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                apuracaoVotos, gravacoesEmAndamento, acompanhamentoVotacaoService, new ObjectMapper(), properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importacaoService.parar();
+    }
+
+    @Test
+    @DisplayName("Deve importar as linhas válidas de um NDJSON e rejeitar as demais com o número da linha")
+    void shouldImportNdjsonAndRejectInvalidLines() throws IOException {
+        UUID sessaoInexistente = UUID.randomUUID();
+        when(sessaoService.buscarResumo(sessaoId)).thenReturn(Optional.of(sessaoAberta()));
+        when(sessaoService.buscarResumo(sessaoInexistente)).thenReturn(Optional.empty());
+        when(votantesRepository.buscarAssociadosPorPauta(pautaId)).thenReturn(List.of(11144477735L));
+
+        String conteudo = String.join("\n",
+                voto(sessaoId, "52998224725", "SIM"),
+                voto(sessaoId, "12345678909", "NAO"),
+                "",
+                voto(sessaoId, "12345678901", "SIM"),
+                voto(sessaoInexistente, "39053344705", "SIM"),
+                voto(sessaoId, "529.982.247-25", "NAO"),
+                voto(sessaoId, "11144477735", "SIM"),
+                "{sessaoId: quebrado",
+                voto(sessaoId, "39053344705", "SIM"));
+
+        ResultadoImportacaoDTO resultado = importar(conteudo, EFormatoArquivo.NDJSON);
+
+        assertEquals(8, resultado.getLinhasLidas());
+        assertEquals(3, resultado.getVotosImportados());
+        assertEquals(5, resultado.getVotosRejeitados());
+        assertEquals(List.of(
+                new RejeicaoImportacaoDTO(4, "CPF inválido"),
+                new RejeicaoImportacaoDTO(5, "Sessão não encontrada"),
+                new RejeicaoImportacaoDTO(6, "Associado já votou nesta pauta"),
+                new RejeicaoImportacaoDTO(7, "Associado já votou nesta pauta"),
+                new RejeicaoImportacaoDTO(8, "JSON inválido")
+        ), resultado.getRejeicoes());
+
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM voto", Integer.class));
+        assertEquals(3, apuracaoVotos.resultado(pautaId).getTotalVotos());
+        assertEquals(2, apuracaoVotos.resultado(pautaId).getVotosSim());
+        verify(sessaoService, times(1)).buscarResumo(sessaoId);
+        verify(acompanhamentoVotacaoService).notificarVoto(pautaId);
+    }
+
+    @Test
+    @DisplayName("Deve importar CSV com cabeçalho gravando em vários lotes")
+    void shouldImportCsvInBatches() throws IOException {
+        properties.getImportacao().setTamanhoLote(3);
+        when(sessaoService.buscarResumo(sessaoId)).thenReturn(Optional.of(sessaoAberta()));
+        when(votantesRepository.buscarAssociadosPorPauta(pautaId)).thenReturn(List.of());
+
+        var conteudo = new StringBuilder("sessaoId,cpf,voto\n");
+        for (int i = 0; i < 10; i++) {
+            conteudo.append(sessaoId).append(',').append(Long.toString(CPFUtils.completar(100_000_000L + i))).append(",sim\n");
+        }
+
+        ResultadoImportacaoDTO resultado = importar(conteudo.toString(), EFormatoArquivo.CSV);
+
+        assertEquals(10, resultado.getVotosImportados());
+        assertEquals(0, resultado.getVotosRejeitados());
+        assertEquals(10, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM voto", Integer.class));
+        verify(acompanhamentoVotacaoService, times(4)).notificarVoto(pautaId);
+    }
+
+    @Test
+    @DisplayName("Deve limitar as rejeições listadas mantendo a contagem total")
+    void shouldCapListedRejections() throws IOException {
+        properties.getImportacao().setMaximoRejeicoes(5);
+
+        var conteudo = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            conteudo.append(sessaoId).append(",00000000000,SIM\n");
+        }
+
+        ResultadoImportacaoDTO resultado = importar(conteudo.toString(), EFormatoArquivo.CSV);
+
+        assertEquals(50, resultado.getVotosRejeitados());
+        assertEquals(5, resultado.getRejeicoes().size());
+        verify(sessaoService, never()).buscarResumo(any());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar votos de sessão encerrada")
+    void shouldRejectClosedSession() throws IOException {
+        when(sessaoService.buscarResumo(sessaoId))
+                .thenReturn(Optional.of(new SessaoResumoDTO(sessaoId, pautaId, LocalDateTime.now().minusMinutes(1))));
+
+        ResultadoImportacaoDTO resultado = importar(sessaoId + ",52998224725,NAO", EFormatoArquivo.CSV);
+
+        assertEquals(0, resultado.getVotosImportados());
+        assertEquals(List.of(new RejeicaoImportacaoDTO(1, "Sessão de votação encerrada")), resultado.getRejeicoes());
+    }
+
+    @Test
+    @DisplayName("Deve liberar no índice os associados do lote pendente quando a leitura do arquivo falhar")
+    void shouldReleasePendingBatchWhenReadFails() {
+        when(sessaoService.buscarResumo(sessaoId)).thenReturn(Optional.of(sessaoAberta()));
+        when(votantesRepository.buscarAssociadosPorPauta(pautaId)).thenReturn(List.of());
+
+        byte[] inicio = (sessaoId + ",52998224725,SIM\n" + sessaoId + ",12345678909,NAO\n")
+                .getBytes(StandardCharsets.UTF_8);
+        InputStream interrompido = new SequenceInputStream(new ByteArrayInputStream(inicio), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Conexão encerrada pelo cliente");
+            }
+        });
+
+        assertThrows(IOException.class, () -> importacaoService.importar(interrompido, EFormatoArquivo.CSV));
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM voto", Integer.class));
+        assertTrue(votantesIndex.registrar(pautaId, 52998224725L));
+        assertTrue(votantesIndex.registrar(pautaId, 12345678909L));
+    }
+
+    @Test
+    @DisplayName("Deve encerrar as sessões no fechamento mesmo com uma importação ainda recebendo o arquivo")
+    void shouldCloseSessionsWhileImportStreamIsOpen() throws Exception {
+        UUID outraSessaoId = UUID.randomUUID();
+        UUID outraPautaId = UUID.randomUUID();
+        var fechamento = LocalDateTime.now().plusNanos(500_000_000);
+        var sessao = new SessaoResumoDTO(sessaoId, pautaId, fechamento);
+        var outraSessao = new SessaoResumoDTO(outraSessaoId, outraPautaId, fechamento);
+        when(sessaoService.buscarResumo(sessaoId)).thenReturn(Optional.of(sessao));
+        when(sessaoService.buscarResumo(outraSessaoId)).thenReturn(Optional.of(outraSessao));
+        when(votantesRepository.buscarAssociadosPorPauta(any())).thenReturn(List.of());
+        when(sessaoRepository.buscarNaoEncerradas()).thenReturn(List.of());
+
+        properties.getImportacao().setIntervalo(Duration.ofMillis(50));
+        properties.getSessoes().getEncerramento().setMargem(Duration.ZERO);
+        // bem menor que o timeout abaixo: uma espera vencida aparece como sessão não encerrada
+        properties.getSessoes().getEncerramento().setEspera(Duration.ofMillis(500));
+        properties.getSessoes().getEncerramento().setNovaTentativa(Duration.ofMinutes(1));
+        var transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        var resultadoVotacaoJdbcRepository = new ResultadoVotacaoJdbcRepository(jdbcTemplate);
+        var encerramentoSessoes = new EncerramentoSessoes(sessaoRepository, votoJdbcRepository,
+                resultadoVotacaoJdbcRepository, apuracaoVotos, votantesIndex,
+                new DiarioVotos(votoJdbcRepository, transactionTemplate, properties), gravacoesEmAndamento,
+                transactionTemplate, properties, new SimpleMeterRegistry());
+        encerramentoSessoes.iniciar();
+        encerramentoSessoes.agendar(sessao);
+        encerramentoSessoes.agendar(outraSessao);
+
+        var arquivo = new PipedInputStream();
+        OutputStream upload = new PipedOutputStream(arquivo);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ResultadoImportacaoDTO> importacao =
+                    executor.submit(() -> importacaoService.importar(arquivo, EFormatoArquivo.CSV));
+            enviar(upload, sessaoId + ",52998224725,SIM");
+            enviar(upload, outraSessaoId + ",12345678909,NAO");
+
+            // o upload continua aberto depois do fechamento e nenhuma das sessões fica presa
+            verify(sessaoRepository, timeout(5_000)).marcarEncerrada(sessaoId);
+            verify(sessaoRepository, timeout(5_000)).marcarEncerrada(outraSessaoId);
+            assertFalse(importacao.isDone());
+            assertEquals(new ResultadoVotacaoDTO(1, 1, 0), resultadoVotacaoJdbcRepository.buscar(pautaId));
+            assertEquals(new ResultadoVotacaoDTO(1, 0, 1), resultadoVotacaoJdbcRepository.buscar(outraPautaId));
+
+            enviar(upload, sessaoId + ",11144477735,NAO");
+            upload.close();
+            ResultadoImportacaoDTO resultado = importacao.get(5, TimeUnit.SECONDS);
+
+            assertEquals(2, resultado.getVotosImportados());
+            assertEquals(List.of(new RejeicaoImportacaoDTO(3, "Sessão de votação encerrada")), resultado.getRejeicoes());
+        } finally {
+            executor.shutdownNow();
+            encerramentoSessoes.parar();
+        }
+    }
+
+    private static void enviar(OutputStream upload, String linha) throws IOException {
+        upload.write((linha + "\n").getBytes(StandardCharsets.UTF_8));
+        upload.flush();
+    }
+
+    private ResultadoImportacaoDTO importar(String conteudo, EFormatoArquivo formato) throws IOException {
+        return importacaoService.importar(new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8)), formato);
+    }
+
+    private SessaoResumoDTO sessaoAberta() {
+        return new SessaoResumoDTO(sessaoId, pautaId, LocalDateTime.now().plusMinutes(10));
+    }
+
+    private static String voto(UUID sessaoId, String cpf, String voto) {
+        return "{\"sessaoId\":\"" + sessaoId + "\",\"cpf\":\"" + cpf + "\",\"voto\":\"" + voto + "\"}";
+    }
+}
@@ -1,15 +1,22 @@
 package com.neverson.votacao.services.impl;
 
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.config.exceptions.HttpException;
+import com.neverson.votacao.domain.dtos.PaginaDTO;
+import com.neverson.votacao.domain.dtos.PautaDTO;
 import com.neverson.votacao.domain.entities.Pauta;
 import com.neverson.votacao.repositories.PautaRepository;
+import com.neverson.votacao.utils.CursorUtils;
+import com.neverson.votacao.utils.UUIDUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -21,13 +28,15 @@ import static org.mockito.Mockito.*;
 class PautaServiceImplTest {
 
     private PautaServiceImpl pautaService;
+    private VotacaoProperties properties;
 
     @Mock
     private PautaRepository pautaRepository;
 
     @BeforeEach
     void setUp() {
-        pautaService = new PautaServiceImpl(pautaRepository);
+        properties = new VotacaoProperties();
+        pautaService = new PautaServiceImpl(pautaRepository, properties);
     }
 
     @Test
@@ -76,20 +85,59 @@ class PautaServiceImplTest {
     }
 
     @Test
-    @DisplayName("Deve buscar todas as pautas cadastradas")
-    void shouldReturnListOfPautas() {
-        List<Pauta> expectedPautas = Arrays.asList(
-            new Pauta("Pauta 1", "Descricao 1"),
-            new Pauta("Pauta 2", "Descricao 2")
-        );
-        
-        when(pautaRepository.buscarPautas()).thenReturn(expectedPautas);
+    @DisplayName("Deve devolver a primeira página sem cursor quando não houver mais pautas")
+    void shouldReturnLastPageWithoutCursor() {
+        List<PautaDTO> expectedPautas = List.of(pauta(), pauta());
 
-        List<Pauta> result = pautaService.buscarPautas();
+        when(pautaRepository.buscarPautas(Limit.of(11))).thenReturn(expectedPautas);
 
-        assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals(expectedPautas, result);
-        verify(pautaRepository).buscarPautas();
+        PaginaDTO<PautaDTO> result = pautaService.buscarPautas(null, null);
+
+        assertEquals(expectedPautas, result.getItens());
+        assertNull(result.getProximoCursor());
+        verify(pautaRepository, never()).buscarPautasApos(any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve devolver o cursor da última pauta quando houver próxima página")
+    void shouldReturnCursorWhenThereAreMorePautas() {
+        PautaDTO primeira = pauta();
+        PautaDTO segunda = pauta();
+
+        when(pautaRepository.buscarPautas(Limit.of(3))).thenReturn(List.of(primeira, segunda, pauta()));
+
+        PaginaDTO<PautaDTO> result = pautaService.buscarPautas(null, 2);
+
+        assertEquals(List.of(primeira, segunda), result.getItens());
+        assertEquals(segunda.getOrdenacao(), CursorUtils.decodificar(result.getProximoCursor()));
+    }
+
+    @Test
+    @DisplayName("Deve continuar a listagem a partir do cursor e limitar o tamanho da página")
+    void shouldContinueFromCursor() {
+        properties.getPaginacao().setTamanhoMaximo(50);
+        UUID ultima = UUIDUtils.generate();
+
+        when(pautaRepository.buscarPautasApos(ultima, Limit.of(51))).thenReturn(List.of(pauta()));
+
+        PaginaDTO<PautaDTO> result = pautaService.buscarPautas(CursorUtils.codificar(ultima), 1_000);
+
+        assertEquals(1, result.getItens().size());
+        assertNull(result.getProximoCursor());
+        verify(pautaRepository, never()).buscarPautas(any());
+    }
+
+    @Test
+    @DisplayName("Deve recusar cursor inválido")
+    void shouldRejectInvalidCursor() {
+        HttpException exception = assertThrows(HttpException.class, () -> pautaService.buscarPautas("nao-e-cursor", null));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getHttpStatus());
+        verifyNoInteractions(pautaRepository);
+    }
+
+    private static PautaDTO pauta() {
+        UUID id = UUIDUtils.generate();
+        return new PautaDTO(id, "Pauta", "Descrição", id, null, null, null, null);
     }
 }
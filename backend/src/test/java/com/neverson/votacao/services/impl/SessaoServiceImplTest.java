@@ -1,16 +1,26 @@
 package com.neverson.votacao.services.impl;
 
+import com.neverson.votacao.config.VotacaoProperties;
+import com.neverson.votacao.config.exceptions.HttpException;
+import com.neverson.votacao.domain.dtos.PaginaDTO;
+import com.neverson.votacao.domain.dtos.SessaoDTO;
+import com.neverson.votacao.domain.dtos.SessaoResumoDTO;
 import com.neverson.votacao.domain.entities.Pauta;
 import com.neverson.votacao.domain.entities.Sessao;
 import com.neverson.votacao.repositories.SessaoRepository;
+import com.neverson.votacao.repositories.VotoJdbcRepository;
+import com.neverson.votacao.services.AcompanhamentoVotacaoService;
 import com.neverson.votacao.services.PautaService;
+import com.neverson.votacao.utils.CursorUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
@@ -31,19 +41,35 @@ class SessaoServiceImplTest {
     @Mock
     private SessaoRepository sessaoRepository;
 
+    @Mock
+    private VotoJdbcRepository votoJdbcRepository;
+
     @Mock
     private PautaService pautaService;
 
+    @Mock
+    private VotantesIndex votantesIndex;
+
+    @Mock
+    private SessoesAbertasCache sessoesAbertasCache;
+
+    @Mock
+    private AcompanhamentoVotacaoService acompanhamentoVotacaoService;
+
+    @Mock
+    private EncerramentoSessoes encerramentoSessoes;
+
     @BeforeEach
     void configurarAmbienteDeTeste() {
-        sessaoService = new SessaoServiceImpl(sessaoRepository, pautaService);
+        sessaoService = new SessaoServiceImpl(sessaoRepository, votoJdbcRepository, pautaService, votantesIndex,
+                sessoesAbertasCache, acompanhamentoVotacaoService, encerramentoSessoes, new VotacaoProperties());
     }
 
     @Test
     @DisplayName("Deve abrir sessão com tempo padrão quando nenhum tempo for especificado")
     void testAbrirSessao_ComTempoNulo_DeveCriarSessaoComTempadoPadrao() {
         UUID pautaId = UUID.randomUUID();
-        Pauta pauta = new Pauta("Pauta de Teste", "Descrição da Pauta");
+        Pauta pauta = new Pauta(pautaId, "Pauta de Teste", "Descrição da Pauta", null);
         Sessao sessaoEsperada = new Sessao(pauta, LocalDateTime.now(), LocalDateTime.now().plusSeconds(60));
 
         when(pautaService.findById(pautaId)).thenReturn(Optional.of(pauta));
@@ -56,7 +82,9 @@ class SessaoServiceImplTest {
         assertEquals(60, Duration.between(sessaoCriada.getAbertura(), sessaoCriada.getFechamento()).getSeconds());
 
         verify(pautaService).findById(pautaId);
+        verify(votoJdbcRepository).criarFragmento(pautaId);
         verify(sessaoRepository).save(any(Sessao.class));
+        verify(encerramentoSessoes).agendar(argThat(resumo -> resumo.getFechamento().equals(sessaoEsperada.getFechamento())));
     }
 
     @Test
@@ -114,25 +142,116 @@ class SessaoServiceImplTest {
     }
 
     @Test
-    @DisplayName("Deve buscar todas as sessões ordenadas por data de fechamento")
-    void testBuscarSessoes_DeveBuscarSessoesOrdenadasPorFechamento() {
-        Pauta pauta1 = new Pauta("Pauta 1", "Descrição 1");
-        Pauta pauta2 = new Pauta("Pauta 2", "Descrição 2");
-        
-        Sessao sessao1 = new Sessao(pauta1, LocalDateTime.now(), LocalDateTime.now().plusSeconds(60));
-        Sessao sessao2 = new Sessao(pauta2, LocalDateTime.now(), LocalDateTime.now().plusSeconds(120));
+    @DisplayName("Deve buscar a primeira página de sessões ordenadas por data de fechamento")
+    void testBuscarSessoes_DeveBuscarPrimeiraPaginaOrdenadaPorFechamento() {
+        SessaoDTO sessao1 = new SessaoDTO(UUID.randomUUID(), UUID.randomUUID(), LocalDateTime.now(),
+                LocalDateTime.now().plusSeconds(120), false);
+        SessaoDTO sessao2 = new SessaoDTO(UUID.randomUUID(), UUID.randomUUID(), LocalDateTime.now(),
+                LocalDateTime.now().plusSeconds(60), false);
         
-        List<Sessao> sessoesEsperadas = Arrays.asList(sessao1, sessao2);
+        List<SessaoDTO> sessoesEsperadas = Arrays.asList(sessao1, sessao2);
 
-        when(sessaoRepository.findAll(Sort.by(Sort.Direction.DESC, "fechamento")))
+        when(sessaoRepository.buscarSessoes(Limit.of(11)))
             .thenReturn(sessoesEsperadas);
 
-        List<Sessao> sessoesEncontradas = sessaoService.buscarSessoes();
+        PaginaDTO<SessaoDTO> pagina = sessaoService.buscarSessoes(null, null);
 
-        assertNotNull(sessoesEncontradas);
-        assertEquals(2, sessoesEncontradas.size());
-        assertEquals(sessoesEsperadas, sessoesEncontradas);
+        assertEquals(sessoesEsperadas, pagina.getItens());
+        assertNull(pagina.getProximoCursor());
         
-        verify(sessaoRepository).findAll(Sort.by(Sort.Direction.DESC, "fechamento"));
+        verify(sessaoRepository).buscarSessoes(Limit.of(11));
+    }
+
+    @Test
+    @DisplayName("Deve continuar a listagem de sessões a partir do fechamento e id do cursor")
+    void testBuscarSessoes_ComCursor_DeveBuscarProximaPagina() {
+        LocalDateTime fechamento = LocalDateTime.now();
+        SessaoDTO sessao1 = new SessaoDTO(UUID.randomUUID(), UUID.randomUUID(), fechamento, fechamento.plusSeconds(30), false);
+        SessaoDTO sessao2 = new SessaoDTO(UUID.randomUUID(), UUID.randomUUID(), fechamento, fechamento, false);
+        SessaoDTO sessao3 = new SessaoDTO(UUID.randomUUID(), UUID.randomUUID(), fechamento, fechamento.minusSeconds(30), true);
+
+        when(sessaoRepository.buscarSessoes(Limit.of(3))).thenReturn(List.of(sessao1, sessao2, sessao3));
+        PaginaDTO<SessaoDTO> primeira = sessaoService.buscarSessoes(null, 2);
+
+        assertEquals(List.of(sessao1, sessao2), primeira.getItens());
+        assertNotNull(primeira.getProximoCursor());
+
+        when(sessaoRepository.buscarSessoesApos(fechamento, sessao2.getId(), Limit.of(3))).thenReturn(List.of(sessao3));
+        PaginaDTO<SessaoDTO> segunda = sessaoService.buscarSessoes(primeira.getProximoCursor(), 2);
+
+        assertEquals(List.of(sessao3), segunda.getItens());
+        assertNull(segunda.getProximoCursor());
+        verify(sessaoRepository).buscarSessoesApos(fechamento, sessao2.getId(), Limit.of(3));
+    }
+
+    @Test
+    @DisplayName("Deve recusar cursor de pauta na listagem de sessões")
+    void testBuscarSessoes_CursorInvalido_DeveLancarExcecao() {
+        String cursorDePauta = CursorUtils.codificar(UUID.randomUUID());
+
+        HttpException exception = assertThrows(HttpException.class, () -> sessaoService.buscarSessoes(cursorDePauta, null));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getHttpStatus());
+        verifyNoInteractions(sessaoRepository);
+    }
+
+    @Test
+    @DisplayName("Deve buscar sessão aberta no banco apenas na primeira vez")
+    void testBuscarResumo_SessaoAberta_DeveUsarCache() {
+        UUID sessaoId = UUID.randomUUID();
+        SessaoResumoDTO resumo = new SessaoResumoDTO(sessaoId, UUID.randomUUID(), LocalDateTime.now().plusMinutes(5));
+        sessaoService = new SessaoServiceImpl(sessaoRepository, votoJdbcRepository, pautaService, votantesIndex,
+                criarCache(), acompanhamentoVotacaoService, encerramentoSessoes, new VotacaoProperties());
+
+        when(sessaoRepository.buscarResumo(sessaoId)).thenReturn(Optional.of(resumo));
+
+        assertEquals(Optional.of(resumo), sessaoService.buscarResumo(sessaoId));
+        assertEquals(Optional.of(resumo), sessaoService.buscarResumo(sessaoId));
+
+        verify(sessaoRepository, times(1)).buscarResumo(sessaoId);
+    }
+
+    @Test
+    @DisplayName("Deve servir do cache a sessão recém-aberta sem ir ao banco")
+    void testBuscarResumo_SessaoRecemAberta_NaoDeveConsultarBanco() {
+        UUID pautaId = UUID.randomUUID();
+        Pauta pauta = new Pauta(pautaId, "Pauta de Teste", "Descrição da Pauta", null);
+        sessaoService = new SessaoServiceImpl(sessaoRepository, votoJdbcRepository, pautaService, votantesIndex,
+                criarCache(), acompanhamentoVotacaoService, encerramentoSessoes, new VotacaoProperties());
+
+        when(pautaService.findById(pautaId)).thenReturn(Optional.of(pauta));
+        when(sessaoRepository.save(any(Sessao.class))).thenAnswer(invocation -> {
+            Sessao sessao = invocation.getArgument(0);
+            sessao.prePersist();
+            return sessao;
+        });
+
+        Sessao sessao = sessaoService.abrirSessao(pautaId, 120);
+        Optional<SessaoResumoDTO> resumo = sessaoService.buscarResumo(sessao.getId());
+
+        assertTrue(resumo.isPresent());
+        assertEquals(pautaId, resumo.get().getPautaId());
+        assertEquals(sessao.getFechamento(), resumo.get().getFechamento());
+        verify(sessaoRepository, never()).buscarResumo(any());
+    }
+
+    @Test
+    @DisplayName("Não deve guardar em cache sessão já encerrada")
+    void testBuscarResumo_SessaoEncerrada_NaoDeveUsarCache() {
+        UUID sessaoId = UUID.randomUUID();
+        SessaoResumoDTO resumo = new SessaoResumoDTO(sessaoId, UUID.randomUUID(), LocalDateTime.now().minusMinutes(5));
+        sessaoService = new SessaoServiceImpl(sessaoRepository, votoJdbcRepository, pautaService, votantesIndex,
+                criarCache(), acompanhamentoVotacaoService, encerramentoSessoes, new VotacaoProperties());
+
+        when(sessaoRepository.buscarResumo(sessaoId)).thenReturn(Optional.of(resumo));
+
+        sessaoService.buscarResumo(sessaoId);
+        sessaoService.buscarResumo(sessaoId);
+
+        verify(sessaoRepository, times(2)).buscarResumo(sessaoId);
+    }
+
+    private SessoesAbertasCache criarCache() {
+        return new SessoesAbertasCache(new VotacaoProperties(), new SimpleMeterRegistry());
     }
 }
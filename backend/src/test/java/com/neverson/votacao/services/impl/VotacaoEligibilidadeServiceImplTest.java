@@ -1,20 +1,34 @@
 package com.neverson.votacao.services.impl;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neverson.votacao.config.VotacaoProperties;
 import com.neverson.votacao.config.exceptions.HttpException;
 import com.neverson.votacao.domain.dtos.ElegibilidadeVotacaoDTO;
 import com.neverson.votacao.domain.enums.EStatusEligibilidade;
+import com.neverson.votacao.services.ConsultaElegibilidadeService;
 import com.neverson.votacao.utils.CPFUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
-import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-
-import java.util.Random;
+import org.springframework.http.HttpStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -22,62 +36,212 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class VotacaoEligibilidadeServiceImplTest {
 
+    private static final String CPF = "12345678909";
+
     private VotacaoEligibilidadeServiceImpl service;
 
     @Mock
-    private Random random;
+    private ConsultaElegibilidadeService consultaElegibilidadeService;
+
+    private VotacaoProperties properties;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() {
-        service = new VotacaoEligibilidadeServiceImpl() {
-            protected Random createRandom() {
-                return random;
-            }
-        };
+        properties = new VotacaoProperties();
+        properties.getElegibilidade().getCircuito().setFalhasParaAbrir(3);
+        meterRegistry = new SimpleMeterRegistry();
+        service = criarService();
     }
 
     @Test
     @DisplayName("Deve retornar elegibilidade para voto com CPF válido")
     void shouldBeEligibleToVoteWithValidCpf() throws HttpException {
-        String validCpf = "12345678901";
-
-        try (MockedStatic<CPFUtils> cpfUtilsMockedStatic = Mockito.mockStatic(CPFUtils.class)) {
-            cpfUtilsMockedStatic.when(() -> CPFUtils.isValid(validCpf)).thenReturn(true);
-            when(random.nextBoolean()).thenReturn(true);
-            ElegibilidadeVotacaoDTO result = service.isEligibleToVote(validCpf);
-            assertNotNull(result);
-            assertEquals(EStatusEligibilidade.ABLE_TO_VOTE, result.getStatus());
-        }
+        when(consultaElegibilidadeService.consultar(12345678909L)).thenReturn(EStatusEligibilidade.ABLE_TO_VOTE);
+
+        ElegibilidadeVotacaoDTO result = service.isEligibleToVote(CPF);
+
+        assertEquals(EStatusEligibilidade.ABLE_TO_VOTE, result.getStatus());
     }
 
     @Test
     @DisplayName("Deve retornar inelegibilidade para voto com CPF válido")
     void shouldBeUneligibleToVoteWithValidCpf() throws HttpException {
-        String validCpf = "12345678901";
+        when(consultaElegibilidadeService.consultar(12345678909L)).thenReturn(EStatusEligibilidade.UNABLE_TO_VOTE);
 
-        try (MockedStatic<CPFUtils> cpfUtilsMockedStatic = Mockito.mockStatic(CPFUtils.class)) {
-            cpfUtilsMockedStatic.when(() -> CPFUtils.isValid(validCpf)).thenReturn(true);
+        ElegibilidadeVotacaoDTO result = service.isEligibleToVote("123.456.789-09");
 
-            when(random.nextBoolean()).thenReturn(false);
-            ElegibilidadeVotacaoDTO result = service.isEligibleToVote(validCpf);
-            assertNotNull(result);
-            assertEquals(EStatusEligibilidade.UNABLE_TO_VOTE, result.getStatus());
-        }
+        assertEquals(EStatusEligibilidade.UNABLE_TO_VOTE, result.getStatus());
     }
 
     @Test
-    @DisplayName("Deve lançar exceção para CPF inválido")
+    @DisplayName("Deve lançar exceção para CPF inválido sem consultar o serviço externo")
     void shouldThrowExceptionForInvalidCpf() {
-        String invalidCpf = "08203304566";
+        HttpException exception = assertThrows(HttpException.class, () -> service.isEligibleToVote("08203304566"));
+
+        assertEquals("CPF inválido", exception.getMessage());
+        verifyNoInteractions(consultaElegibilidadeService);
+    }
+
+    @Test
+    @DisplayName("Deve responder do cache as consultas repetidas do mesmo CPF")
+    void shouldCacheResultPerCpf() {
+        when(consultaElegibilidadeService.consultar(12345678909L)).thenReturn(EStatusEligibilidade.ABLE_TO_VOTE);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(EStatusEligibilidade.ABLE_TO_VOTE, service.isEligibleToVote(CPF).getStatus());
+        }
+
+        verify(consultaElegibilidadeService, times(1)).consultar(12345678909L);
+        assertEquals(4, meterRegistry.get("cache.gets").tag("cache", "elegibilidade").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1, meterRegistry.get("elegibilidade.consulta").tag("resultado", "sucesso").timer().count());
+    }
+
+    @Test
+    @DisplayName("Deve fazer uma única chamada externa para consultas simultâneas do mesmo CPF")
+    void shouldCoalesceConcurrentLookups() throws Exception {
+        var chamada = new CountDownLatch(1);
+        var liberar = new CountDownLatch(1);
+        when(consultaElegibilidadeService.consultar(12345678909L)).thenAnswer(invocacao -> {
+            chamada.countDown();
+            liberar.await();
+            return EStatusEligibilidade.ABLE_TO_VOTE;
+        });
+
+        List<Future<ElegibilidadeVotacaoDTO>> resultados = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 50; i++) {
+                resultados.add(executor.submit(() -> service.isEligibleToVote(CPF)));
+            }
+            assertTrue(chamada.await(5, TimeUnit.SECONDS));
+            liberar.countDown();
+            for (var resultado : resultados) {
+                assertEquals(EStatusEligibilidade.ABLE_TO_VOTE, resultado.get(5, TimeUnit.SECONDS).getStatus());
+            }
+        }
+
+        verify(consultaElegibilidadeService, times(1)).consultar(12345678909L);
+    }
+
+    @Test
+    @DisplayName("Deve guardar em cache CPF desconhecido pelo serviço externo")
+    void shouldCacheNotFound() {
+        when(consultaElegibilidadeService.consultar(12345678909L)).thenThrow(HttpException.notFound("CPF inválido"));
+
+        for (int i = 0; i < 2; i++) {
+            HttpException exception = assertThrows(HttpException.class, () -> service.isEligibleToVote(CPF));
+            assertEquals(HttpStatus.NOT_FOUND, exception.getHttpStatus());
+        }
+
+        verify(consultaElegibilidadeService, times(1)).consultar(12345678909L);
+    }
+
+    @Test
+    @DisplayName("Deve abrir o circuito após falhas seguidas e parar de chamar o serviço externo")
+    void shouldOpenCircuitAfterConsecutiveFailures() {
+        when(consultaElegibilidadeService.consultar(anyLong())).thenThrow(new IllegalStateException("timeout"));
+        String[] cpfs = {"52998224725", "11144477735", "39053344705", CPF, "12345678909"};
+
+        for (String cpf : cpfs) {
+            HttpException exception = assertThrows(HttpException.class, () -> service.isEligibleToVote(cpf));
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getHttpStatus());
+        }
+
+        verify(consultaElegibilidadeService, times(3)).consultar(anyLong());
+        assertEquals(1, meterRegistry.get("elegibilidade.circuito.aberto").gauge().value());
+        assertEquals(3, meterRegistry.get("elegibilidade.consulta").tag("resultado", "falha").timer().count());
+    }
+
+    @Test
+    @DisplayName("Não deve guardar falha do serviço externo em cache")
+    void shouldNotCacheFailure() {
+        when(consultaElegibilidadeService.consultar(12345678909L))
+                .thenThrow(new IllegalStateException("timeout"))
+                .thenReturn(EStatusEligibilidade.ABLE_TO_VOTE);
+
+        assertThrows(HttpException.class, () -> service.isEligibleToVote(CPF));
+
+        assertEquals(EStatusEligibilidade.ABLE_TO_VOTE, service.isEligibleToVote(CPF).getStatus());
+        verify(consultaElegibilidadeService, times(2)).consultar(12345678909L);
+    }
+
+    @Test
+    @DisplayName("Deve verificar o lote em paralelo e responder uma linha por CPF na ordem enviada")
+    void shouldStreamBatchInOrder() throws IOException {
+        properties.getElegibilidade().getLote().setConcorrencia(4);
+        service = criarService();
+        var emAndamento = new AtomicInteger();
+        var maximoEmAndamento = new AtomicInteger();
+        when(consultaElegibilidadeService.consultar(anyLong())).thenAnswer(invocacao -> {
+            maximoEmAndamento.accumulateAndGet(emAndamento.incrementAndGet(), Math::max);
+            long cpf = invocacao.getArgument(0);
+            // os primeiros demoram mais, para as respostas chegarem fora de ordem
+            Thread.sleep(cpf == 52998224725L ? 100 : 10);
+            emAndamento.decrementAndGet();
+            return cpf % 2 == 0 ? EStatusEligibilidade.UNABLE_TO_VOTE : EStatusEligibilidade.ABLE_TO_VOTE;
+        });
+
+        List<String> cpfs = new ArrayList<>(List.of("529.982.247-25", "11111111111", "12345678909"));
+        for (int i = 0; i < 20; i++) {
+            cpfs.add(Long.toString(CPFUtils.completar(100_000_000L + i)));
+        }
 
-        try (MockedStatic<CPFUtils> cpfUtilsMockedStatic = Mockito.mockStatic(CPFUtils.class)) {
-            cpfUtilsMockedStatic.when(() -> CPFUtils.isValid(invalidCpf)).thenReturn(false);
+        List<Map<String, String>> linhas = verificarLote(cpfs);
 
-            HttpException exception = assertThrows(HttpException.class,
-                    () -> service.isEligibleToVote(invalidCpf)
-            );
+        assertEquals(cpfs.size(), linhas.size());
+        assertEquals(Map.of("cpf", "529.982.247-25", "status", "ABLE_TO_VOTE"), linhas.get(0));
+        assertEquals(Map.of("cpf", "11111111111", "erro", "CPF inválido"), linhas.get(1));
+        assertEquals(Map.of("cpf", "12345678909", "status", "ABLE_TO_VOTE"), linhas.get(2));
+        for (int i = 0; i < cpfs.size(); i++) {
+            assertEquals(cpfs.get(i), linhas.get(i).get("cpf"));
+        }
+        assertTrue(maximoEmAndamento.get() <= 4, "em andamento: " + maximoEmAndamento.get());
+        assertTrue(maximoEmAndamento.get() > 1, "consultas não rodaram em paralelo");
+        verify(consultaElegibilidadeService, never()).consultar(11111111111L);
+    }
+
+    @Test
+    @DisplayName("Deve informar na linha do CPF a falha do serviço externo sem interromper o lote")
+    void shouldReportFailurePerCpf() throws IOException {
+        when(consultaElegibilidadeService.consultar(52998224725L)).thenThrow(new IllegalStateException("timeout"));
+        when(consultaElegibilidadeService.consultar(12345678909L)).thenReturn(EStatusEligibilidade.ABLE_TO_VOTE);
+
+        List<Map<String, String>> linhas = verificarLote(List.of("52998224725", CPF));
+
+        assertEquals(List.of(
+                Map.of("cpf", "52998224725", "erro", "Serviço de elegibilidade indisponível"),
+                Map.of("cpf", CPF, "status", "ABLE_TO_VOTE")
+        ), linhas);
+    }
 
-            assertEquals("CPF inválido", exception.getMessage());
+    @Test
+    @DisplayName("Deve recusar lote acima do tamanho máximo")
+    void shouldRejectOversizedBatch() {
+        properties.getElegibilidade().getLote().setMaximoCpfs(2);
+        service = criarService();
+
+        HttpException exception = assertThrows(HttpException.class,
+                () -> service.verificarLote(List.of(CPF, CPF, CPF)));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getHttpStatus());
+        verifyNoInteractions(consultaElegibilidadeService);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, String>> verificarLote(List<String> cpfs) throws IOException {
+        var saida = new ByteArrayOutputStream();
+        service.verificarLote(cpfs).writeTo(saida);
+        var objectMapper = new ObjectMapper();
+        List<Map<String, String>> linhas = new ArrayList<>();
+        for (String linha : saida.toString(StandardCharsets.UTF_8).split("\n")) {
+            linhas.add(objectMapper.readValue(linha, Map.class));
         }
+        return linhas;
+    }
+
+    private VotacaoEligibilidadeServiceImpl criarService() {
+        return new VotacaoEligibilidadeServiceImpl(consultaElegibilidadeService, new ObjectMapper(), properties,
+                meterRegistry);
     }
 }
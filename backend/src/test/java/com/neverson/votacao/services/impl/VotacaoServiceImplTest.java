@@ -1,23 +1,36 @@
 package com.neverson.votacao.services.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neverson.votacao.config.VotacaoProperties;
 import com.neverson.votacao.config.exceptions.HttpException;
+import com.neverson.votacao.domain.dtos.ContagemVotosDTO;
+import com.neverson.votacao.domain.dtos.ResultadoPublicadoDTO;
 import com.neverson.votacao.domain.dtos.ResultadoVotacaoDTO;
+import com.neverson.votacao.domain.dtos.SessaoResumoDTO;
 import com.neverson.votacao.domain.entities.Pauta;
 import com.neverson.votacao.domain.entities.Sessao;
 import com.neverson.votacao.domain.entities.Voto;
 import com.neverson.votacao.domain.enums.EVotoOpcao;
-import com.neverson.votacao.repositories.VotoRepository;
+import com.neverson.votacao.repositories.ResultadoVotacaoJdbcRepository;
+import com.neverson.votacao.repositories.VotoJdbcRepository;
+import com.neverson.votacao.services.AcompanhamentoVotacaoService;
+import com.neverson.votacao.services.GravacaoVotoService;
 import com.neverson.votacao.services.SessaoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,119 +41,326 @@ class VotacaoServiceImplTest {
     private VotacaoServiceImpl votacaoService;
 
     @Mock
-    private VotoRepository votoRepository;
+    private SessaoService sessaoService;
 
     @Mock
-    private SessaoService sessaoService;
+    private GravacaoVotoService gravacaoVotoService;
+
+    @Mock
+    private VotoJdbcRepository votoJdbcRepository;
+
+    @Mock
+    private ResultadoVotacaoJdbcRepository resultadoVotacaoJdbcRepository;
+
+    @Mock
+    private AcompanhamentoVotacaoService acompanhamentoVotacaoService;
+
+    private ApuracaoVotos apuracaoVotos;
+    private SimpleMeterRegistry meterRegistry;
+    private VotacaoProperties properties;
 
     @BeforeEach
     void configurarAmbienteDeTeste() {
-        votacaoService = new VotacaoServiceImpl(votoRepository, sessaoService);
+        properties = new VotacaoProperties();
+        apuracaoVotos = new ApuracaoVotos(votoJdbcRepository, resultadoVotacaoJdbcRepository, properties,
+                new SimpleMeterRegistry());
+        criarServico();
+    }
+
+    private void criarServico() {
+        meterRegistry = new SimpleMeterRegistry();
+        votacaoService = new VotacaoServiceImpl(sessaoService, new VotantesIndex(votoJdbcRepository),
+                gravacaoVotoService, apuracaoVotos, acompanhamentoVotacaoService,
+                new AdmissaoVotos(properties, meterRegistry), new GravacoesEmAndamento(), new ObjectMapper(),
+                properties, meterRegistry);
     }
 
     @Test
     @DisplayName("Deve registrar um voto com sucesso quando todos os critérios são atendidos")
     void testVotar_CriteriosAtendidos_DeveRegistrarVoto() {
         UUID sessaoId = UUID.randomUUID();
-        String cpf = "12345678901";
+        String cpf = "12345678909";
         EVotoOpcao opcaoVoto = EVotoOpcao.SIM;
         
-        Pauta pauta = new Pauta("Pauta de Teste", "Descrição da Pauta");
+        Pauta pauta = new Pauta(UUID.randomUUID(), "Pauta de Teste", "Descrição da Pauta", null);
         Sessao sessao = new Sessao(pauta, LocalDateTime.now(), LocalDateTime.now().plusMinutes(10));
-        Voto votoEsperado = new Voto(cpf, opcaoVoto, pauta);
+        Voto votoEsperado = new Voto(12345678909L, opcaoVoto, pauta);
 
-        when(sessaoService.findById(sessaoId)).thenReturn(Optional.of(sessao));
-        when(votoRepository.existsByAssociadoIdAndPauta(cpf, pauta)).thenReturn(false);
-        when(votoRepository.save(any(Voto.class))).thenReturn(votoEsperado);
+        when(sessaoService.buscarResumo(sessaoId)).thenReturn(Optional.of(resumo(sessaoId, sessao)));
+        when(votoJdbcRepository.buscarAssociadosPorPauta(pauta.getId())).thenReturn(List.of());
+        when(gravacaoVotoService.gravar(any(Voto.class))).thenReturn(votoEsperado);
 
         Voto votoRegistrado = votacaoService.votar(sessaoId, cpf, opcaoVoto);
 
         assertNotNull(votoRegistrado);
-        assertEquals(cpf, votoRegistrado.getAssociadoId());
+        assertEquals(12345678909L, votoRegistrado.getAssociadoId());
         assertEquals(opcaoVoto, votoRegistrado.getVoto());
         assertEquals(pauta, votoRegistrado.getPauta());
 
-        verify(sessaoService).findById(sessaoId);
-        verify(votoRepository).existsByAssociadoIdAndPauta(cpf, pauta);
-        verify(votoRepository).save(any(Voto.class));
+        verify(sessaoService).buscarResumo(sessaoId);
+        verify(votoJdbcRepository).buscarAssociadosPorPauta(pauta.getId());
+        verify(gravacaoVotoService).gravar(any(Voto.class));
+        verify(acompanhamentoVotacaoService).notificarVoto(pauta.getId());
     }
 
     @Test
     @DisplayName("Deve lançar exceção quando a sessão não for encontrada")
     void testVotar_SessaoNaoEncontrada_DeveLancarExcecao() {
         UUID sessaoId = UUID.randomUUID();
-        String cpf = "12345678901";
+        String cpf = "12345678909";
         EVotoOpcao opcaoVoto = EVotoOpcao.SIM;
 
-        when(sessaoService.findById(sessaoId)).thenReturn(Optional.empty());
+        when(sessaoService.buscarResumo(sessaoId)).thenReturn(Optional.empty());
 
         HttpException exception = assertThrows(HttpException.class,
             () -> votacaoService.votar(sessaoId, cpf, opcaoVoto)
         );
 
         assertEquals("Sessão não encontrada", exception.getMessage());
-        verify(sessaoService).findById(sessaoId);
-        verify(votoRepository, never()).save(any(Voto.class));
+        verify(sessaoService).buscarResumo(sessaoId);
+        verify(gravacaoVotoService, never()).gravar(any(Voto.class));
     }
 
     @Test
     @DisplayName("Deve lançar exceção quando a sessão de votação já estiver encerrada")
     void testVotar_SessaoEncerrada_DeveLancarExcecao() {
         UUID sessaoId = UUID.randomUUID();
-        String cpf = "12345678901";
+        String cpf = "12345678909";
         EVotoOpcao opcaoVoto = EVotoOpcao.SIM;
         
-        Pauta pauta = new Pauta("Pauta de Teste", "Descrição da Pauta");
+        Pauta pauta = new Pauta(UUID.randomUUID(), "Pauta de Teste", "Descrição da Pauta", null);
         Sessao sessao = new Sessao(pauta, LocalDateTime.now().minusMinutes(15), LocalDateTime.now().minusMinutes(5));
 
-        when(sessaoService.findById(sessaoId)).thenReturn(Optional.of(sessao));
+        when(sessaoService.buscarResumo(sessaoId)).thenReturn(Optional.of(resumo(sessaoId, sessao)));
 
         HttpException exception = assertThrows(HttpException.class,
             () -> votacaoService.votar(sessaoId, cpf, opcaoVoto)
         );
 
         assertEquals("Sessão de votação encerrada", exception.getMessage());
-        verify(sessaoService).findById(sessaoId);
-        verify(votoRepository, never()).save(any(Voto.class));
+        verify(sessaoService).buscarResumo(sessaoId);
+        verify(gravacaoVotoService, never()).gravar(any(Voto.class));
     }
 
     @Test
     @DisplayName("Deve lançar exceção quando o associado já votou na pauta")
     void testVotar_AssociadoJaVotou_DeveLancarExcecao() {
         UUID sessaoId = UUID.randomUUID();
-        String cpf = "12345678901";
+        String cpf = "12345678909";
         EVotoOpcao opcaoVoto = EVotoOpcao.SIM;
         
-        Pauta pauta = new Pauta("Pauta de Teste", "Descrição da Pauta");
+        Pauta pauta = new Pauta(UUID.randomUUID(), "Pauta de Teste", "Descrição da Pauta", null);
         Sessao sessao = new Sessao(pauta, LocalDateTime.now(), LocalDateTime.now().plusMinutes(10));
 
-        when(sessaoService.findById(sessaoId)).thenReturn(Optional.of(sessao));
-        when(votoRepository.existsByAssociadoIdAndPauta(cpf, pauta)).thenReturn(true);
+        when(sessaoService.buscarResumo(sessaoId)).thenReturn(Optional.of(resumo(sessaoId, sessao)));
+        when(votoJdbcRepository.buscarAssociadosPorPauta(pauta.getId())).thenReturn(List.of(12345678909L));
 
         HttpException exception = assertThrows(HttpException.class,
             () -> votacaoService.votar(sessaoId, cpf, opcaoVoto)
         );
 
         assertEquals("Associado já votou nesta pauta", exception.getMessage());
-        verify(sessaoService).findById(sessaoId);
-        verify(votoRepository).existsByAssociadoIdAndPauta(cpf, pauta);
-        verify(votoRepository, never()).save(any(Voto.class));
+        verify(sessaoService).buscarResumo(sessaoId);
+        verify(votoJdbcRepository).buscarAssociadosPorPauta(pauta.getId());
+        verify(gravacaoVotoService, never()).gravar(any(Voto.class));
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção para CPF inválido sem consultar a sessão")
+    void testVotar_CpfInvalido_DeveLancarExcecao() {
+        UUID sessaoId = UUID.randomUUID();
+
+        HttpException exception = assertThrows(HttpException.class,
+            () -> votacaoService.votar(sessaoId, "12345678901", EVotoOpcao.SIM)
+        );
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getHttpStatus());
+        assertEquals("CPF inválido", exception.getMessage());
+        verifyNoInteractions(sessaoService, gravacaoVotoService);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar o segundo voto do associado sem consultar o banco novamente")
+    void testVotar_SegundoVoto_DeveUsarIndiceEmMemoria() {
+        UUID sessaoId = UUID.randomUUID();
+        String cpf = "12345678909";
+
+        Pauta pauta = new Pauta(UUID.randomUUID(), "Pauta de Teste", "Descrição da Pauta", null);
+        Sessao sessao = new Sessao(pauta, LocalDateTime.now(), LocalDateTime.now().plusMinutes(10));
+
+        when(sessaoService.buscarResumo(sessaoId)).thenReturn(Optional.of(resumo(sessaoId, sessao)));
+        when(votoJdbcRepository.buscarAssociadosPorPauta(pauta.getId())).thenReturn(List.of());
+        when(gravacaoVotoService.gravar(any(Voto.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        votacaoService.votar(sessaoId, cpf, EVotoOpcao.SIM);
+
+        HttpException exception = assertThrows(HttpException.class,
+            () -> votacaoService.votar(sessaoId, cpf, EVotoOpcao.NAO)
+        );
+
+        assertEquals("Associado já votou nesta pauta", exception.getMessage());
+        verify(votoJdbcRepository, times(1)).buscarAssociadosPorPauta(pauta.getId());
+        verify(gravacaoVotoService, times(1)).gravar(any(Voto.class));
+    }
+
+    @Test
+    @DisplayName("Deve liberar o associado no índice quando a gravação do voto falhar")
+    void testVotar_FalhaNaGravacao_DeveLiberarAssociado() {
+        UUID sessaoId = UUID.randomUUID();
+        String cpf = "12345678909";
+
+        Pauta pauta = new Pauta(UUID.randomUUID(), "Pauta de Teste", "Descrição da Pauta", null);
+        Sessao sessao = new Sessao(pauta, LocalDateTime.now(), LocalDateTime.now().plusMinutes(10));
+
+        when(sessaoService.buscarResumo(sessaoId)).thenReturn(Optional.of(resumo(sessaoId, sessao)));
+        when(votoJdbcRepository.buscarAssociadosPorPauta(pauta.getId())).thenReturn(List.of());
+        when(gravacaoVotoService.gravar(any(Voto.class)))
+                .thenThrow(new RuntimeException("database is locked"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThrows(RuntimeException.class, () -> votacaoService.votar(sessaoId, cpf, EVotoOpcao.SIM));
+
+        Voto voto = votacaoService.votar(sessaoId, cpf, EVotoOpcao.SIM);
+
+        assertEquals(12345678909L, voto.getAssociadoId());
+        verify(gravacaoVotoService, times(2)).gravar(any(Voto.class));
+    }
+
+    @Test
+    @DisplayName("Deve recusar com Retry-After o voto acima do limite da sessão sem registrar o associado")
+    void testVotar_AcimaDoLimiteDaSessao_DeveRecusar() {
+        properties.getAdmissao().setLimitePorSessao(1);
+        criarServico();
+        UUID sessaoId = UUID.randomUUID();
+        Pauta pauta = new Pauta(UUID.randomUUID(), "Pauta de Teste", "Descrição da Pauta", null);
+        Sessao sessao = new Sessao(pauta, LocalDateTime.now(), LocalDateTime.now().plusMinutes(10));
+
+        when(sessaoService.buscarResumo(sessaoId)).thenReturn(Optional.of(resumo(sessaoId, sessao)));
+        when(votoJdbcRepository.buscarAssociadosPorPauta(pauta.getId())).thenReturn(List.of());
+        // o segundo voto chega enquanto o primeiro ainda está gravando
+        var recusa = new AtomicReference<HttpException>();
+        when(gravacaoVotoService.gravar(any(Voto.class)))
+                .thenAnswer(invocation -> {
+                    recusa.set(assertThrows(HttpException.class,
+                            () -> votacaoService.votar(sessaoId, "52998224725", EVotoOpcao.NAO)));
+                    return invocation.getArgument(0);
+                })
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        votacaoService.votar(sessaoId, "12345678909", EVotoOpcao.SIM);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, recusa.get().getHttpStatus());
+        assertEquals(Duration.ofSeconds(1), recusa.get().getRetryAfter());
+        assertEquals(1, meterRegistry.get("votacao.voto").tag("resultado", "recusado").timer().count());
+        assertEquals(1, meterRegistry.get("votacao.admissao").tag("limite", "sessao").counter().count());
+
+        // a vaga foi devolvida e o associado recusado pode votar
+        Voto voto = votacaoService.votar(sessaoId, "52998224725", EVotoOpcao.NAO);
+        assertEquals(52998224725L, voto.getAssociadoId());
+        verify(gravacaoVotoService, times(2)).gravar(any(Voto.class));
     }
 
     @Test
     @DisplayName("Deve obter o resultado da votação para uma pauta")
     void testResultado_DeveRetornarResultadoVotacao() {
         UUID pautaId = UUID.randomUUID();
-        ResultadoVotacaoDTO resultadoEsperado = new ResultadoVotacaoDTO(10, 5, 5);
 
-        when(votoRepository.obterResultadoVotacao(pautaId)).thenReturn(resultadoEsperado);
+        when(votoJdbcRepository.contarVotosPorPauta()).thenReturn(List.of(
+                new ContagemVotosDTO(pautaId, EVotoOpcao.SIM, 5),
+                new ContagemVotosDTO(pautaId, EVotoOpcao.NAO, 5)
+        ));
+        apuracaoVotos.reconstruir();
 
         ResultadoVotacaoDTO resultadoObtido = votacaoService.resultado(pautaId);
 
         assertNotNull(resultadoObtido);
-        assertEquals(resultadoEsperado.getVotosSim(), resultadoObtido.getVotosSim());
-        assertEquals(resultadoEsperado.getVotosNao(), resultadoObtido.getVotosNao());
+        assertEquals(10, resultadoObtido.getTotalVotos());
+        assertEquals(5, resultadoObtido.getVotosSim());
+        assertEquals(5, resultadoObtido.getVotosNao());
+
+        verify(votoJdbcRepository).contarVotosPorPauta();
+        verifyNoMoreInteractions(votoJdbcRepository);
+    }
+
+    @Test
+    @DisplayName("Deve somar ao placar da pauta o voto recém gravado")
+    void testResultado_AposVoto_DeveContarVoto() {
+        UUID sessaoId = UUID.randomUUID();
+        Pauta pauta = new Pauta(UUID.randomUUID(), "Pauta de Teste", "Descrição da Pauta", null);
+        Sessao sessao = new Sessao(pauta, LocalDateTime.now(), LocalDateTime.now().plusMinutes(10));
+
+        when(sessaoService.buscarResumo(sessaoId)).thenReturn(Optional.of(resumo(sessaoId, sessao)));
+        when(votoJdbcRepository.buscarAssociadosPorPauta(pauta.getId())).thenReturn(List.of());
+        when(gravacaoVotoService.gravar(any(Voto.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        votacaoService.votar(sessaoId, "12345678909", EVotoOpcao.SIM);
+        votacaoService.votar(sessaoId, "52998224725", EVotoOpcao.NAO);
+        votacaoService.votar(sessaoId, "11144477735", EVotoOpcao.SIM);
+
+        ResultadoVotacaoDTO resultado = votacaoService.resultado(pauta.getId());
+
+        assertEquals(3, resultado.getTotalVotos());
+        assertEquals(2, resultado.getVotosSim());
+        assertEquals(1, resultado.getVotosNao());
+    }
+
+    @Test
+    @DisplayName("Deve medir as etapas do voto e contar os votos por desfecho")
+    void testVotar_DeveRegistrarMetricas() {
+        UUID sessaoId = UUID.randomUUID();
+        Pauta pauta = new Pauta(UUID.randomUUID(), "Pauta de Teste", "Descrição da Pauta", null);
+        Sessao sessao = new Sessao(pauta, LocalDateTime.now(), LocalDateTime.now().plusMinutes(10));
+
+        when(sessaoService.buscarResumo(sessaoId)).thenReturn(Optional.of(resumo(sessaoId, sessao)));
+        when(votoJdbcRepository.buscarAssociadosPorPauta(pauta.getId())).thenReturn(List.of());
+        when(gravacaoVotoService.gravar(any(Voto.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        votacaoService.votar(sessaoId, "12345678909", EVotoOpcao.SIM);
+        assertThrows(HttpException.class, () -> votacaoService.votar(sessaoId, "12345678909", EVotoOpcao.NAO));
+        assertThrows(HttpException.class, () -> votacaoService.votar(sessaoId, "12345678900", EVotoOpcao.NAO));
+
+        assertEquals(1, meterRegistry.get("votacao.voto").tag("resultado", "aceito").timer().count());
+        assertEquals(1, meterRegistry.get("votacao.voto").tag("resultado", "duplicado").timer().count());
+        assertEquals(1, meterRegistry.get("votacao.voto").tag("resultado", "cpf_invalido").timer().count());
+        assertEquals(2, meterRegistry.get("votacao.voto.etapa").tag("etapa", "sessao").timer().count());
+        assertEquals(2, meterRegistry.get("votacao.voto.etapa").tag("etapa", "duplicidade").timer().count());
+        assertEquals(1, meterRegistry.get("votacao.voto.etapa").tag("etapa", "gravacao").timer().count());
+    }
+
+    @Test
+    @DisplayName("Deve trocar o ETag do resultado de pauta aberta a cada voto")
+    void testResultadoPublicado_PautaAberta_DeveMudarETagComVoto() {
+        UUID pautaId = UUID.randomUUID();
+        apuracaoVotos.registrar(pautaId, EVotoOpcao.SIM);
+
+        ResultadoPublicadoDTO antes = votacaoService.resultadoPublicado(pautaId);
+        apuracaoVotos.registrar(pautaId, EVotoOpcao.NAO);
+        ResultadoPublicadoDTO depois = votacaoService.resultadoPublicado(pautaId);
+
+        assertFalse(antes.isDefinitivo());
+        assertNotEquals(antes.getEtag(), depois.getEtag());
+        assertEquals("{\"totalVotos\":2,\"votosSim\":1,\"votosNao\":1}", new String(depois.getJson()));
+    }
+
+    @Test
+    @DisplayName("Deve serializar uma única vez o resultado de pauta encerrada")
+    void testResultadoPublicado_PautaEncerrada_DeveReusarJson() {
+        UUID pautaId = UUID.randomUUID();
+        apuracaoVotos.registrar(pautaId, EVotoOpcao.SIM);
+        String etagAberta = votacaoService.resultadoPublicado(pautaId).getEtag();
+
+        apuracaoVotos.congelar(pautaId, new ResultadoVotacaoDTO(3, 2, 1));
+        ResultadoPublicadoDTO primeiro = votacaoService.resultadoPublicado(pautaId);
+        apuracaoVotos.registrar(pautaId, EVotoOpcao.NAO);
+        ResultadoPublicadoDTO segundo = votacaoService.resultadoPublicado(pautaId);
+
+        assertTrue(primeiro.isDefinitivo());
+        assertSame(primeiro, segundo);
+        assertNotEquals(etagAberta, primeiro.getEtag());
+        assertEquals("{\"totalVotos\":3,\"votosSim\":2,\"votosNao\":1}", new String(primeiro.getJson()));
+    }
 
-        verify(votoRepository).obterResultadoVotacao(pautaId);
+    private SessaoResumoDTO resumo(UUID sessaoId, Sessao sessao) {
+        return new SessaoResumoDTO(sessaoId, sessao.getPauta().getId(), sessao.getFechamento());
     }
 }
@@ -0,0 +1,66 @@
+package com.neverson.votacao.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CPFUtilsTest {
+
+    @Test
+    @DisplayName("Deve devolver os dígitos do CPF válido como long, com ou sem formatação")
+    void shouldParseValidCpf() {
+        assertEquals(52998224725L, CPFUtils.parse("52998224725"));
+        assertEquals(52998224725L, CPFUtils.parse("529.982.247-25"));
+        assertEquals(1234567890L, CPFUtils.parse("01234567890"));
+        assertTrue(CPFUtils.isValid("12345678909"));
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"52998224726", "52998224715", "11111111111", "00000000000", "5299822472",
+            "529982247250", "5299822472a", "529.982.247.25", "529-982-247-25", "529.982.24725"})
+    @DisplayName("Deve recusar CPF com dígito verificador, tamanho ou formato inválido")
+    void shouldRejectInvalidCpf(String cpf) {
+        assertEquals(CPFUtils.INVALIDO, CPFUtils.parse(cpf));
+        assertFalse(CPFUtils.isValid(cpf));
+    }
+
+    @Test
+    @DisplayName("Deve completar a base com os dígitos verificadores")
+    void shouldCompleteBaseWithCheckDigits() {
+        assertEquals(52998224725L, CPFUtils.completar(529982247L));
+        assertEquals(12345678909L, CPFUtils.completar(123456789L));
+        assertEquals(1234567890L, CPFUtils.completar(12345678L));
+        for (long base = 100_000_000L; base < 100_010_000L; base++) {
+            assertEquals(base, CPFUtils.parse(Long.toString(CPFUtils.completar(base))) / 100);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve validar sem alocar memória")
+    void shouldNotAllocate() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        String[] cpfs = {"52998224725", "529.982.247-25", "52998224726", "11111111111"};
+        long thread = Thread.currentThread().threadId();
+
+        long soma = 0;
+        for (int i = 0; i < 200_000; i++) {
+            soma += CPFUtils.parse(cpfs[i & 3]);
+        }
+        long antes = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 100_000; i++) {
+            soma += CPFUtils.parse(cpfs[i & 3]);
+        }
+        long alocados = threads.getThreadAllocatedBytes(thread) - antes;
+
+        assertNotEquals(0, soma);
+        // folga para a própria medição; qualquer alocação por chamada passaria de 100 KB aqui
+        assertTrue(alocados < 16 * 1024, alocados + " bytes alocados em 100 mil chamadas");
+    }
+}
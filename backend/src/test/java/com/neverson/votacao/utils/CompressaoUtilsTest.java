@@ -0,0 +1,30 @@
+package com.neverson.votacao.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressaoUtilsTest {
+
+    @Test
+    @DisplayName("Deve aceitar gzip listado, com q positivo ou pelo curinga")
+    void shouldAcceptGzip() {
+        assertTrue(CompressaoUtils.aceitaGzip("gzip"));
+        assertTrue(CompressaoUtils.aceitaGzip("br, GZIP;q=0.5"));
+        assertTrue(CompressaoUtils.aceitaGzip("deflate, *"));
+        assertTrue(CompressaoUtils.aceitaGzip("*;q=0.1, br"));
+    }
+
+    @Test
+    @DisplayName("Deve recusar gzip com q=0, ausente ou só parecido no nome")
+    void shouldRejectGzip() {
+        assertFalse(CompressaoUtils.aceitaGzip(null));
+        assertFalse(CompressaoUtils.aceitaGzip("identity"));
+        assertFalse(CompressaoUtils.aceitaGzip("gzip;q=0"));
+        assertFalse(CompressaoUtils.aceitaGzip("gzip; q=0.000, *"));
+        assertFalse(CompressaoUtils.aceitaGzip("x-gzip"));
+        assertFalse(CompressaoUtils.aceitaGzip("*;q=0"));
+        assertFalse(CompressaoUtils.aceitaGzip("gzip;q=abc"));
+    }
+}
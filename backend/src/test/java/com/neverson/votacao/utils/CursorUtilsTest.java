@@ -0,0 +1,48 @@
+package com.neverson.votacao.utils;
+
+import com.neverson.votacao.config.exceptions.HttpException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorUtilsTest {
+
+    @Test
+    @DisplayName("Deve decodificar o mesmo id que foi codificado no cursor")
+    void shouldRoundTripId() {
+        UUID id = UUIDUtils.generate();
+
+        String cursor = CursorUtils.codificar(id);
+
+        assertEquals(id, CursorUtils.decodificar(cursor));
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"), cursor);
+    }
+
+    @Test
+    @DisplayName("Deve preservar instante com nanossegundos e id no cursor temporal")
+    void shouldRoundTripInstanteAndId() {
+        LocalDateTime instante = LocalDateTime.of(2025, 5, 20, 14, 30, 15, 123_456_789);
+        UUID id = UUIDUtils.generate();
+
+        var cursor = CursorUtils.decodificarTemporal(CursorUtils.codificar(instante, id));
+
+        assertEquals(instante, cursor.instante());
+        assertEquals(id, cursor.id());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "nao-e-cursor", "%%%", "AAAAAAAAAAAAAAAAAAAAAA=="})
+    @DisplayName("Deve recusar cursor malformado ou de outro tipo de listagem")
+    void shouldRejectInvalidCursor(String cursor) {
+        HttpException exception = assertThrows(HttpException.class, () -> CursorUtils.decodificarTemporal(cursor));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getHttpStatus());
+    }
+}
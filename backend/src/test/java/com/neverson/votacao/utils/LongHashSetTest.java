@@ -0,0 +1,60 @@
+package com.neverson.votacao.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetTest {
+
+    @Test
+    @DisplayName("Deve adicionar, consultar e remover valores")
+    void shouldAddContainAndRemove() {
+        LongHashSet set = new LongHashSet();
+
+        assertTrue(set.add(12345678901L));
+        assertFalse(set.add(12345678901L));
+        assertTrue(set.contains(12345678901L));
+        assertEquals(1, set.size());
+
+        assertTrue(set.remove(12345678901L));
+        assertFalse(set.contains(12345678901L));
+        assertFalse(set.remove(12345678901L));
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar a chave reservada 0")
+    void shouldRejectReservedKey() {
+        LongHashSet set = new LongHashSet();
+
+        assertThrows(IllegalArgumentException.class, () -> set.add(0L));
+        assertFalse(set.contains(0L));
+    }
+
+    @Test
+    @DisplayName("Deve manter o mesmo conteúdo de um HashSet após inserções e remoções aleatórias")
+    void shouldBehaveLikeHashSet() {
+        Random random = new Random(42);
+        LongHashSet set = new LongHashSet();
+        Set<Long> esperado = new HashSet<>();
+
+        for (int i = 0; i < 200_000; i++) {
+            long valor = 1 + random.nextInt(50_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(esperado.remove(valor), set.remove(valor));
+            } else {
+                assertEquals(esperado.add(valor), set.add(valor));
+            }
+        }
+
+        assertEquals(esperado.size(), set.size());
+        for (long valor = 1; valor <= 50_000; valor++) {
+            assertEquals(esperado.contains(valor), set.contains(valor));
+        }
+    }
+}